@@ -0,0 +1,94 @@
+package au.com.mindworks.dictionary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Membership checks of a whole document: {@link Dictionary#searchWords(CharSequence[])} and
+ * {@link Dictionary#searchTokens(CharBuffer, TokenVisitor)} against one {@link Dictionary#searchWord(CharSequence)}
+ * call per token. The document is made of corpus words picked with a skewed distribution, as in natural text,
+ * with one missing word in ten.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BatchSearchBenchmark {
+    private static final int SAMPLE_COUNT = 1 << 10;
+
+    private static final TokenVisitor NO_OP_VISITOR = new TokenVisitor() {
+        @Override
+        public void visitToken(final CharBuffer text, final int start, final int end, final boolean found) {
+        }
+    };
+
+    @Param({"10000", "1000000"})
+    public int corpusSize;
+
+    @Param({"1024", "65536"})
+    public int documentLength;
+
+    private Dictionary dictionary;
+    private CharSequence[] tokens;
+    private CharBuffer text;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final WordCorpus corpus = new WordCorpus(corpusSize, SAMPLE_COUNT);
+        dictionary = new Dictionary();
+        dictionary.addAllWords(Arrays.asList(corpus.getWords()));
+
+        final Random random = new Random(42);
+        tokens = new CharSequence[documentLength];
+        final StringBuilder document = new StringBuilder();
+        for (int i = 0; i < documentLength; i++) {
+            if (random.nextInt(10) == 0) {
+                tokens[i] = corpus.getMissingWords()[random.nextInt(SAMPLE_COUNT)];
+            } else {
+                // squaring skews the picks towards the first words, like the frequent words of a text
+                final double uniform = random.nextDouble();
+                tokens[i] = corpus.getWords()[(int) (uniform * uniform * corpusSize)];
+            }
+            document.append(tokens[i]).append(i % 12 == 11 ? ". " : " ");
+        }
+        text = CharBuffer.wrap(document);
+    }
+
+    @Benchmark
+    public int searchWordPerToken() {
+        int foundCount = 0;
+        for (CharSequence token : tokens) {
+            if (dictionary.searchWord(token)) {
+                foundCount++;
+            }
+        }
+        return foundCount;
+    }
+
+    @Benchmark
+    public boolean[] searchWords() {
+        return dictionary.searchWords(tokens);
+    }
+
+    @Benchmark
+    public int searchTokens() {
+        return dictionary.searchTokens(text, NO_OP_VISITOR);
+    }
+}
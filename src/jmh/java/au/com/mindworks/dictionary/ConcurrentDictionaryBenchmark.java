@@ -0,0 +1,112 @@
+package au.com.mindworks.dictionary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link ConcurrentDictionary} against a {@link Dictionary} behind a single lock, for a read/write mix
+ * over the seeded {@link WordCorpus}. {@link #main(String[])} runs it with 1 to 64 threads, one JSON result file
+ * per thread count:
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.main=au.com.mindworks.dictionary.ConcurrentDictionaryBenchmark -Djmh.args=
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ConcurrentDictionaryBenchmark {
+    private static final int SAMPLE_COUNT = 1 << 14;
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+
+    @Param({"1000000"})
+    public int corpusSize;
+
+    /**
+     * Percentage of operations which add or remove a word, the others search a word.
+     */
+    @Param({"1", "10"})
+    public int writePercentage;
+
+    private ConcurrentDictionary concurrentDictionary;
+    private Dictionary lockedDictionary;
+    private String[] words;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final WordCorpus corpus = new WordCorpus(corpusSize, SAMPLE_COUNT);
+        concurrentDictionary = new ConcurrentDictionary();
+        lockedDictionary = new Dictionary();
+        for (String word : corpus.getWords()) {
+            concurrentDictionary.addWord(word);
+            lockedDictionary.addWord(word);
+        }
+
+        words = new String[SAMPLE_COUNT];
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            words[i] = (i & 1) == 0 ? corpus.getWords()[(int) ((long) i * corpusSize / SAMPLE_COUNT)] : corpus.getMissingWords()[i];
+        }
+    }
+
+    @Benchmark
+    public boolean concurrentDictionary() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final String word = words[random.nextInt(SAMPLE_COUNT)];
+        if (random.nextInt(100) >= writePercentage) {
+            return concurrentDictionary.searchWord(word);
+        }
+        if (random.nextBoolean()) {
+            concurrentDictionary.addWord(word);
+            return true;
+        }
+        return concurrentDictionary.removeWord(word);
+    }
+
+    @Benchmark
+    public boolean lockedDictionary() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final String word = words[random.nextInt(SAMPLE_COUNT)];
+        synchronized (lockedDictionary) {
+            if (random.nextInt(100) >= writePercentage) {
+                return lockedDictionary.searchWord(word);
+            }
+            if (random.nextBoolean()) {
+                lockedDictionary.addWord(word);
+                return true;
+            }
+            return lockedDictionary.removeWord(word);
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        for (int threadCount : THREAD_COUNTS) {
+            final Options options = new OptionsBuilder()
+                    .include(ConcurrentDictionaryBenchmark.class.getSimpleName())
+                    .threads(threadCount)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("target/jmh-concurrent-" + threadCount + "-threads.json")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package au.com.mindworks.dictionary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and average latency of the public {@link Dictionary} operations over the seeded {@link WordCorpus}
+ * of each size. Run with {@code -prof gc} (the default jmh.args of the benchmarks profile) for allocation rates.
+ * <p/>
+ * Mutating benchmarks add and remove the same word, so the dictionary keeps its size across invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class DictionaryBenchmark {
+    private static final int SAMPLE_COUNT = 1 << 14;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int corpusSize;
+
+    private Dictionary dictionary;
+    private String[] words;
+    private String[] missingWords;
+    private String[] prefixes;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final WordCorpus corpus = new WordCorpus(corpusSize, SAMPLE_COUNT);
+        dictionary = new Dictionary();
+        for (String word : corpus.getWords()) {
+            dictionary.addWord(word, word.length());
+        }
+
+        words = new String[SAMPLE_COUNT];
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            words[i] = corpus.getWords()[(int) ((long) i * corpusSize / SAMPLE_COUNT)];
+        }
+        missingWords = corpus.getMissingWords();
+        prefixes = corpus.getPrefixes();
+    }
+
+    private int nextIndex() {
+        index = (index + 1) & (SAMPLE_COUNT - 1);
+        return index;
+    }
+
+    @Benchmark
+    public boolean searchWordHit() {
+        return dictionary.searchWord(words[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean searchWordMiss() {
+        return dictionary.searchWord(missingWords[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean addWordAndRemoveWord() {
+        final String missingWord = missingWords[nextIndex()];
+        dictionary.addWord(missingWord);
+        return dictionary.removeWord(missingWord);
+    }
+
+    @Benchmark
+    public boolean removeWordAndAddWord() {
+        final String word = words[nextIndex()];
+        final boolean isRemoved = dictionary.removeWord(word);
+        dictionary.addWord(word, word.length());
+        return isRemoved;
+    }
+
+    @Benchmark
+    public void addExistingWord() {
+        dictionary.addWord(words[nextIndex()]);
+    }
+
+    @Benchmark
+    public int size() {
+        return dictionary.size();
+    }
+
+    @Benchmark
+    public int countWordsStartingWith() {
+        return dictionary.countWordsStartingWith(prefixes[nextIndex()]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<String> searchAllWordsStartingWith() {
+        return dictionary.searchAllWordsStartingWith(prefixes[nextIndex()]);
+    }
+
+    @Benchmark
+    public List<String> searchAllWordsStartingWithFirst10() {
+        return dictionary.searchAllWordsStartingWith(prefixes[nextIndex()], 0, 10);
+    }
+
+    @Benchmark
+    public void iterateWordsStartingWithFirst10(final Blackhole blackhole) {
+        final Iterator<String> iterator = dictionary.iterateWordsStartingWith(prefixes[nextIndex()]);
+        for (int i = 0; i < 10 && iterator.hasNext(); i++) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    public List<String> topK10() {
+        return dictionary.topK(prefixes[nextIndex()], 10);
+    }
+}
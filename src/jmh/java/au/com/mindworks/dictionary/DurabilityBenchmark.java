@@ -0,0 +1,68 @@
+package au.com.mindworks.dictionary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the changes made to a {@link DurableDictionary} by 4 writers, for each {@link DurabilityMode}.
+ * Every operation adds or removes a word, so every operation is logged. The log is compacted above 64MB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class DurabilityBenchmark {
+    private static final int SAMPLE_COUNT = 1 << 14;
+
+    @Param({"SYNC", "BATCHED", "ASYNC"})
+    public DurabilityMode mode;
+
+    private Path directory;
+    private DurableDictionary dictionary;
+    private String[] words;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final WordCorpus corpus = new WordCorpus(SAMPLE_COUNT, SAMPLE_COUNT);
+        directory = Files.createTempDirectory("durability-benchmark");
+        dictionary = DurableDictionary.open(directory, mode, 64 << 20);
+        words = corpus.getMissingWords();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        dictionary.close();
+        Files.deleteIfExists(directory.resolve(DurableDictionary.LOG_FILE_NAME));
+        Files.deleteIfExists(directory.resolve(DurableDictionary.SNAPSHOT_FILE_NAME));
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public void addOrRemoveWord() {
+        final String word = words[ThreadLocalRandom.current().nextInt(SAMPLE_COUNT)];
+        if (!dictionary.removeWord(word)) {
+            dictionary.addWord(word);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package au.com.mindworks.dictionary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Dictionary#searchWithinDistance(CharSequence, int)} against the brute force approach: computing the
+ * Levenshtein distance between the word and every word of the dictionary (materialized once, outside of the benchmark).
+ * Words are misspelt by one substitution of a corpus word.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FuzzySearchBenchmark {
+    private static final int SAMPLE_COUNT = 1 << 10;
+
+    @Param({"10000", "1000000"})
+    public int corpusSize;
+
+    @Param({"1", "2"})
+    public int maxEdits;
+
+    private Dictionary dictionary;
+    private List<String> allWords;
+    private String[] misspeltWords;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final WordCorpus corpus = new WordCorpus(corpusSize, SAMPLE_COUNT);
+        dictionary = new Dictionary();
+        dictionary.addAllWords(Arrays.asList(corpus.getWords()));
+        allWords = dictionary.searchAllWords();
+
+        misspeltWords = new String[SAMPLE_COUNT];
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            final char[] word = corpus.getWords()[(int) ((long) i * corpusSize / SAMPLE_COUNT)].toCharArray();
+            word[word.length / 2] = (char) ('a' + (word[word.length / 2] - 'a' + 1) % 26);
+            misspeltWords[i] = new String(word);
+        }
+    }
+
+    private String nextMisspeltWord() {
+        index = (index + 1) & (SAMPLE_COUNT - 1);
+        return misspeltWords[index];
+    }
+
+    @Benchmark
+    public List<String> trieWalk() {
+        return dictionary.searchWithinDistance(nextMisspeltWord(), maxEdits);
+    }
+
+    @Benchmark
+    public List<String> trieWalkClosest10() {
+        return dictionary.searchWithinDistance(nextMisspeltWord(), maxEdits, 10);
+    }
+
+    @Benchmark
+    public List<String> bruteForce() {
+        final String misspeltWord = nextMisspeltWord();
+        final List<String> foundWords = new ArrayList<String>();
+        int[] previousRow = new int[misspeltWord.length() + 1];
+        int[] row = new int[misspeltWord.length() + 1];
+        for (String word : allWords) {
+            for (int j = 0; j <= misspeltWord.length(); j++) {
+                previousRow[j] = j;
+            }
+            for (int i = 1; i <= word.length(); i++) {
+                row[0] = i;
+                for (int j = 1; j <= misspeltWord.length(); j++) {
+                    final int substitution = previousRow[j - 1] + (word.charAt(i - 1) == misspeltWord.charAt(j - 1) ? 0 : 1);
+                    row[j] = Math.min(substitution, Math.min(previousRow[j], row[j - 1]) + 1);
+                }
+                final int[] swap = previousRow;
+                previousRow = row;
+                row = swap;
+            }
+            if (previousRow[misspeltWord.length()] <= maxEdits) {
+                foundWords.add(word);
+            }
+        }
+        return foundWords;
+    }
+}
@@ -0,0 +1,71 @@
+package au.com.mindworks.dictionary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the instrumentation of the hot {@link Dictionary} operations, with metrics disabled (a null check)
+ * and enabled (two {@link System#nanoTime()} calls and a few {@link java.util.concurrent.atomic.LongAdder} increments).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+    private static final int SAMPLE_COUNT = 1 << 14;
+
+    @Param({"false", "true"})
+    public boolean metricsEnabled;
+
+    private Dictionary dictionary;
+    private String[] words;
+    private String[] prefixes;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final WordCorpus corpus = new WordCorpus(10000, SAMPLE_COUNT);
+        dictionary = new Dictionary();
+        dictionary.addAllWords(Arrays.asList(corpus.getWords()));
+        if (metricsEnabled) {
+            dictionary.enableMetrics();
+        }
+
+        words = new String[SAMPLE_COUNT];
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            words[i] = corpus.getWords()[i % corpus.getWords().length];
+        }
+        prefixes = corpus.getPrefixes();
+    }
+
+    private int nextIndex() {
+        index = (index + 1) & (SAMPLE_COUNT - 1);
+        return index;
+    }
+
+    @Benchmark
+    public boolean searchWord() {
+        return dictionary.searchWord(words[nextIndex()]);
+    }
+
+    @Benchmark
+    public List<String> searchAllWordsStartingWithFirst10() {
+        return dictionary.searchAllWordsStartingWith(prefixes[nextIndex()], 0, 10);
+    }
+}
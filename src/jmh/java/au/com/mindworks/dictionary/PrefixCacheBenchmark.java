@@ -0,0 +1,67 @@
+package au.com.mindworks.dictionary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Dictionary#searchAllWordsStartingWith(String)} over the Zipf distributed prefixes of the {@link WordCorpus},
+ * without cache and with each eviction policy, the cache holding up to half of the words. One query in a thousand
+ * is preceded by adding and removing a word, invalidating the results of its prefixes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PrefixCacheBenchmark {
+    private static final int SAMPLE_COUNT = 1 << 14;
+
+    @Param({"100000", "1000000"})
+    public int corpusSize;
+
+    @Param({"NONE", "LRU", "TINY_LFU"})
+    public String cache;
+
+    private Dictionary dictionary;
+    private String[] prefixes;
+    private String[] missingWords;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final WordCorpus corpus = new WordCorpus(corpusSize, SAMPLE_COUNT);
+        dictionary = new Dictionary();
+        dictionary.addAllWords(Arrays.asList(corpus.getWords()));
+        if (!"NONE".equals(cache)) {
+            dictionary.enablePrefixCache(corpusSize / 2, CacheEvictionPolicy.valueOf(cache));
+        }
+        prefixes = corpus.getPrefixes();
+        missingWords = corpus.getMissingWords();
+    }
+
+    @Benchmark
+    public List<String> searchAllWordsStartingWith() {
+        index = (index + 1) & (SAMPLE_COUNT - 1);
+        if (index % 1000 == 0) {
+            final String word = prefixes[index] + missingWords[index];
+            dictionary.addWord(word);
+            dictionary.removeWord(word);
+        }
+        return dictionary.searchAllWordsStartingWith(prefixes[index]);
+    }
+}
@@ -0,0 +1,101 @@
+package au.com.mindworks.dictionary;
+
+import java.util.Random;
+
+/**
+ * Reproducible synthetic corpus for the benchmarks.
+ * <p/>
+ * Words are drawn from a seeded {@link Random}, with English letter frequencies and a word length distribution
+ * peaking around 7 characters. Prefixes follow a Zipf distribution over the words, cut to 1 to 3 characters,
+ * mostly 1 or 2, like autocomplete traffic where a few short prefixes make most of the calls.
+ */
+final class WordCorpus {
+    static final long SEED = 42;
+
+    // a..z, per 10000 letters of English text
+    private static final int[] LETTER_FREQUENCIES = {
+            817, 149, 278, 425, 1270, 223, 202, 609, 697, 15, 77, 403, 241,
+            675, 751, 193, 10, 599, 633, 906, 276, 98, 236, 15, 197, 7
+    };
+    private static final int[] CUMULATIVE_LETTER_FREQUENCIES = new int[LETTER_FREQUENCIES.length];
+
+    static {
+        int total = 0;
+        for (int i = 0; i < LETTER_FREQUENCIES.length; i++) {
+            total += LETTER_FREQUENCIES[i];
+            CUMULATIVE_LETTER_FREQUENCIES[i] = total;
+        }
+    }
+
+    private final String[] words;
+    private final String[] missingWords;
+    private final String[] prefixes;
+
+    /**
+     * @param wordCount number of words, duplicates included
+     * @param sampleCount number of missing words and of prefixes to sample
+     */
+    WordCorpus(final int wordCount, final int sampleCount) {
+        final Random random = new Random(SEED);
+        words = new String[wordCount];
+        for (int i = 0; i < wordCount; i++) {
+            words[i] = randomWord(random);
+        }
+
+        missingWords = new String[sampleCount];
+        for (int i = 0; i < sampleCount; i++) {
+            // 'q' followed by 'x' is kept out of the words, see randomWord
+            missingWords[i] = "qx" + randomWord(random);
+        }
+
+        prefixes = new String[sampleCount];
+        for (int i = 0; i < sampleCount; i++) {
+            final String word = words[zipfIndex(random, wordCount)];
+            final int prefixLength = Math.min(word.length(), random.nextInt(10) < 5 ? 1 : random.nextInt(10) < 6 ? 2 : 3);
+            prefixes[i] = word.substring(0, prefixLength);
+        }
+    }
+
+    String[] getWords() {
+        return words;
+    }
+
+    String[] getMissingWords() {
+        return missingWords;
+    }
+
+    String[] getPrefixes() {
+        return prefixes;
+    }
+
+    private static String randomWord(final Random random) {
+        final int length = Math.max(1, Math.min(20, (int) Math.round(7 + 2.5 * random.nextGaussian())));
+        final char[] characters = new char[length];
+        for (int i = 0; i < length; i++) {
+            char character;
+            do {
+                character = randomLetter(random);
+            } while (i > 0 && characters[i - 1] == 'q' && character == 'x');
+            characters[i] = character;
+        }
+        return new String(characters);
+    }
+
+    private static char randomLetter(final Random random) {
+        final int value = random.nextInt(CUMULATIVE_LETTER_FREQUENCIES[CUMULATIVE_LETTER_FREQUENCIES.length - 1]);
+        int letter = 0;
+        while (CUMULATIVE_LETTER_FREQUENCIES[letter] <= value) {
+            letter++;
+        }
+        return (char) ('a' + letter);
+    }
+
+    /**
+     * @return index in [0, count) with probability proportional to 1 / (index + 1)
+     */
+    private static int zipfIndex(final Random random, final int count) {
+        // inverse of the continuous approximation of the harmonic CDF, ln(x + 1) / ln(count + 1)
+        final double x = Math.exp(random.nextDouble() * Math.log(count + 1.0)) - 1;
+        return Math.min(count - 1, (int) x);
+    }
+}
@@ -0,0 +1,163 @@
+package au.com.mindworks.dictionary;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Searches many words at once.
+ * <p/>
+ * All the words are normalized into a single character array, and searched grouped by their first characters,
+ * keeping the path of nodes of the previous word: a word only needs to be walked from the end of the prefix it shares
+ * with the previous word (or from where the previous word left the trie, if sooner). Duplicates and words sharing long prefixes, which
+ * are common in batches of tokens, are then mostly free.
+ * <p/>
+ * Tokens of a text are searched while scanning the text instead, one character at a time, without copying them.
+ */
+final class BatchSearcher {
+
+    /**
+     * No character, one bucket per ASCII character, and one for all the other characters.
+     */
+    private static final int BUCKET_COUNT = 130;
+
+    private BatchSearcher() {
+    }
+
+    /**
+     * @param words words to search, null and blank words are not found
+     * @return found[i] is true if words[i] is found under root
+     */
+    static boolean[] search(final TrieNode root, final CharSequence[] words) {
+        final int wordCount = words.length;
+        final int[] starts = new int[wordCount + 1];
+        char[] characters = new char[wordCount * 8];
+        int totalLength = 0;
+        int maxLength = 0;
+        for (int i = 0; i < wordCount; i++) {
+            starts[i] = totalLength;
+            final CharSequence word = words[i];
+            if (word == null) {
+                continue;
+            }
+            final int start = WordNormalizer.start(word);
+            final int end = WordNormalizer.end(word, start);
+            if (totalLength + end - start > characters.length) {
+                characters = Arrays.copyOf(characters, Math.max(characters.length * 2, totalLength + end - start));
+            }
+            for (int j = start; j < end; j++) {
+                characters[totalLength++] = WordNormalizer.normalize(word.charAt(j));
+            }
+            maxLength = Math.max(maxLength, end - start);
+        }
+        starts[wordCount] = totalLength;
+
+        // stable counting sorts by the second, then by the first character, so that the words sharing a prefix
+        // follow each other, at a linear cost
+        final int[] order = new int[wordCount];
+        for (int i = 0; i < wordCount; i++) {
+            order[i] = i;
+        }
+        final int[] sortedOrder = new int[wordCount];
+        countingSort(order, sortedOrder, starts, characters, 1);
+        countingSort(sortedOrder, order, starts, characters, 0);
+
+        final boolean[] found = new boolean[wordCount];
+        final TrieNode[] path = new TrieNode[maxLength + 1];
+        path[0] = root;
+        int pathDepth = 0;
+        int previousWord = -1;
+        for (int i = 0; i < wordCount; i++) {
+            final int word = order[i];
+            final int start = starts[word];
+            final int length = starts[word + 1] - start;
+            if (length == 0) {
+                continue;
+            }
+
+            int depth = 0;
+            if (previousWord >= 0) {
+                final int previousLength = starts[previousWord + 1] - starts[previousWord];
+                depth = commonPrefixLength(characters, starts[previousWord], start, Math.min(pathDepth, Math.min(previousLength, length)));
+            }
+            while (depth < length) {
+                final TrieNode child = path[depth].getChild(characters[start + depth]);
+                if (child == null) {
+                    break;
+                }
+                path[++depth] = child;
+            }
+            pathDepth = depth;
+            previousWord = word;
+            found[word] = depth == length && path[depth].isEndOfWord();
+        }
+        return found;
+    }
+
+    /**
+     * Sorts the words by their character at position, words too short coming first, and characters other than ASCII
+     * sharing the last bucket: this only makes the grouping of words sharing a prefix less precise.
+     */
+    private static void countingSort(final int[] order, final int[] sortedOrder, final int[] starts, final char[] characters,
+                                     final int position) {
+        final int[] bucketStarts = new int[BUCKET_COUNT + 1];
+        for (int word : order) {
+            bucketStarts[bucket(starts, characters, word, position) + 1]++;
+        }
+        for (int i = 1; i <= BUCKET_COUNT; i++) {
+            bucketStarts[i] += bucketStarts[i - 1];
+        }
+        for (int word : order) {
+            sortedOrder[bucketStarts[bucket(starts, characters, word, position)]++] = word;
+        }
+    }
+
+    private static int bucket(final int[] starts, final char[] characters, final int word, final int position) {
+        if (starts[word + 1] - starts[word] <= position) {
+            return 0;
+        }
+        final char character = characters[starts[word] + position];
+        return character < 128 ? character + 1 : 129;
+    }
+
+    private static int commonPrefixLength(final char[] characters, final int firstStart, final int secondStart, final int maxLength) {
+        int length = 0;
+        while (length < maxLength && characters[firstStart + length] == characters[secondStart + length]) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * @param text    read from its position to its limit, which are left unchanged
+     * @param visitor notified of every token, in order of appearance
+     * @return number of tokens found under root
+     */
+    static int searchTokens(final TrieNode root, final CharBuffer text, final TokenVisitor visitor) {
+        int foundCount = 0;
+        final int limit = text.limit();
+        int i = text.position();
+        while (i < limit) {
+            while (i < limit && !Character.isLetterOrDigit(text.get(i))) {
+                i++;
+            }
+            if (i == limit) {
+                break;
+            }
+
+            final int start = i;
+            TrieNode node = root;
+            while (i < limit && Character.isLetterOrDigit(text.get(i))) {
+                if (node != null) {
+                    node = node.getChild(WordNormalizer.normalize(text.get(i)));
+                }
+                i++;
+            }
+            final boolean found = node != null && node.isEndOfWord();
+            if (found) {
+                foundCount++;
+            }
+            visitor.visitToken(text, start, i, found);
+        }
+        return foundCount;
+    }
+}
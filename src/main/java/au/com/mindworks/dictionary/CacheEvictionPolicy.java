@@ -0,0 +1,16 @@
+package au.com.mindworks.dictionary;
+
+/**
+ * Eviction policy of the prefix query cache of a {@link Dictionary}.
+ */
+public enum CacheEvictionPolicy {
+    /**
+     * Every result is cached, evicting the least recently used ones to make room.
+     */
+    LRU,
+    /**
+     * A result is only cached if its prefix was queried more often recently than the prefixes of the least recently
+     * used results it would evict (TinyLFU admission), which keeps one-off queries from flushing the hot prefixes.
+     */
+    TINY_LFU
+}
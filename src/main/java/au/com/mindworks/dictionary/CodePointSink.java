@@ -0,0 +1,14 @@
+package au.com.mindworks.dictionary;
+
+/**
+ * Receives the code points of a word as {@link WordNormalization} produces them, e.g. to walk a trie while the
+ * word is being normalized.
+ */
+interface CodePointSink {
+
+    /**
+     * @param codePoint next code point of the normalized word
+     * @return false to stop the normalization, e.g. when the trie has no node for the code point
+     */
+    boolean accept(int codePoint);
+}
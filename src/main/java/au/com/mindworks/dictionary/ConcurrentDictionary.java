@@ -0,0 +1,258 @@
+package au.com.mindworks.dictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe variant of {@link Dictionary}, with the same trimming, case-insensitivity and duplicate handling.
+ * <p/>
+ * Readers take no locks: every node publishes its children through an immutable table swapped with a
+ * compare-and-set (see {@link ConcurrentTrieNode}), so a reader always sees a consistent set of children.
+ * <p/>
+ * Writers lock the branch of root they modify, i.e. the stripe of the first character of the word, so writers
+ * of words with different first characters run in parallel while writers within a branch are serialized.
+ * That is what makes pruning in removeWord safe: no insert can happen in a subtree while it is being pruned.
+ * Root itself is shared by all branches and is only changed through compare-and-set.
+ * <p/>
+ * Enumerations are weakly consistent: they reflect each node as it was when the walk reached it.
+ */
+public class ConcurrentDictionary {
+    private static final int STRIPE_COUNT = 64;
+
+    private final ConcurrentTrieNode root = new ConcurrentTrieNode();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPE_COUNT];
+    private final AtomicInteger size = new AtomicInteger();
+
+    public ConcurrentDictionary() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void addAllWords(final Collection<String> wordsToAdd) {
+        for (String wordToAdd : wordsToAdd) {
+            addWord(wordToAdd);
+        }
+    }
+
+    /**
+     * Same as {@link Dictionary#addWord(CharSequence)}, holding the lock of the branch of the first character.
+     *
+     * @param wordToAdd
+     */
+    public void addWord(final CharSequence wordToAdd) {
+        if (wordToAdd == null) {
+            return;
+        }
+        final int start = WordNormalizer.start(wordToAdd);
+        final int end = WordNormalizer.end(wordToAdd, start);
+        if (start == end) {
+            return;
+        }
+
+        final ReentrantLock lock = stripeOf(wordToAdd.charAt(start));
+        lock.lock();
+        try {
+            ConcurrentTrieNode currentRootNode = root;
+            for (int i = start; i < end; i++) {
+                currentRootNode = currentRootNode.getOrAddChild(WordNormalizer.normalize(wordToAdd.charAt(i)));
+            }
+            if (currentRootNode.isEndOfWord()) {
+                return;
+            }
+
+            currentRootNode.setEndOfWord(true);
+            addToWordCounts(wordToAdd, start, end, 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Same as {@link Dictionary#removeWord(CharSequence)}, holding the lock of the branch of the first character.
+     *
+     * @param wordToRemove
+     * @return true if the word is removed from dictionary, otherwise false (when word is not found in dictionary)
+     */
+    public boolean removeWord(final CharSequence wordToRemove) {
+        if (wordToRemove == null) {
+            return false;
+        }
+        final int start = WordNormalizer.start(wordToRemove);
+        final int end = WordNormalizer.end(wordToRemove, start);
+        if (start == end) {
+            return false;
+        }
+
+        final ReentrantLock lock = stripeOf(wordToRemove.charAt(start));
+        lock.lock();
+        try {
+            ConcurrentTrieNode currentRootNode = root;
+            ConcurrentTrieNode pruneFromNode = root;
+            char pruneCharacter = WordNormalizer.normalize(wordToRemove.charAt(start));
+            for (int i = start; i < end; i++) {
+                final char character = WordNormalizer.normalize(wordToRemove.charAt(i));
+                final ConcurrentTrieNode child = currentRootNode.getChild(character);
+                if (child == null) {
+                    return false;
+                }
+                if (currentRootNode.isEndOfWord() || currentRootNode.getChildrenCount() > 1) {
+                    pruneFromNode = currentRootNode;
+                    pruneCharacter = character;
+                }
+                currentRootNode = child;
+            }
+
+            if (!currentRootNode.isEndOfWord()) {
+                return false;
+            }
+
+            currentRootNode.setEndOfWord(false);
+            addToWordCounts(wordToRemove, start, end, -1);
+            if (!currentRootNode.hasChildren()) {
+                pruneFromNode.removeChild(pruneCharacter);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Root's count is kept in an atomic counter as root is shared by all the branches,
+     * the other nodes are only updated by the writer holding the lock of their branch.
+     */
+    private void addToWordCounts(final CharSequence word, final int start, final int end, final int delta) {
+        size.addAndGet(delta);
+        ConcurrentTrieNode currentRootNode = root;
+        for (int i = start; i < end; i++) {
+            currentRootNode = currentRootNode.getChild(WordNormalizer.normalize(word.charAt(i)));
+            currentRootNode.addToWordCount(delta);
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * @param prefix
+     * @return number of words in dictionary if prefix is blank, otherwise number of words starting with prefix
+     */
+    public int countWordsStartingWith(final CharSequence prefix) {
+        if (prefix == null) {
+            return size();
+        }
+        final int start = WordNormalizer.start(prefix);
+        final int end = WordNormalizer.end(prefix, start);
+        if (start == end) {
+            return size();
+        }
+
+        final ConcurrentTrieNode node = findNode(prefix, start, end);
+        return node == null ? 0 : node.getWordCount();
+    }
+
+    /**
+     * Lock-free, see {@link Dictionary#searchWord(CharSequence)}.
+     *
+     * @param wordToSearch
+     * @return true if the wordToSearch is found in dictionary, otherwise return false
+     */
+    public boolean searchWord(final CharSequence wordToSearch) {
+        if (wordToSearch == null) {
+            return false;
+        }
+        final int start = WordNormalizer.start(wordToSearch);
+        final int end = WordNormalizer.end(wordToSearch, start);
+        if (start == end) {
+            return false;
+        }
+
+        final ConcurrentTrieNode node = findNode(wordToSearch, start, end);
+        return node != null && node.isEndOfWord();
+    }
+
+    public List<String> searchAllWords() {
+        return searchAllWordsStartingWith(null);
+    }
+
+    /**
+     * Lock-free and weakly consistent, see {@link Dictionary#searchAllWordsStartingWith(String)}.
+     *
+     * @param prefix
+     * @return list of all the words in dictionary if prefix is blank, otherwise all words starting with prefix,
+     * in lexicographical order
+     */
+    public List<String> searchAllWordsStartingWith(final CharSequence prefix) {
+        final int start = prefix == null ? 0 : WordNormalizer.start(prefix);
+        final int end = prefix == null ? 0 : WordNormalizer.end(prefix, start);
+        final List<String> listOfFoundWordsWithPrefix = new ArrayList<String>();
+        final ConcurrentTrieNode node = findNode(prefix, start, end);
+        if (node == null) {
+            return listOfFoundWordsWithPrefix;
+        }
+
+        final StringBuilder word = new StringBuilder();
+        for (int i = start; i < end; i++) {
+            word.append(WordNormalizer.normalize(prefix.charAt(i)));
+        }
+        searchAllWords(node, word, listOfFoundWordsWithPrefix);
+        return listOfFoundWordsWithPrefix;
+    }
+
+    /**
+     * Same walk as {@link WordIterator}, over the child table each node had when the walk reached it.
+     */
+    private void searchAllWords(final ConcurrentTrieNode baseNode, final StringBuilder word, final List<String> listOfFoundWords) {
+        ConcurrentTrieNode.ChildTable[] tables = new ConcurrentTrieNode.ChildTable[16];
+        int[] nextIndexes = new int[16];
+        int depth = 0;
+
+        if (baseNode.isEndOfWord()) {
+            listOfFoundWords.add(word.toString());
+        }
+        tables[depth++] = baseNode.getChildren();
+        while (depth > 0) {
+            final ConcurrentTrieNode.ChildTable table = tables[depth - 1];
+            final int index = nextIndexes[depth - 1];
+            if (index == table.keys.length) {
+                depth--;
+                if (depth > 0) {
+                    word.setLength(word.length() - 1);
+                }
+                continue;
+            }
+            nextIndexes[depth - 1] = index + 1;
+
+            final ConcurrentTrieNode child = table.nodes[index];
+            word.append(table.keys[index]);
+            if (child.isEndOfWord()) {
+                listOfFoundWords.add(word.toString());
+            }
+            if (depth == tables.length) {
+                tables = Arrays.copyOf(tables, depth * 2);
+                nextIndexes = Arrays.copyOf(nextIndexes, depth * 2);
+            }
+            tables[depth] = child.getChildren();
+            nextIndexes[depth] = 0;
+            depth++;
+        }
+    }
+
+    private ConcurrentTrieNode findNode(final CharSequence word, final int start, final int end) {
+        ConcurrentTrieNode currentRootNode = root;
+        for (int i = start; i < end && currentRootNode != null; i++) {
+            currentRootNode = currentRootNode.getChild(WordNormalizer.normalize(word.charAt(i)));
+        }
+        return currentRootNode;
+    }
+
+    private ReentrantLock stripeOf(final char firstCharacter) {
+        return stripes[WordNormalizer.normalize(firstCharacter) % STRIPE_COUNT];
+    }
+}
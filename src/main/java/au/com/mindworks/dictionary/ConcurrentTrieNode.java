@@ -0,0 +1,132 @@
+package au.com.mindworks.dictionary;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Node of {@link ConcurrentDictionary}.
+ * <p/>
+ * Children are held in an immutable {@link ChildTable} (sorted keys and nodes) which is replaced as a whole
+ * with a compare-and-set, so readers never need a lock: they see either the table before or after a change,
+ * and a new child is fully initialized before the table referencing it is published.
+ */
+final class ConcurrentTrieNode {
+    private static final AtomicReferenceFieldUpdater<ConcurrentTrieNode, ChildTable> CHILDREN =
+            AtomicReferenceFieldUpdater.newUpdater(ConcurrentTrieNode.class, ChildTable.class, "children");
+
+    private volatile boolean endOfWord = false;
+    private volatile int wordCount = 0;
+    private volatile ChildTable children = ChildTable.EMPTY;
+
+    boolean isEndOfWord() {
+        return endOfWord;
+    }
+
+    void setEndOfWord(final boolean endOfWord) {
+        this.endOfWord = endOfWord;
+    }
+
+    int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Only to be called by the writer holding the lock of the branch of this node.
+     */
+    void addToWordCount(final int delta) {
+        wordCount += delta;
+    }
+
+    boolean hasChildren() {
+        return children.keys.length > 0;
+    }
+
+    int getChildrenCount() {
+        return children.keys.length;
+    }
+
+    ConcurrentTrieNode getChild(final char character) {
+        return children.get(character);
+    }
+
+    /**
+     * @return the child for the character, which is added if missing
+     */
+    ConcurrentTrieNode getOrAddChild(final char character) {
+        while (true) {
+            final ChildTable current = children;
+            final ConcurrentTrieNode existingChild = current.get(character);
+            if (existingChild != null) {
+                return existingChild;
+            }
+            final ConcurrentTrieNode child = new ConcurrentTrieNode();
+            if (CHILDREN.compareAndSet(this, current, current.with(character, child))) {
+                return child;
+            }
+        }
+    }
+
+    void removeChild(final char character) {
+        while (true) {
+            final ChildTable current = children;
+            final ChildTable updated = current.without(character);
+            if (updated == current || CHILDREN.compareAndSet(this, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return a consistent view of the children at the time of the call, in ascending order of characters
+     */
+    ChildTable getChildren() {
+        return children;
+    }
+
+    static final class ChildTable {
+        static final ChildTable EMPTY = new ChildTable(new char[0], new ConcurrentTrieNode[0]);
+
+        final char[] keys;
+        final ConcurrentTrieNode[] nodes;
+
+        private ChildTable(final char[] keys, final ConcurrentTrieNode[] nodes) {
+            this.keys = keys;
+            this.nodes = nodes;
+        }
+
+        ConcurrentTrieNode get(final char character) {
+            final int index = Arrays.binarySearch(keys, character);
+            return index < 0 ? null : nodes[index];
+        }
+
+        private ChildTable with(final char character, final ConcurrentTrieNode child) {
+            final int index = -(Arrays.binarySearch(keys, character) + 1);
+            final char[] newKeys = new char[keys.length + 1];
+            final ConcurrentTrieNode[] newNodes = new ConcurrentTrieNode[nodes.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(nodes, 0, newNodes, 0, index);
+            newKeys[index] = character;
+            newNodes[index] = child;
+            System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+            System.arraycopy(nodes, index, newNodes, index + 1, nodes.length - index);
+            return new ChildTable(newKeys, newNodes);
+        }
+
+        private ChildTable without(final char character) {
+            final int index = Arrays.binarySearch(keys, character);
+            if (index < 0) {
+                return this;
+            }
+            if (keys.length == 1) {
+                return EMPTY;
+            }
+            final char[] newKeys = new char[keys.length - 1];
+            final ConcurrentTrieNode[] newNodes = new ConcurrentTrieNode[nodes.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(nodes, 0, newNodes, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(nodes, index + 1, newNodes, index, nodes.length - index - 1);
+            return new ChildTable(newKeys, newNodes);
+        }
+    }
+}
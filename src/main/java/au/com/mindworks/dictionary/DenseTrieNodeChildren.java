@@ -0,0 +1,89 @@
+package au.com.mindworks.dictionary;
+
+/**
+ * Child storage for nodes with a large fan-out of ASCII lower case letters: a 26 slot table indexed by
+ * {@code character - 'a'}, so lookups are a single array access.
+ * <p/>
+ * Falls back to {@link SparseTrieNodeChildren} when a child outside {@code 'a'..'z'} is added, or when the
+ * number of children drops below {@link #SPARSE_THRESHOLD}.
+ */
+final class DenseTrieNodeChildren extends TrieNodeChildren {
+    static final int SPARSE_THRESHOLD = 6;
+
+    private static final int SLOT_COUNT = 'z' - 'a' + 1;
+
+    private int size;
+    private final TrieNode[] children = new TrieNode[SLOT_COUNT];
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    TrieNode get(final char character) {
+        final int slot = character - 'a';
+        return slot >= 0 && slot < SLOT_COUNT ? children[slot] : null;
+    }
+
+    @Override
+    TrieNodeChildren put(final char character, final TrieNode child) {
+        if (!SparseTrieNodeChildren.isLowerCaseLetter(character)) {
+            return toSparse(size + 1).put(character, child);
+        }
+
+        final int slot = character - 'a';
+        if (children[slot] == null) {
+            size++;
+        }
+        children[slot] = child;
+        return this;
+    }
+
+    @Override
+    TrieNodeChildren remove(final char character) {
+        final int slot = character - 'a';
+        if (slot < 0 || slot >= SLOT_COUNT || children[slot] == null) {
+            return this;
+        }
+
+        children[slot] = null;
+        size--;
+        return size < SPARSE_THRESHOLD ? toSparse(size) : this;
+    }
+
+    @Override
+    int getSlotCount() {
+        return SLOT_COUNT;
+    }
+
+    @Override
+    char getKeyAt(final int slot) {
+        return (char) ('a' + slot);
+    }
+
+    @Override
+    TrieNode getChildAt(final int slot) {
+        return children[slot];
+    }
+
+    @Override
+    long estimatedBytes() {
+        // header, size and children
+        return 24 + arrayBytes(SLOT_COUNT, 4);
+    }
+
+    private TrieNodeChildren toSparse(final int capacity) {
+        if (capacity == 0) {
+            return EmptyTrieNodeChildren.INSTANCE;
+        }
+
+        final SparseTrieNodeChildren sparse = new SparseTrieNodeChildren(capacity);
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            if (children[slot] != null) {
+                sparse.append(getKeyAt(slot), children[slot]);
+            }
+        }
+        return sparse;
+    }
+}
@@ -2,13 +2,39 @@ package au.com.mindworks.dictionary;
 
 import au.com.mindworks.dictionary.TrieNode;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class Dictionary {
     private TrieNode root = new TrieNode();
+    private int nodeCount = 0;
+    /**
+     * Null while metrics are disabled, so that the only cost of the instrumentation is a null check.
+     */
+    private volatile DictionaryMetrics metrics;
+    /**
+     * Null while the prefix query cache is disabled.
+     */
+    private volatile PrefixQueryCache prefixCache;
 
     public void addAllWords(final Collection<String> wordsToAdd) {
         for (String wordToAdd : wordsToAdd) {
@@ -16,214 +42,863 @@ public class Dictionary {
         }
     }
 
+    /**
+     * Parallel version of {@link #addAllWords(Collection)} for bulk loads, using the common {@link ForkJoinPool}.
+     *
+     * @param wordsToAdd
+     * @see #addAllWordsInParallel(Stream, ForkJoinPool)
+     */
+    public void addAllWordsInParallel(final Stream<? extends CharSequence> wordsToAdd) {
+        addAllWordsInParallel(wordsToAdd, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel version of {@link #addAllWords(Collection)} for bulk loads.
+     * <p/>
+     * The stream is consumed in chunks, each chunk is partitioned by the first character of its words,
+     * and the subtrees of root for the different first characters are built in parallel on the pool
+     * (see {@link ParallelTrieBuilder}). The stream is never materialized as a whole.
+     *
+     * @param wordsToAdd
+     * @param pool
+     */
+    public void addAllWordsInParallel(final Stream<? extends CharSequence> wordsToAdd, final ForkJoinPool pool) {
+        final ParallelTrieBuilder builder = new ParallelTrieBuilder(root, pool).addAll(wordsToAdd.iterator());
+        nodeCount += builder.getCreatedNodeCount();
+    }
+
+    /**
+     * Bulk loads the words of a UTF-8 text file, one word per line, with {@link #addAllWordsInParallel(Stream)}.
+     *
+     * @param wordsFile
+     * @throws IOException if the file cannot be read
+     */
+    public void addAllWordsInParallel(final Path wordsFile) throws IOException {
+        try (Stream<String> lines = Files.lines(wordsFile, StandardCharsets.UTF_8)) {
+            addAllWordsInParallel(lines);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     /**
      * Addition Algorithm
      * <p/>
      * 1 - if wordToAdd is blank, then return.
-     * 2 - if currentRootNode does not contain child corresponding to first character of wordToAdd, then add first character as child in currentRootNode.
-     * 3 - if length of wordToAdd is 1, then mark the first character element in currentRootNode as end of word.
-     * 4 - else take the sub string of wordToAdd from index 1 (first character is removed as it has already bean added in the currentRootNode),
-     * and get the child corresponding to first character, resulting in sub string of wordToAdd as remaining wordToAdd
-     * and the child corresponding to first character as the new current currentRootNode
-     * 5 - Now repeat the above steps recursively until the end of word is reached.
+     * 2 - start with root as the currentRootNode.
+     * 3 - Loop through the characters of wordToAdd, ignoring the leading and trailing spaces and lower casing each character
+     * 3.1 - if currentRootNode does not contain child corresponding to the character, then add the character as child in currentRootNode.
+     * 3.2 - the child corresponding to the character becomes the new currentRootNode for the next iteration of loop.
+     * 4 - if currentRootNode (i.e. the node of the last character) is already marked as end of word, then return
+     * as the word is already in the dictionary.
+     * 5 - mark currentRootNode as end of word.
+     * 6 - Loop through the characters of wordToAdd again, incrementing the word count of every node on the way.
      *
      * @param wordToAdd
      */
     public void addWord(final String wordToAdd) {
-        if (wordToAdd == null || wordToAdd.trim().isEmpty()) {
+        addWord((CharSequence) wordToAdd);
+    }
+
+    /**
+     * Same as {@link #addWord(String)}, without requiring the word to be a String.
+     *
+     * @param wordToAdd
+     */
+    public void addWord(final CharSequence wordToAdd) {
+        final DictionaryMetrics currentMetrics = metrics;
+        if (currentMetrics == null) {
+            addWordToTrie(wordToAdd);
             return;
         }
+        final long startTime = System.nanoTime();
+        addWordToTrie(wordToAdd);
+        currentMetrics.recordLatency(DictionaryOperation.ADD_WORD, System.nanoTime() - startTime);
+    }
+
+    private void addWordToTrie(final CharSequence wordToAdd) {
+        if (wordToAdd == null) {
+            return;
+        }
+        final int start = WordNormalizer.start(wordToAdd);
+        final int end = WordNormalizer.end(wordToAdd, start);
+        if (start == end) {
+            return;
+        }
+
+        final int createdNodeCount = addWord(root, wordToAdd, start, end);
+        if (createdNodeCount > 0) {
+            nodeCount += createdNodeCount;
+        }
+    }
 
-        final String trimmedLowerCasedWordToAdd = wordToAdd.trim().toLowerCase();
-        addWord(trimmedLowerCasedWordToAdd, root);
+    /**
+     * Adds the word with a weight, e.g. its popularity, used to rank the words found by {@link #topK(CharSequence, int)}.
+     * Words added without a weight weigh 0. Adding a word which is already in the dictionary replaces its weight.
+     * <p/>
+     * Besides the "Addition Algorithm" of {@link #addWord(String)}, the highest weight of the subtree of every node
+     * on the path of the word is kept up to date, which only needs a walk down the path unless the weight decreases.
+     *
+     * @param wordToAdd
+     * @param weight    must not be negative
+     */
+    public void addWord(final CharSequence wordToAdd, final int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must not be negative: " + weight);
+        }
+        final DictionaryMetrics currentMetrics = metrics;
+        if (currentMetrics == null) {
+            addWeightedWordToTrie(wordToAdd, weight);
+            return;
+        }
+        final long startTime = System.nanoTime();
+        addWeightedWordToTrie(wordToAdd, weight);
+        currentMetrics.recordLatency(DictionaryOperation.ADD_WORD, System.nanoTime() - startTime);
     }
 
-    private void addWord(final String trimmedLowerCasedWordToAdd, final TrieNode currentRootNode) {
-//        if (isBlank(trimmedLowerCasedWordToAdd)) {
-//            return;
-//        }
-        final Character firstCharacter = trimmedLowerCasedWordToAdd.charAt(0);
-        if (!currentRootNode.hasChild(firstCharacter)) {
-            currentRootNode.addChild(firstCharacter);
+    private void addWeightedWordToTrie(final CharSequence wordToAdd, final int weight) {
+        if (wordToAdd == null) {
+            return;
+        }
+        final int start = WordNormalizer.start(wordToAdd);
+        final int end = WordNormalizer.end(wordToAdd, start);
+        if (start == end) {
+            return;
+        }
+
+        final int createdNodeCount = addWord(root, wordToAdd, start, end);
+        if (createdNodeCount > 0) {
+            nodeCount += createdNodeCount;
         }
 
-        if (trimmedLowerCasedWordToAdd.length() == 1) {
-            currentRootNode.getChild(firstCharacter).setEndOfWord(true);
-        } else {
-            addWord(trimmedLowerCasedWordToAdd.substring(1), currentRootNode.getChild(firstCharacter));
+        final TrieNode node = findNode(wordToAdd, start, end);
+        final int previousWeight = node.getWeight();
+        node.setWeight(weight);
+        if (weight >= previousWeight) {
+            TrieNode currentRootNode = root;
+            currentRootNode.setMaxWeight(Math.max(currentRootNode.getMaxWeight(), weight));
+            for (int i = start; i < end; i++) {
+                currentRootNode = currentRootNode.getChild(WordNormalizer.normalize(wordToAdd.charAt(i)));
+                currentRootNode.setMaxWeight(Math.max(currentRootNode.getMaxWeight(), weight));
+            }
+        } else if (node.getMaxWeight() == previousWeight) {
+            updateMaxWeights(wordToAdd, start, end);
+        }
+    }
+
+    /**
+     * Adds the characters of word from start to end (which may be equal) below fromNode,
+     * following the "Addition Algorithm" of {@link #addWord(String)} with fromNode in place of root.
+     *
+     * @return number of nodes created, or -1 if the word was already there
+     */
+    static int addWord(final TrieNode fromNode, final CharSequence word, final int start, final int end) {
+        int createdNodeCount = 0;
+        TrieNode currentRootNode = fromNode;
+        for (int i = start; i < end; i++) {
+            final char character = WordNormalizer.normalize(word.charAt(i));
+            TrieNode child = currentRootNode.getChild(character);
+            if (child == null) {
+                child = currentRootNode.addChild(character);
+                createdNodeCount++;
+            }
+            currentRootNode = child;
         }
+        if (currentRootNode.isEndOfWord()) {
+            return -1;
+        }
+
+        currentRootNode.setEndOfWord(true);
+        addToWordCounts(fromNode, word, start, end, 1);
+        return createdNodeCount;
     }
 
     /**
      * Removal Algorithm
      * <p/>
      * 1 - if wordToRemove is blank, then return false.
-     * 2 - if currentRootNode does not contain child corresponding to first character of wordToRemove, then return false.
-     * 3 - if length of wordToRemove is 1
-     * 3.1 - if if the trieNode corresponding to first character in currentRootNode is marked as end of word
-     * 3.1.1 - if the trieNode corresponding to first character in currentRootNode has children, then remove the "end of word" mark
-     * from the trieNode corresponding to first character in currentRootNode, and return true.
-     * 3.1.2 - else remove the child corresponding to first character in the currentRootNode.
-     * 3.1.3 - return true.
-     * 3.2 - else return false
-     * 4 - else take the sub string of wordToRemove from index 1 (first character is removed as it has already bean found in the currentRootNode),
-     * and get the child corresponding to first character, resulting in sub string of wordToRemove as remaining wordToRemove
-     * and the child corresponding to first character as the new current currentRootNode
-     * 5 - Now repeat the above steps recursively until the end of word is reached.
+     * 2 - start with root as the currentRootNode, and remember root and the first character as the place to prune from.
+     * 3 - Loop through the characters of wordToRemove, ignoring the leading and trailing spaces and lower casing each character
+     * 3.1 - if currentRootNode does not contain child corresponding to the character, then return false.
+     * 3.2 - if currentRootNode is marked as end of word or has more than one child, then it has to be kept,
+     * so remember currentRootNode and the character as the place to prune from.
+     * 3.3 - the child corresponding to the character becomes the new currentRootNode for the next iteration of loop.
+     * 4 - if currentRootNode (i.e. the node of the last character) is not marked as end of word, then return false.
+     * 5 - Loop through the characters of wordToRemove again, decrementing the word count of every node on the way.
+     * 6 - if currentRootNode has children, then remove the "end of word" mark from it,
+     * 7 - else remove the child corresponding to the remembered character from the remembered place to prune from,
+     * which drops all the nodes used by wordToRemove only.
+     * 8 - return true.
      *
      * @param wordToRemove
      * @return true if the word is removed from dictionary, otherwise false (when word is not found in dictionary)
      */
     public boolean removeWord(final String wordToRemove) {
-        if (wordToRemove == null || wordToRemove.trim().isEmpty()) {
-            return false;
-        }
+        return removeWord((CharSequence) wordToRemove);
+    }
 
-        final String trimmedLowerCasedWordToRemove = wordToRemove.trim().toLowerCase();
-        return removeWord(trimmedLowerCasedWordToRemove, root);
+    /**
+     * Same as {@link #removeWord(String)}, without requiring the word to be a String.
+     *
+     * @param wordToRemove
+     * @return true if the word is removed from dictionary, otherwise false (when word is not found in dictionary)
+     */
+    public boolean removeWord(final CharSequence wordToRemove) {
+        final DictionaryMetrics currentMetrics = metrics;
+        if (currentMetrics == null) {
+            return removeWordFromTrie(wordToRemove);
+        }
+        final long startTime = System.nanoTime();
+        final boolean isWordRemoved = removeWordFromTrie(wordToRemove);
+        currentMetrics.recordLatency(DictionaryOperation.REMOVE_WORD, System.nanoTime() - startTime);
+        return isWordRemoved;
     }
 
-    private boolean removeWord(final String trimmedLowerCasedWordToRemove, final TrieNode currentRootNode) {
-//        if (isBlank(trimmedLowerCasedWordToRemove)) {
-//            return false;
-//        }
+    private boolean removeWordFromTrie(final CharSequence wordToRemove) {
+        if (wordToRemove == null) {
+            return false;
+        }
+        final int start = WordNormalizer.start(wordToRemove);
+        final int end = WordNormalizer.end(wordToRemove, start);
+        if (start == end) {
+            return false;
+        }
+
+        TrieNode currentRootNode = root;
+        TrieNode pruneFromNode = root;
+        char pruneCharacter = WordNormalizer.normalize(wordToRemove.charAt(start));
+        int pruneIndex = start;
+        for (int i = start; i < end; i++) {
+            final char character = WordNormalizer.normalize(wordToRemove.charAt(i));
+            final TrieNode child = currentRootNode.getChild(character);
+            if (child == null) {
+                return false;
+            }
+            if (currentRootNode.isEndOfWord() || currentRootNode.getChildrenCount() > 1) {
+                pruneFromNode = currentRootNode;
+                pruneCharacter = character;
+                pruneIndex = i;
+            }
+            currentRootNode = child;
+        }
 
-        final Character firstCharacter = trimmedLowerCasedWordToRemove.charAt(0);
-        if (!currentRootNode.hasChild(firstCharacter)) {
+        if (!currentRootNode.isEndOfWord()) {
             return false;
         }
 
-        final TrieNode childCorrespondingToFirstCharacter = currentRootNode.getChild(firstCharacter);
-        if (trimmedLowerCasedWordToRemove.length() == 1) {
-            if (childCorrespondingToFirstCharacter.isEndOfWord()) {
-                if (childCorrespondingToFirstCharacter.hasChildren()) {
-                    childCorrespondingToFirstCharacter.setEndOfWord(false);
-                } else {
-                    currentRootNode.removeChild(firstCharacter);
+        addToWordCounts(root, wordToRemove, start, end, -1);
+        final int removedWeight = currentRootNode.getWeight();
+        final boolean isMaxWeightAffected = removedWeight > 0 && currentRootNode.getMaxWeight() == removedWeight;
+        if (currentRootNode.hasChildren()) {
+            currentRootNode.setEndOfWord(false);
+            currentRootNode.setWeight(0);
+        } else {
+            pruneFromNode.removeChild(pruneCharacter);
+            nodeCount -= end - pruneIndex;
+        }
+        if (isMaxWeightAffected) {
+            updateMaxWeights(wordToRemove, start, end);
+        }
+        return true;
+    }
+
+    /**
+     * Recomputes the highest weight of the subtree of every node still on the path of the word, from the deepest one
+     * up to root, each from the weight of its own word and the highest weights of its children.
+     */
+    private void updateMaxWeights(final CharSequence word, final int start, final int end) {
+        final TrieNode[] path = new TrieNode[end - start + 1];
+        int depth = 0;
+        for (TrieNode node = root; node != null && depth < path.length; depth++) {
+            path[depth] = node;
+            node = depth + start < end ? node.getChild(WordNormalizer.normalize(word.charAt(depth + start))) : null;
+        }
+
+        while (depth > 0) {
+            final TrieNode node = path[--depth];
+            int maxWeight = node.isEndOfWord() ? node.getWeight() : 0;
+            for (int slot = 0; slot < node.getChildSlotCount(); slot++) {
+                final TrieNode child = node.getChildAt(slot);
+                if (child != null) {
+                    maxWeight = Math.max(maxWeight, child.getMaxWeight());
                 }
-                return true;
             }
-            return false;
+            node.setMaxWeight(maxWeight);
         }
+    }
 
-        return removeWord(trimmedLowerCasedWordToRemove.substring(1), childCorrespondingToFirstCharacter);
+    /**
+     * Adds delta to the word count of fromNode and of every node on the path of the word below it, which must exist.
+     */
+    private static void addToWordCounts(final TrieNode fromNode, final CharSequence word, final int start, final int end, final int delta) {
+        TrieNode currentRootNode = fromNode;
+        currentRootNode.addToWordCount(delta);
+        for (int i = start; i < end; i++) {
+            currentRootNode = currentRootNode.getChild(WordNormalizer.normalize(word.charAt(i)));
+            currentRootNode.addToWordCount(delta);
+        }
     }
 
+    /**
+     * @return number of words in dictionary, maintained by addWord/removeWord so this does not walk the trie
+     */
     public int size() {
-        return searchAllWords().size();
+        return root.getWordCount();
     }
 
     /**
-     * Searching Algorithm
+     * @return number of nodes in the trie, excluding the root
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Counting Algorithm
      * <p/>
-     * 1 - if root is empty, then return an empty list (i.e. dictionary does not contain any word).
-     * 2 - Loop through all the elements in the root.
-     * 2.1 - if the element in root is marked as end of word, then add it to the list of found words.
-     * 2.2 - if the root has no children, then return.
-     * 2.3 - else keep concatenating the words
-     * and repeat the above steps (from 2) recursively until the whole dictionary is traversed.
+     * 1 - if the prefix is blank, then return the size of dictionary.
+     * 2 - find the node of the last character of prefix, and return 0 if there is no such node.
+     * 3 - return the word count of the node, which covers all the words in its subtree, so the words are never enumerated.
      *
-     * @return list of all the words in dictionary
+     * @param prefix
+     * @return number of words in dictionary if prefix is blank, otherwise number of words starting with prefix
      */
-    public List<String> searchAllWords() {
-        final List<String> listOfFoundWords = new ArrayList<String>();
-
-        final Set<Character> characters = root.getChildren().keySet();
-        for (Character character : characters) {
-            searchAllWords(character.toString(), root.getChild(character), listOfFoundWords);
+    public int countWordsStartingWith(final CharSequence prefix) {
+        if (prefix == null) {
+            return size();
+        }
+        final int start = WordNormalizer.start(prefix);
+        final int end = WordNormalizer.end(prefix, start);
+        if (start == end) {
+            return size();
         }
 
-        return listOfFoundWords;
+        final TrieNode node = findNode(prefix, start, end);
+        return node == null ? 0 : node.getWordCount();
+    }
+
+    /**
+     * Searching Algorithm
+     * <p/>
+     * 1 - create a list sized to the number of words in dictionary.
+     * 2 - walk the trie from root depth first, in ascending order of characters (see {@link WordIterator}),
+     * keeping the characters on the path in a single reusable buffer.
+     * 2.1 - whenever a node is marked as end of word, then add the content of the buffer to the list of found words.
+     *
+     * @return list of all the words in dictionary, in lexicographical order
+     */
+    public List<String> searchAllWords() {
+        return searchAllWordsStartingWith(null);
     }
 
     /**
      * Searching Algorithm
      * <p/>
      * 1 - if the prefix is blank, the return list of all the words in the dictionary.
-     * 2 - if root does not contain first character of prefix, then return empty list.
-     * 3 - else get the child corresponding to the first character of prefix from root
-     * 4 - Loop though the characters in the prefix
-     * 4.1 - if currentRootNode does not have child for the specified character, then return empty list
-     * 4.2 - get the child from currentRootNode with specified character, which will become the new currentRootNode for the next iteration of loop
-     * 5 - call "searchAllWords(...)" method to get all the words starting with the specified prefix
+     * 2 - find the node of the last character of prefix, and return empty list if there is no such node.
+     * 3 - walk the subtree of the node the same way as "searchAllWords()" does, starting with prefix in the buffer.
      *
      * @param prefix
-     * @return list of all the words in dictionary if prefix is blank, otherwise all words starting with prefix
+     * @return list of all the words in dictionary if prefix is blank, otherwise all words starting with prefix,
+     * in lexicographical order
      */
     public List<String> searchAllWordsStartingWith(final String prefix) {
-        if (prefix == null || prefix.trim().isEmpty()) {
-            return searchAllWords();
+        return searchAllWordsStartingWith(prefix, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Bounded version of {@link #searchAllWordsStartingWith(String)}, e.g. for paging through autocomplete results.
+     * Skipped words are not enumerated: whole subtrees are skipped at once using their word counts.
+     *
+     * @param prefix
+     * @param offset number of matching words to skip
+     * @param limit  maximum number of words to return
+     * @return at most limit words starting with prefix, after skipping the first offset ones, in lexicographical order
+     */
+    public List<String> searchAllWordsStartingWith(final String prefix, final int offset, final int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative: " + offset + ", " + limit);
         }
 
-        TrieNode currentRootNode = root;
-        final String trimmedLowerCasedPrefix = prefix.trim().toLowerCase();
-        final List<String> listOfFoundWordsWithPrefix = new ArrayList<String>();
+        final DictionaryMetrics currentMetrics = metrics;
+        final long startTime = currentMetrics == null ? 0 : System.nanoTime();
+        final PrefixQueryCache currentPrefixCache = prefixCache;
+        final List<String> listOfFoundWordsWithPrefix;
+        if (currentPrefixCache != null) {
+            listOfFoundWordsWithPrefix = searchAllWordsStartingWith(currentPrefixCache, prefix, offset, limit);
+        } else {
+            final Iterator<String> iterator = wordIterator(prefix, offset);
+            listOfFoundWordsWithPrefix = new ArrayList<String>(Math.min(limit, Math.max(countWordsStartingWith(prefix) - offset, 0)));
+            while (listOfFoundWordsWithPrefix.size() < limit && iterator.hasNext()) {
+                listOfFoundWordsWithPrefix.add(iterator.next());
+            }
+        }
+        if (currentMetrics != null) {
+            currentMetrics.recordPrefixQuery(listOfFoundWordsWithPrefix.size(), System.nanoTime() - startTime);
+        }
+        return listOfFoundWordsWithPrefix;
+    }
+
+    /**
+     * Cached version of {@link #searchAllWordsStartingWith(String, int, int)}: pages are copied out of the cached
+     * words when they are there, but only queries for all the words (offset 0, no limit) fill the cache, so that
+     * paging through a large subtree does not enumerate all of it. The words found are only copied if they are
+     * cached.
+     */
+    private List<String> searchAllWordsStartingWith(final PrefixQueryCache currentPrefixCache, final String prefix,
+                                                    final int offset, final int limit) {
+        final int start = prefix == null ? 0 : WordNormalizer.start(prefix);
+        final int end = prefix == null ? 0 : WordNormalizer.end(prefix, start);
+        final TrieNode node = findNode(prefix, start, end);
+        final String normalizedPrefix = normalize(prefix, start, end).toString();
 
-        for (int i = 0; i < trimmedLowerCasedPrefix.length(); i++) {
-            if (!currentRootNode.hasChild(trimmedLowerCasedPrefix.charAt(i))) {
+        List<String> cachedWords = currentPrefixCache.get(normalizedPrefix, node);
+        if (cachedWords == null) {
+            if (offset != 0 || limit != Integer.MAX_VALUE) {
+                final List<String> listOfFoundWordsWithPrefix = new ArrayList<String>();
+                final Iterator<String> iterator = wordIterator(prefix, offset);
+                while (listOfFoundWordsWithPrefix.size() < limit && iterator.hasNext()) {
+                    listOfFoundWordsWithPrefix.add(iterator.next());
+                }
                 return listOfFoundWordsWithPrefix;
             }
-            currentRootNode = currentRootNode.getChild(trimmedLowerCasedPrefix.charAt(i));
+            cachedWords = new ArrayList<String>(node == null ? 0 : node.getWordCount());
+            if (node != null) {
+                final Iterator<String> iterator = new WordIterator(node, normalizedPrefix, 0);
+                while (iterator.hasNext()) {
+                    cachedWords.add(iterator.next());
+                }
+            }
+            if (!currentPrefixCache.put(normalizedPrefix, node, cachedWords)) {
+                // not cached, so the words need no copy
+                return cachedWords;
+            }
         }
-        searchAllWords(trimmedLowerCasedPrefix, currentRootNode, listOfFoundWordsWithPrefix);
 
-        return listOfFoundWordsWithPrefix;
+        final int fromIndex = Math.min(offset, cachedWords.size());
+        return new ArrayList<String>(cachedWords.subList(fromIndex, fromIndex + Math.min(limit, cachedWords.size() - fromIndex)));
     }
 
-    private void searchAllWords(final String word, final TrieNode currentRootNode, final List<String> listOfFoundWords) {
-        if (currentRootNode.isEndOfWord()) {
-            listOfFoundWords.add(word);
+    /**
+     * Top-K Algorithm
+     * <p/>
+     * 1 - find the node of the last character of prefix (root if the prefix is blank), and return empty list if there is no such node.
+     * 2 - run a best-first search from the node (see {@link TopKSearcher}), pruning with the highest weight kept for
+     * every subtree, so the cost depends on k and on the length of the words rather than on the number of words found.
+     *
+     * @param prefix
+     * @param k      maximum number of words to return
+     * @return the k highest weighted words starting with prefix (all words if the prefix is blank), highest weight first,
+     * words of equal weight in lexicographical order
+     */
+    public List<String> topK(final CharSequence prefix, final int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("K must not be negative: " + k);
         }
-        if (currentRootNode.hasChildren()) {
-            final Set<Character> characters = currentRootNode.getChildren().keySet();
-            for (Character character : characters) {
-                searchAllWords(word + character, currentRootNode.getChild(character), listOfFoundWords);
-            }
+        final int start = prefix == null ? 0 : WordNormalizer.start(prefix);
+        final int end = prefix == null ? 0 : WordNormalizer.end(prefix, start);
+        final TrieNode node = findNode(prefix, start, end);
+        if (node == null) {
+            return new ArrayList<String>();
         }
+        return TopKSearcher.search(node, normalize(prefix, start, end).toString(), k);
+    }
+
+    /**
+     * Fuzzy Searching Algorithm
+     * <p/>
+     * 1 - if word is blank, then return empty list.
+     * 2 - walk the trie depth first from root, computing one row of the Levenshtein matrix between the path and word
+     * per node, from the row of its parent (see {@link FuzzySearcher}).
+     * 2.1 - if the smallest value of the row exceeds maxEdits, then skip the subtree of the node.
+     * 2.2 - if the node is marked as end of word and the last value of the row does not exceed maxEdits,
+     * then add the path to the list of found words.
+     *
+     * @param word
+     * @param maxEdits maximum number of inserted, deleted or substituted characters
+     * @return all the words within maxEdits of word, in lexicographical order
+     */
+    public List<String> searchWithinDistance(final CharSequence word, final int maxEdits) {
+        final FuzzySearcher searcher = fuzzySearcher(word, maxEdits);
+        return searcher == null ? new ArrayList<String>() : searcher.search(root);
+    }
+
+    /**
+     * Ranked version of {@link #searchWithinDistance(CharSequence, int)}, e.g. for spelling suggestions.
+     *
+     * @param word
+     * @param maxEdits maximum number of inserted, deleted or substituted characters
+     * @param limit    maximum number of words to return
+     * @return at most limit words within maxEdits of word, closest first, words at the same distance in lexicographical order
+     */
+    public List<String> searchWithinDistance(final CharSequence word, final int maxEdits, final int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + limit);
+        }
+        final FuzzySearcher searcher = fuzzySearcher(word, maxEdits);
+        return searcher == null ? new ArrayList<String>() : searcher.searchClosest(root, limit);
+    }
+
+    private static FuzzySearcher fuzzySearcher(final CharSequence word, final int maxEdits) {
+        if (maxEdits < 0) {
+            throw new IllegalArgumentException("Maximum number of edits must not be negative: " + maxEdits);
+        }
+        if (word == null) {
+            return null;
+        }
+        final int start = WordNormalizer.start(word);
+        final int end = WordNormalizer.end(word, start);
+        if (start == end) {
+            return null;
+        }
+
+        final char[] normalizedWord = new char[end - start];
+        for (int i = start; i < end; i++) {
+            normalizedWord[i - start] = WordNormalizer.normalize(word.charAt(i));
+        }
+        return new FuzzySearcher(normalizedWord, maxEdits);
+    }
+
+    /**
+     * Pattern Searching Algorithm
+     * <p/>
+     * 1 - if pattern is blank, then return empty list.
+     * 2 - compile pattern into a sequence of elements, {@code ?} or {@code .} matching one character, {@code *} any
+     * number of characters, {@code [abc]}, {@code [a-z]} or {@code [^abc]} one character of a class, and any other
+     * character itself (see {@link WordPattern}).
+     * 3 - walk the trie depth first from root, keeping the set of pattern elements which can be matched next at every node
+     * (see {@link PatternIterator}).
+     * 3.1 - if no element can be matched, then skip the subtree of the node.
+     * 3.2 - if the next element is a literal, then only visit the child for that character.
+     * 3.3 - if only a trailing {@code *} is left, then add all the words of the subtree, as in {@link #searchAllWordsStartingWith(String)}.
+     * 3.4 - if the node is marked as end of word and the whole pattern is matched, then add the path to the list of found words.
+     *
+     * @param pattern e.g. {@code "d?g*"} or {@code "a.l.y"}, case insensitive
+     * @return all the words matching pattern, in lexicographical order
+     * @throws IllegalArgumentException if a character class is not closed, a backslash ends the pattern,
+     *                                  or the pattern has more than {@link WordPattern#MAX_ELEMENTS} elements
+     */
+    public List<String> searchPattern(final String pattern) {
+        final List<String> listOfFoundWords = new ArrayList<String>();
+        final Iterator<String> iterator = iterateWordsMatching(pattern);
+        while (iterator.hasNext()) {
+            listOfFoundWords.add(iterator.next());
+        }
+        return listOfFoundWords;
+    }
+
+    /**
+     * Lazy version of {@link #searchPattern(String)}. The dictionary must not be modified while iterating.
+     *
+     * @param pattern e.g. {@code "d?g*"} or {@code "a.l.y"}, case insensitive
+     * @return iterator over all the words matching pattern, in lexicographical order
+     * @throws IllegalArgumentException if the pattern is invalid, see {@link #searchPattern(String)}
+     */
+    public Iterator<String> iterateWordsMatching(final CharSequence pattern) {
+        if (pattern == null) {
+            return Collections.<String>emptyIterator();
+        }
+        final int start = WordNormalizer.start(pattern);
+        final int end = WordNormalizer.end(pattern, start);
+        if (start == end) {
+            return Collections.<String>emptyIterator();
+        }
+        return new PatternIterator(root, WordPattern.compile(pattern, start, end));
+    }
+
+    /**
+     * Lazy version of {@link #searchAllWordsStartingWith(String)}: words are found as the iterator advances,
+     * using memory proportional to the length of the longest word rather than to the number of words.
+     * The dictionary must not be modified while iterating.
+     *
+     * @param prefix
+     * @return iterator over all the words in dictionary if prefix is blank, otherwise over all words starting with prefix,
+     * in lexicographical order
+     */
+    public Iterator<String> iterateWordsStartingWith(final CharSequence prefix) {
+        return wordIterator(prefix, 0);
+    }
+
+    /**
+     * Stream version of {@link #iterateWordsStartingWith(CharSequence)}, so that e.g. {@code limit(10)} stops the walk
+     * after 10 words. The stream is sized, sorted and distinct.
+     *
+     * @param prefix
+     * @return stream of all the words in dictionary if prefix is blank, otherwise of all words starting with prefix,
+     * in lexicographical order
+     */
+    public Stream<String> streamWordsStartingWith(final CharSequence prefix) {
+        final Spliterator<String> spliterator = Spliterators.spliterator(wordIterator(prefix, 0), countWordsStartingWith(prefix),
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    private Iterator<String> wordIterator(final CharSequence prefix, final int offset) {
+        final int start = prefix == null ? 0 : WordNormalizer.start(prefix);
+        final int end = prefix == null ? 0 : WordNormalizer.end(prefix, start);
+        final TrieNode node = findNode(prefix, start, end);
+        if (node == null) {
+            return Collections.<String>emptyIterator();
+        }
+
+        return new WordIterator(node, normalize(prefix, start, end), offset);
+    }
+
+    private static StringBuilder normalize(final CharSequence word, final int start, final int end) {
+        final StringBuilder normalizedWord = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            normalizedWord.append(WordNormalizer.normalize(word.charAt(i)));
+        }
+        return normalizedWord;
     }
 
     /**
      * Searching Algorithm
      * <p/>
      * 1 - if wordToSearch is blank, then return false.
-     * 2 - if currentRootNode does not contain child corresponding to first character of wordToSearch, then return false.
-     * 3 - if length of wordToSearch is 1,
-     * 3.1 - if the corresponding child for first character in currentRootNode is marked as end of word, then return true.
-     * 3.2 - else return false as the wordToSearch is not marked as end of word in dictionary
-     * 4 - else take the sub string of wordToSearch from index 1 (first character is removed as it has already bean found in the currentRootNode),
-     * and get the child corresponding to first character, resulting in sub string of wordToSearch as remaining wordToSearch
-     * and the child corresponding to first character as the new current currentRootNode
-     * 5 - Now repeat the above steps recursively until the end of word is reached.
+     * 2 - find the node of the last character of wordToSearch (see {@link #findNode(CharSequence, int, int)}),
+     * and return false if there is no such node.
+     * 3 - return true if the node is marked as end of word, otherwise false.
      *
      * @param wordToSearch
      * @return true if the wordToSearch is found in dictionary, otherwise return false
      */
     public boolean searchWord(final String wordToSearch) {
-        if (wordToSearch == null || wordToSearch.trim().isEmpty()) {
+        return searchWord((CharSequence) wordToSearch);
+    }
+
+    /**
+     * Same as {@link #searchWord(String)}, without requiring the word to be a String,
+     * so that words can be searched straight from a reusable buffer.
+     *
+     * @param wordToSearch
+     * @return true if the wordToSearch is found in dictionary, otherwise return false
+     */
+    public boolean searchWord(final CharSequence wordToSearch) {
+        final DictionaryMetrics currentMetrics = metrics;
+        if (currentMetrics != null) {
+            return searchWord(wordToSearch, currentMetrics);
+        }
+        if (wordToSearch == null) {
+            return false;
+        }
+        final int start = WordNormalizer.start(wordToSearch);
+        final int end = WordNormalizer.end(wordToSearch, start);
+        if (start == end) {
             return false;
         }
 
-        final String trimmedLowerCasedWordToSearch = wordToSearch.trim().toLowerCase();
-        return searchWord(trimmedLowerCasedWordToSearch, root);
+        final TrieNode node = findNode(wordToSearch, start, end);
+        return node != null && node.isEndOfWord();
     }
 
-    private boolean searchWord(final String trimmedLowerCasedWordToSearch, final TrieNode currentRootNode) {
-//        if (isBlank(trimmedLowerCasedWordToSearch)) {
-//            return false;
-//        }
+    /**
+     * Instrumented version of {@link #searchWord(CharSequence)}, which also counts the nodes walked.
+     */
+    private boolean searchWord(final CharSequence wordToSearch, final DictionaryMetrics currentMetrics) {
+        final long startTime = System.nanoTime();
+        int depth = 0;
+        boolean found = false;
+        if (wordToSearch != null) {
+            final int start = WordNormalizer.start(wordToSearch);
+            final int end = WordNormalizer.end(wordToSearch, start);
+            TrieNode currentRootNode = root;
+            for (int i = start; i < end && currentRootNode != null; i++) {
+                currentRootNode = currentRootNode.getChild(WordNormalizer.normalize(wordToSearch.charAt(i)));
+                if (currentRootNode != null) {
+                    depth++;
+                }
+            }
+            found = start < end && currentRootNode != null && currentRootNode.isEndOfWord();
+        }
+        currentMetrics.recordLookup(found, depth, System.nanoTime() - startTime);
+        return found;
+    }
 
-        final Character firstCharacter = trimmedLowerCasedWordToSearch.charAt(0);
-        if (!currentRootNode.hasChild(firstCharacter)) {
-            return false;
+    /**
+     * Batch Searching Algorithm
+     * <p/>
+     * 1 - normalize all the words into a single character array.
+     * 2 - sort the words by their first two characters with counting sorts, so that words sharing a prefix follow each other
+     * (see {@link BatchSearcher}).
+     * 3 - Loop through the sorted words, keeping the path of nodes of the previous word
+     * 3.1 - start from the node of the longest prefix shared with the previous word, instead of root.
+     * 3.2 - find the node of the last character of the word from there, as in {@link #searchWord(CharSequence)}.
+     *
+     * @param wordsToSearch
+     * @return array with true at the index of every word found in dictionary, false for the others
+     */
+    public boolean[] searchWords(final CharSequence[] wordsToSearch) {
+        return BatchSearcher.search(root, wordsToSearch);
+    }
+
+    /**
+     * Same as {@link #searchWords(CharSequence[])}.
+     *
+     * @param wordsToSearch
+     * @return set of the indexes of the words found in dictionary
+     */
+    public BitSet searchWords(final List<? extends CharSequence> wordsToSearch) {
+        final boolean[] found = BatchSearcher.search(root, wordsToSearch.toArray(new CharSequence[wordsToSearch.size()]));
+        final BitSet foundIndexes = new BitSet(found.length);
+        for (int i = 0; i < found.length; i++) {
+            if (found[i]) {
+                foundIndexes.set(i);
+            }
         }
-        if (trimmedLowerCasedWordToSearch.length() == 1) {
-            return currentRootNode.getChild(firstCharacter).isEndOfWord();
-        } else {
-            return searchWord(trimmedLowerCasedWordToSearch.substring(1), currentRootNode.getChild(firstCharacter));
+        return foundIndexes;
+    }
+
+    /**
+     * Searches every token of a text, a token being a run of letters or digits, in a single pass over the text:
+     * tokens are walked down the trie while they are scanned, so no token is copied and nothing is allocated.
+     *
+     * @param text    searched from its position to its limit, which are left unchanged
+     * @param visitor notified of every token, in order of appearance, and of whether it is found in dictionary
+     * @return number of tokens found in dictionary
+     */
+    public int searchTokens(final CharBuffer text, final TokenVisitor visitor) {
+        return BatchSearcher.searchTokens(root, text, visitor);
+    }
+
+    /**
+     * 1 - start with root as the currentRootNode.
+     * 2 - Loop through the characters of word from start to end, lower casing each character
+     * 2.1 - if currentRootNode does not have child for the character, then return null.
+     * 2.2 - the child corresponding to the character becomes the new currentRootNode for the next iteration of loop.
+     * 3 - return currentRootNode.
+     *
+     * @return the node of the last character of the word, or null if the dictionary has no such node
+     */
+    private TrieNode findNode(final CharSequence word, final int start, final int end) {
+        TrieNode currentRootNode = root;
+        for (int i = start; i < end && currentRootNode != null; i++) {
+            currentRootNode = currentRootNode.getChild(WordNormalizer.normalize(word.charAt(i)));
         }
+        return currentRootNode;
+    }
+
+    /**
+     * Writes the trie to a compact binary snapshot (see {@link TrieSnapshot}), which can be loaded back with
+     * {@link #load(Path)} or served read-only without deserialization with {@link MappedDictionary#map(Path)}.
+     * Weights are not part of the snapshot.
+     *
+     * @param snapshotFile created or overwritten
+     * @throws IOException if the file cannot be written
+     */
+    public void save(final Path snapshotFile) throws IOException {
+        TrieSnapshot.write(root, nodeCount, snapshotFile);
+    }
+
+    /**
+     * @param snapshotFile written by {@link #save(Path)}
+     * @return a new, modifiable dictionary with the words of the snapshot
+     * @throws IOException if the file cannot be read or is not a dictionary snapshot
+     */
+    public static Dictionary load(final Path snapshotFile) throws IOException {
+        final ByteBuffer buffer = TrieSnapshot.map(snapshotFile);
+        final Dictionary dictionary = new Dictionary();
+        dictionary.root = TrieSnapshot.read(buffer);
+        dictionary.nodeCount = TrieSnapshot.getNodeCount(buffer);
+        return dictionary;
     }
 
+    /**
+     * Creates an immutable, minimized copy of the dictionary (see {@link FrozenDictionary}), for dictionaries which
+     * are built once and then only read. Later changes to this dictionary are not reflected in the copy,
+     * and weights are not part of it.
+     *
+     * @return minimal acyclic automaton of the words in dictionary
+     */
+    public FrozenDictionary freeze() {
+        return FrozenDictionary.freeze(root, nodeCount);
+    }
+
+    /**
+     * Starts recording counters and latencies of the hot operations (see {@link DictionaryOperation}), which can then be
+     * read with {@link #getStats()}. Does nothing if metrics are already enabled.
+     */
+    public void enableMetrics() {
+        if (metrics == null) {
+            metrics = new DictionaryMetrics();
+        }
+    }
+
+    /**
+     * Stops recording metrics and discards the ones recorded so far.
+     */
+    public void disableMetrics() {
+        metrics = null;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metrics != null;
+    }
+
+    /**
+     * @return snapshot of the size of the dictionary, of the metrics recorded since they were enabled, which are all 0
+     * while metrics are disabled, and of the hits and misses of the prefix cache since it was enabled
+     */
+    public DictionaryStats getStats() {
+        final DictionaryMetrics currentMetrics = metrics;
+        final PrefixQueryCache currentPrefixCache = prefixCache;
+        final long prefixCacheHitCount = currentPrefixCache == null ? 0 : currentPrefixCache.getHitCount();
+        final long prefixCacheMissCount = currentPrefixCache == null ? 0 : currentPrefixCache.getMissCount();
+        return currentMetrics == null ? DictionaryStats.withoutMetrics(size(), nodeCount, prefixCacheHitCount, prefixCacheMissCount)
+                : currentMetrics.snapshot(size(), nodeCount, prefixCacheHitCount, prefixCacheMissCount);
+    }
+
+    /**
+     * Registers a {@link DictionaryStatsMXBean} reading {@link #getStats()} with the platform MBean server,
+     * under {@code au.com.mindworks.dictionary:type=Dictionary,name=<name>}. Metrics still need to be enabled
+     * for anything but the size to be reported.
+     *
+     * @param name
+     * @return name of the registered MXBean, to unregister it
+     * @throws JMException if the MXBean cannot be registered, e.g. because the name is already taken
+     */
+    public ObjectName registerMXBean(final String name) throws JMException {
+        final ObjectName objectName = new ObjectName("au.com.mindworks.dictionary:type=Dictionary,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new LiveDictionaryStats(this), objectName);
+        return objectName;
+    }
+
+    /**
+     * Puts a cache in front of {@link #searchAllWordsStartingWith(String)}, for skewed traffic such as autocomplete,
+     * where a few short prefixes account for most of the queries and each of them enumerates a large subtree.
+     * <p/>
+     * Every node carries a version, changed whenever a word is added below it or removed from below it, and a cached
+     * result is only served if the node of its prefix and the version of that node are still the same, so results are
+     * never stale, and changes only invalidate the results of the prefixes of the changed words. Results are returned
+     * as copies, which callers are free to modify. Replaces any previous cache.
+     *
+     * @param maximumWords maximum total number of words cached, each cached prefix also counting for one word
+     * @param policy       which results to evict, or not to admit, when the cache is full
+     */
+    public void enablePrefixCache(final long maximumWords, final CacheEvictionPolicy policy) {
+        if (maximumWords < 0) {
+            throw new IllegalArgumentException("Maximum number of words must not be negative: " + maximumWords);
+        }
+        prefixCache = new PrefixQueryCache(maximumWords, policy);
+    }
+
+    public void disablePrefixCache() {
+        prefixCache = null;
+    }
+
+    /**
+     * Walks the whole trie to report its shape (see {@link TrieStructure}).
+     *
+     * @return number of nodes per depth and per fan-out, child storage used and estimated retained bytes
+     */
+    public TrieStructure describeStructure() {
+        return TrieStructure.describe(root);
+    }
+
+    /**
+     * Prints the report of {@link #describeStructure()} to the standard output.
+     */
     public void printDictionaryTrie() {
-        //TODO: implement
+        System.out.println(describeStructure());
     }
 }
\ No newline at end of file
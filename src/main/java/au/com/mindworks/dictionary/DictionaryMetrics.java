@@ -0,0 +1,59 @@
+package au.com.mindworks.dictionary;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms of a {@link Dictionary}, only allocated while metrics are enabled.
+ * <p/>
+ * Everything is recorded in {@link LongAdder}s, which are cheap to increment from any number of threads,
+ * and only summed up when a {@link DictionaryStats} snapshot is taken.
+ */
+final class DictionaryMetrics {
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder traversalDepthSum = new LongAdder();
+    private final LongAdder prefixQueryCount = new LongAdder();
+    private final LongAdder prefixResultSizeSum = new LongAdder();
+    private final LatencyHistogram[] latencies = new LatencyHistogram[DictionaryOperation.values().length];
+
+    DictionaryMetrics() {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * @param found
+     * @param depth number of nodes walked below root before the word was found or the walk fell off the trie
+     * @param nanos
+     */
+    void recordLookup(final boolean found, final int depth, final long nanos) {
+        (found ? hitCount : missCount).increment();
+        traversalDepthSum.add(depth);
+        latencies[DictionaryOperation.SEARCH_WORD.ordinal()].record(nanos);
+    }
+
+    void recordPrefixQuery(final int resultSize, final long nanos) {
+        prefixQueryCount.increment();
+        prefixResultSizeSum.add(resultSize);
+        latencies[DictionaryOperation.SEARCH_ALL_WORDS_STARTING_WITH.ordinal()].record(nanos);
+    }
+
+    void recordLatency(final DictionaryOperation operation, final long nanos) {
+        latencies[operation.ordinal()].record(nanos);
+    }
+
+    DictionaryStats snapshot(final int size, final int nodeCount, final long prefixCacheHitCount, final long prefixCacheMissCount) {
+        final long[][] bucketCounts = new long[latencies.length][];
+        final long[] totalNanos = new long[latencies.length];
+        final long[] maxNanos = new long[latencies.length];
+        for (int i = 0; i < latencies.length; i++) {
+            bucketCounts[i] = latencies[i].getBucketCounts();
+            totalNanos[i] = latencies[i].getTotalNanos();
+            maxNanos[i] = latencies[i].getMaxNanos();
+        }
+        return new DictionaryStats(size, nodeCount, hitCount.sum(), missCount.sum(), traversalDepthSum.sum(),
+                prefixQueryCount.sum(), prefixResultSizeSum.sum(), prefixCacheHitCount, prefixCacheMissCount,
+                bucketCounts, totalNanos, maxNanos);
+    }
+}
@@ -0,0 +1,11 @@
+package au.com.mindworks.dictionary;
+
+/**
+ * Operations of a {@link Dictionary} whose latency is recorded when metrics are enabled.
+ */
+public enum DictionaryOperation {
+    ADD_WORD,
+    REMOVE_WORD,
+    SEARCH_WORD,
+    SEARCH_ALL_WORDS_STARTING_WITH
+}
@@ -0,0 +1,201 @@
+package au.com.mindworks.dictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable state of a {@link SnapshotDictionary} after a mutation batch.
+ * <p/>
+ * A snapshot is never modified, so all the queries made on the same snapshot are consistent with each other,
+ * whatever batches are applied to the dictionary meanwhile. Snapshots share all the nodes their batches did not
+ * touch, so keeping an old snapshot only retains the nodes changed since.
+ * <p/>
+ * The trie is split into {@link SnapshotDictionary#SHARD_COUNT} shards by the first character of the words:
+ * the children of the root of a shard are the first characters whose code modulo the shard count is the shard.
+ */
+public final class DictionarySnapshot {
+    private final PersistentTrieNode[] shardRoots;
+    private final int size;
+    private final long version;
+
+    DictionarySnapshot(final PersistentTrieNode[] shardRoots, final int size, final long version) {
+        this.shardRoots = shardRoots;
+        this.size = size;
+        this.version = version;
+    }
+
+    static DictionarySnapshot empty() {
+        final PersistentTrieNode[] shardRoots = new PersistentTrieNode[SnapshotDictionary.SHARD_COUNT];
+        final Object batch = new Object();
+        for (int shard = 0; shard < shardRoots.length; shard++) {
+            shardRoots[shard] = new PersistentTrieNode(batch);
+        }
+        return new DictionarySnapshot(shardRoots, 0, 0);
+    }
+
+    static int shardOf(final char normalizedFirstCharacter) {
+        return normalizedFirstCharacter % SnapshotDictionary.SHARD_COUNT;
+    }
+
+    PersistentTrieNode getShardRoot(final int shard) {
+        return shardRoots[shard];
+    }
+
+    /**
+     * @return copy of the shard roots, to build the next snapshot from
+     */
+    PersistentTrieNode[] copyShardRoots() {
+        return shardRoots.clone();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return number of batches applied to the dictionary before this snapshot was published
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @param wordToSearch
+     * @return true if the wordToSearch is found in this snapshot, otherwise return false
+     */
+    public boolean searchWord(final CharSequence wordToSearch) {
+        if (wordToSearch == null) {
+            return false;
+        }
+        final int start = WordNormalizer.start(wordToSearch);
+        final int end = WordNormalizer.end(wordToSearch, start);
+        if (start == end) {
+            return false;
+        }
+
+        final PersistentTrieNode node = findNode(wordToSearch, start, end);
+        return node != null && node.isEndOfWord();
+    }
+
+    /**
+     * @param prefix
+     * @return number of words in this snapshot if prefix is blank, otherwise number of words starting with prefix
+     */
+    public int countWordsStartingWith(final CharSequence prefix) {
+        if (prefix == null) {
+            return size;
+        }
+        final int start = WordNormalizer.start(prefix);
+        final int end = WordNormalizer.end(prefix, start);
+        if (start == end) {
+            return size;
+        }
+
+        final PersistentTrieNode node = findNode(prefix, start, end);
+        return node == null ? 0 : node.getWordCount();
+    }
+
+    public List<String> searchAllWords() {
+        return searchAllWordsStartingWith(null);
+    }
+
+    /**
+     * Search All Words Starting With Algorithm:
+     * 1. If prefix is blank, merge the first characters of all the shards in lexicographical order,
+     * and collect the words below each of them.
+     * 2. Otherwise walk the prefix from the root of the shard of its first character, and collect the words
+     * below the node of its last character.
+     *
+     * @param prefix
+     * @return list of all the words in this snapshot if prefix is blank, otherwise all words starting with prefix,
+     * in lexicographical order
+     */
+    public List<String> searchAllWordsStartingWith(final CharSequence prefix) {
+        final int start = prefix == null ? 0 : WordNormalizer.start(prefix);
+        final int end = prefix == null ? 0 : WordNormalizer.end(prefix, start);
+        final List<String> listOfFoundWordsWithPrefix = new ArrayList<String>(start == end ? size : 16);
+        final StringBuilder word = new StringBuilder();
+        if (start == end) {
+            for (char firstCharacter : sortedFirstCharacters()) {
+                word.append(firstCharacter);
+                searchAllWords(shardRoots[shardOf(firstCharacter)].getChild(firstCharacter), word, listOfFoundWordsWithPrefix);
+                word.setLength(0);
+            }
+            return listOfFoundWordsWithPrefix;
+        }
+
+        final PersistentTrieNode node = findNode(prefix, start, end);
+        if (node == null) {
+            return listOfFoundWordsWithPrefix;
+        }
+        for (int i = start; i < end; i++) {
+            word.append(WordNormalizer.normalize(prefix.charAt(i)));
+        }
+        searchAllWords(node, word, listOfFoundWordsWithPrefix);
+        return listOfFoundWordsWithPrefix;
+    }
+
+    private char[] sortedFirstCharacters() {
+        int count = 0;
+        for (PersistentTrieNode shardRoot : shardRoots) {
+            count += shardRoot.getChildrenCount();
+        }
+        final char[] firstCharacters = new char[count];
+        int index = 0;
+        for (PersistentTrieNode shardRoot : shardRoots) {
+            for (int i = 0; i < shardRoot.getChildrenCount(); i++) {
+                firstCharacters[index++] = shardRoot.getChildCharacterAt(i);
+            }
+        }
+        Arrays.sort(firstCharacters);
+        return firstCharacters;
+    }
+
+    /**
+     * Same walk as {@link WordIterator}, with an explicit stack so that long words do not need a deep call stack.
+     */
+    private static void searchAllWords(final PersistentTrieNode baseNode, final StringBuilder word, final List<String> listOfFoundWords) {
+        PersistentTrieNode[] nodes = new PersistentTrieNode[16];
+        int[] nextIndexes = new int[16];
+        int depth = 0;
+
+        if (baseNode.isEndOfWord()) {
+            listOfFoundWords.add(word.toString());
+        }
+        nodes[depth++] = baseNode;
+        while (depth > 0) {
+            final PersistentTrieNode node = nodes[depth - 1];
+            final int index = nextIndexes[depth - 1];
+            if (index == node.getChildrenCount()) {
+                depth--;
+                if (depth > 0) {
+                    word.setLength(word.length() - 1);
+                }
+                continue;
+            }
+            nextIndexes[depth - 1] = index + 1;
+
+            final PersistentTrieNode child = node.getChildAt(index);
+            word.append(node.getChildCharacterAt(index));
+            if (child.isEndOfWord()) {
+                listOfFoundWords.add(word.toString());
+            }
+            if (depth == nodes.length) {
+                nodes = Arrays.copyOf(nodes, depth * 2);
+                nextIndexes = Arrays.copyOf(nextIndexes, depth * 2);
+            }
+            nodes[depth] = child;
+            nextIndexes[depth] = 0;
+            depth++;
+        }
+    }
+
+    private PersistentTrieNode findNode(final CharSequence word, final int start, final int end) {
+        PersistentTrieNode currentRootNode = shardRoots[shardOf(WordNormalizer.normalize(word.charAt(start)))];
+        for (int i = start; i < end && currentRootNode != null; i++) {
+            currentRootNode = currentRootNode.getChild(WordNormalizer.normalize(word.charAt(i)));
+        }
+        return currentRootNode;
+    }
+}
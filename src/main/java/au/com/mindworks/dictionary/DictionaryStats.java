@@ -0,0 +1,214 @@
+package au.com.mindworks.dictionary;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the metrics of a {@link Dictionary}, taken with {@link Dictionary#getStats()}.
+ * <p/>
+ * Counters cover the time metrics (or the prefix cache, for its counters) were enabled, and are all 0 if they never were. Latency percentiles are
+ * upper bounds, precise to a factor of 2.
+ */
+public final class DictionaryStats implements DictionaryStatsMXBean {
+    private final int size;
+    private final int nodeCount;
+    private final long hitCount;
+    private final long missCount;
+    private final long traversalDepthSum;
+    private final long prefixQueryCount;
+    private final long prefixResultSizeSum;
+    private final long prefixCacheHitCount;
+    private final long prefixCacheMissCount;
+    private final long[][] bucketCounts;
+    private final long[] totalNanos;
+    private final long[] maxNanos;
+
+    DictionaryStats(final int size, final int nodeCount, final long hitCount, final long missCount, final long traversalDepthSum,
+                    final long prefixQueryCount, final long prefixResultSizeSum, final long prefixCacheHitCount,
+                    final long prefixCacheMissCount, final long[][] bucketCounts, final long[] totalNanos, final long[] maxNanos) {
+        this.size = size;
+        this.nodeCount = nodeCount;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.traversalDepthSum = traversalDepthSum;
+        this.prefixQueryCount = prefixQueryCount;
+        this.prefixResultSizeSum = prefixResultSizeSum;
+        this.prefixCacheHitCount = prefixCacheHitCount;
+        this.prefixCacheMissCount = prefixCacheMissCount;
+        this.bucketCounts = bucketCounts;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    /**
+     * @return stats of a dictionary whose metrics are not enabled
+     */
+    static DictionaryStats withoutMetrics(final int size, final int nodeCount, final long prefixCacheHitCount,
+                                          final long prefixCacheMissCount) {
+        final int operationCount = DictionaryOperation.values().length;
+        return new DictionaryStats(size, nodeCount, 0, 0, 0, 0, 0, prefixCacheHitCount, prefixCacheMissCount,
+                new long[operationCount][LatencyHistogram.BUCKET_COUNT], new long[operationCount], new long[operationCount]);
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return number of calls to searchWord
+     */
+    @Override
+    public long getLookupCount() {
+        return hitCount + missCount;
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount;
+    }
+
+    @Override
+    public double getHitRatio() {
+        return getLookupCount() == 0 ? 0 : (double) hitCount / getLookupCount();
+    }
+
+    /**
+     * @return average number of nodes walked below root by searchWord
+     */
+    @Override
+    public double getAverageTraversalDepth() {
+        return getLookupCount() == 0 ? 0 : (double) traversalDepthSum / getLookupCount();
+    }
+
+    /**
+     * @return number of calls to searchAllWordsStartingWith
+     */
+    @Override
+    public long getPrefixQueryCount() {
+        return prefixQueryCount;
+    }
+
+    @Override
+    public double getAveragePrefixResultSize() {
+        return prefixQueryCount == 0 ? 0 : (double) prefixResultSizeSum / prefixQueryCount;
+    }
+
+    /**
+     * @return number of prefix queries answered from the prefix cache
+     */
+    @Override
+    public long getPrefixCacheHitCount() {
+        return prefixCacheHitCount;
+    }
+
+    /**
+     * @return number of prefix queries which were not cached, or whose cached result was out of date
+     */
+    @Override
+    public long getPrefixCacheMissCount() {
+        return prefixCacheMissCount;
+    }
+
+    public long getOperationCount(final DictionaryOperation operation) {
+        long count = 0;
+        for (long bucketCount : bucketCounts[operation.ordinal()]) {
+            count += bucketCount;
+        }
+        return count;
+    }
+
+    public double getMeanLatencyNanos(final DictionaryOperation operation) {
+        final long count = getOperationCount(operation);
+        return count == 0 ? 0 : (double) totalNanos[operation.ordinal()] / count;
+    }
+
+    /**
+     * @param operation
+     * @param percentile between 0 and 100, e.g. 99 for the 99th percentile
+     * @return latency which percentile percent of the operations did not exceed, 0 if there was no operation
+     */
+    public long getLatencyPercentileNanos(final DictionaryOperation operation, final double percentile) {
+        return LatencyHistogram.percentileNanos(bucketCounts[operation.ordinal()], percentile);
+    }
+
+    public long getMaxLatencyNanos(final DictionaryOperation operation) {
+        return maxNanos[operation.ordinal()];
+    }
+
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        final Map<String, Long> operationCounts = new LinkedHashMap<String, Long>();
+        for (DictionaryOperation operation : DictionaryOperation.values()) {
+            operationCounts.put(operation.name(), getOperationCount(operation));
+        }
+        return operationCounts;
+    }
+
+    @Override
+    public Map<String, Double> getMeanLatencyNanos() {
+        final Map<String, Double> meanLatencies = new LinkedHashMap<String, Double>();
+        for (DictionaryOperation operation : DictionaryOperation.values()) {
+            meanLatencies.put(operation.name(), getMeanLatencyNanos(operation));
+        }
+        return meanLatencies;
+    }
+
+    @Override
+    public Map<String, Long> getMedianLatencyNanos() {
+        return getLatencyPercentileNanos(50);
+    }
+
+    @Override
+    public Map<String, Long> getP99LatencyNanos() {
+        return getLatencyPercentileNanos(99);
+    }
+
+    @Override
+    public Map<String, Long> getMaxLatencyNanos() {
+        final Map<String, Long> maxLatencies = new LinkedHashMap<String, Long>();
+        for (DictionaryOperation operation : DictionaryOperation.values()) {
+            maxLatencies.put(operation.name(), getMaxLatencyNanos(operation));
+        }
+        return maxLatencies;
+    }
+
+    private Map<String, Long> getLatencyPercentileNanos(final double percentile) {
+        final Map<String, Long> latencies = new LinkedHashMap<String, Long>();
+        for (DictionaryOperation operation : DictionaryOperation.values()) {
+            latencies.put(operation.name(), getLatencyPercentileNanos(operation, percentile));
+        }
+        return latencies;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder report = new StringBuilder();
+        report.append("DictionaryStats[words=").append(size)
+                .append(", nodes=").append(nodeCount)
+                .append(", lookups=").append(getLookupCount())
+                .append(", hitRatio=").append(String.format("%.3f", getHitRatio()))
+                .append(", averageTraversalDepth=").append(String.format("%.2f", getAverageTraversalDepth()))
+                .append(", prefixQueries=").append(prefixQueryCount)
+                .append(", averagePrefixResultSize=").append(String.format("%.2f", getAveragePrefixResultSize()))
+                .append(", prefixCacheHits=").append(prefixCacheHitCount)
+                .append(", prefixCacheMisses=").append(prefixCacheMissCount);
+        for (DictionaryOperation operation : DictionaryOperation.values()) {
+            report.append(", ").append(operation).append("=[count=").append(getOperationCount(operation))
+                    .append(", meanNanos=").append(String.format("%.0f", getMeanLatencyNanos(operation)))
+                    .append(", p99Nanos<=").append(getLatencyPercentileNanos(operation, 99))
+                    .append(", maxNanos=").append(getMaxLatencyNanos(operation)).append("]");
+        }
+        return report.append("]").toString();
+    }
+}
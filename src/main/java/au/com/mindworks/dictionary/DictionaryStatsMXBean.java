@@ -0,0 +1,42 @@
+package au.com.mindworks.dictionary;
+
+import java.util.Map;
+
+/**
+ * JMX view of the {@link DictionaryStats} of a dictionary, registered with {@link Dictionary#registerMXBean(String)}.
+ * Latencies are keyed by {@link DictionaryOperation} name.
+ */
+public interface DictionaryStatsMXBean {
+
+    int getSize();
+
+    int getNodeCount();
+
+    long getLookupCount();
+
+    long getHitCount();
+
+    long getMissCount();
+
+    double getHitRatio();
+
+    double getAverageTraversalDepth();
+
+    long getPrefixQueryCount();
+
+    double getAveragePrefixResultSize();
+
+    long getPrefixCacheHitCount();
+
+    long getPrefixCacheMissCount();
+
+    Map<String, Long> getOperationCounts();
+
+    Map<String, Double> getMeanLatencyNanos();
+
+    Map<String, Long> getMedianLatencyNanos();
+
+    Map<String, Long> getP99LatencyNanos();
+
+    Map<String, Long> getMaxLatencyNanos();
+}
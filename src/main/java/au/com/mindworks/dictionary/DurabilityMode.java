@@ -0,0 +1,21 @@
+package au.com.mindworks.dictionary;
+
+/**
+ * When the changes made to a {@link DurableDictionary} are forced to disk.
+ */
+public enum DurabilityMode {
+    /**
+     * Every change is forced to disk before the method making it returns, one fsync per change.
+     */
+    SYNC,
+    /**
+     * Every change is forced to disk before the method making it returns, but the changes of concurrent writers
+     * waiting at the same time are forced together by one of them (group commit).
+     */
+    BATCHED,
+    /**
+     * Changes are forced to disk in the background, so the changes of the last
+     * {@link WriteAheadLog#ASYNC_FLUSH_INTERVAL_MILLIS} milliseconds may be lost if the machine crashes.
+     */
+    ASYNC
+}
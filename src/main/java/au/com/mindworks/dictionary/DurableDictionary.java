@@ -0,0 +1,313 @@
+package au.com.mindworks.dictionary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe {@link Dictionary} whose changes survive restarts, stored in a directory as a snapshot
+ * (see {@link Dictionary#save(Path)}) and a log of the changes made since (see {@link WriteAheadLog}).
+ * <p/>
+ * Opening the directory loads the snapshot and replays the log on it. Compaction saves a new snapshot and empties
+ * the log, so that the log, and the time it takes to replay it, stay bounded. Replaying a change which is already
+ * in the snapshot does not change the dictionary, so a crash between saving the snapshot and emptying the log
+ * is harmless.
+ * <p/>
+ * Changes are applied under a write lock and appended to the log only if they change the dictionary.
+ * Readers share a read lock, and may see changes before they are durable.
+ * Weights are not logged, like they are not saved.
+ */
+public class DurableDictionary implements Closeable {
+    static final String SNAPSHOT_FILE_NAME = "dictionary.trie";
+    static final String LOG_FILE_NAME = "dictionary.wal";
+
+    private final Path snapshotFile;
+    private final DurabilityMode mode;
+    private final long compactionThresholdBytes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Dictionary dictionary;
+    private final WriteAheadLog log;
+
+    private DurableDictionary(final Path snapshotFile, final DurabilityMode mode, final long compactionThresholdBytes,
+                              final Dictionary dictionary, final WriteAheadLog log) {
+        this.snapshotFile = snapshotFile;
+        this.mode = mode;
+        this.compactionThresholdBytes = compactionThresholdBytes;
+        this.dictionary = dictionary;
+        this.log = log;
+    }
+
+    /**
+     * Same as {@link #open(Path, DurabilityMode, long)}, compacting only when {@link #compact()} is called.
+     */
+    public static DurableDictionary open(final Path directory, final DurabilityMode mode) throws IOException {
+        return open(directory, mode, 0);
+    }
+
+    /**
+     * Recovery Algorithm:
+     * 1. Create the directory if it does not exist.
+     * 2. Load the snapshot if there is one, otherwise start from an empty dictionary.
+     * 3. Replay the log on the dictionary, up to its last complete record.
+     *
+     * @param directory                where the snapshot and the log are kept
+     * @param mode                     when changes are forced to disk
+     * @param compactionThresholdBytes size of the log above which a change compacts it, 0 to never compact automatically
+     * @return the dictionary with the changes made before it was last closed, or before the crash
+     * @throws IOException if the directory cannot be created, or the snapshot or the log cannot be read
+     */
+    public static DurableDictionary open(final Path directory, final DurabilityMode mode, final long compactionThresholdBytes)
+            throws IOException {
+        if (compactionThresholdBytes < 0) {
+            throw new IllegalArgumentException("Compaction threshold must not be negative: " + compactionThresholdBytes);
+        }
+        Files.createDirectories(directory);
+        final Path snapshotFile = directory.resolve(SNAPSHOT_FILE_NAME);
+        final Dictionary dictionary = Files.exists(snapshotFile) ? Dictionary.load(snapshotFile) : new Dictionary();
+        final WriteAheadLog log = WriteAheadLog.open(directory.resolve(LOG_FILE_NAME), mode);
+        try {
+            log.replay(dictionary);
+        } catch (IOException e) {
+            log.close();
+            throw e;
+        }
+        return new DurableDictionary(snapshotFile, mode, compactionThresholdBytes, dictionary, log);
+    }
+
+    /**
+     * Adds the word, returning once the change is durable unless the mode is {@link DurabilityMode#ASYNC}.
+     *
+     * @param wordToAdd
+     * @throws UncheckedIOException if the change cannot be logged, in which case it is applied but not durable
+     */
+    public void addWord(final CharSequence wordToAdd) {
+        final long sequence;
+        lock.writeLock().lock();
+        try {
+            final int sizeBeforeAddition = dictionary.size();
+            dictionary.addWord(wordToAdd);
+            if (dictionary.size() == sizeBeforeAddition) {
+                return;
+            }
+            sequence = append(WriteAheadLog.ADD, wordToAdd);
+            afterAppend(sequence);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(sequence);
+    }
+
+    /**
+     * Adds the words, forcing them to disk together.
+     *
+     * @param wordsToAdd
+     * @throws UncheckedIOException if the changes cannot be logged, in which case they are applied but not durable
+     */
+    public void addAllWords(final Collection<? extends CharSequence> wordsToAdd) {
+        long sequence = 0;
+        lock.writeLock().lock();
+        try {
+            for (CharSequence wordToAdd : wordsToAdd) {
+                final int sizeBeforeAddition = dictionary.size();
+                dictionary.addWord(wordToAdd);
+                if (dictionary.size() != sizeBeforeAddition) {
+                    sequence = append(WriteAheadLog.ADD, wordToAdd);
+                }
+            }
+            if (sequence == 0) {
+                return;
+            }
+            afterAppend(sequence);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(sequence);
+    }
+
+    /**
+     * Removes the word, returning once the change is durable unless the mode is {@link DurabilityMode#ASYNC}.
+     *
+     * @param wordToRemove
+     * @return true if the word is removed from dictionary, otherwise false (when word is not found in dictionary)
+     * @throws UncheckedIOException if the change cannot be logged, in which case it is applied but not durable
+     */
+    public boolean removeWord(final CharSequence wordToRemove) {
+        final long sequence;
+        lock.writeLock().lock();
+        try {
+            if (!dictionary.removeWord(wordToRemove)) {
+                return false;
+            }
+            sequence = append(WriteAheadLog.REMOVE, wordToRemove);
+            afterAppend(sequence);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(sequence);
+        return true;
+    }
+
+    /**
+     * Called holding the write lock, once the change is applied. In {@link DurabilityMode#ASYNC} mode, this is where
+     * a failure of the background flush reaches the writers, instead of their changes piling up unwritten.
+     */
+    private long append(final byte type, final CharSequence word) {
+        try {
+            return log.append(type, word);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Called holding the write lock: in SYNC mode the change is forced before the next one is applied,
+     * otherwise compacts the log if it grew above the threshold.
+     */
+    private void afterAppend(final long sequence) {
+        try {
+            if (mode == DurabilityMode.SYNC) {
+                log.awaitDurable(sequence);
+            }
+            if (compactionThresholdBytes > 0 && log.size() > compactionThresholdBytes) {
+                compactHoldingWriteLock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Called without the lock, so that the changes of the writers waiting meanwhile are forced together.
+     */
+    private void awaitDurable(final long sequence) {
+        if (mode != DurabilityMode.BATCHED) {
+            return;
+        }
+        try {
+            log.awaitDurable(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Compaction Algorithm:
+     * 1. Save the dictionary to a temporary snapshot, and force it to disk.
+     * 2. Replace the snapshot with the temporary snapshot, atomically.
+     * 3. Force the directory to disk, so that the replacement is durable.
+     * 4. Empty the log.
+     * No change can be made meanwhile, readers are only blocked while the snapshot is saved.
+     *
+     * @throws IOException if the snapshot cannot be written or the log cannot be emptied
+     */
+    public void compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            compactHoldingWriteLock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void compactHoldingWriteLock() throws IOException {
+        final Path temporarySnapshotFile = snapshotFile.resolveSibling(SNAPSHOT_FILE_NAME + ".tmp");
+        dictionary.save(temporarySnapshotFile);
+        try (FileChannel channel = FileChannel.open(temporarySnapshotFile, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporarySnapshotFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // The rename is only durable once the directory entry is on disk. Emptying the log before that could leave
+        // the old snapshot next to an empty log after a crash, losing every change made since the old snapshot.
+        forceDirectory(snapshotFile.toAbsolutePath().getParent());
+        log.reset();
+    }
+
+    /**
+     * Forces the entries of the directory to disk. Directories cannot be opened on Windows, where this does nothing.
+     */
+    private static void forceDirectory(final Path directory) throws IOException {
+        if (System.getProperty("os.name").startsWith("Windows")) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    WriteAheadLog getLog() {
+        return log;
+    }
+
+    /**
+     * @return bytes of the log, which compaction empties
+     */
+    public long logSize() {
+        return log.size();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return dictionary.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean searchWord(final CharSequence wordToSearch) {
+        lock.readLock().lock();
+        try {
+            return dictionary.searchWord(wordToSearch);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countWordsStartingWith(final CharSequence prefix) {
+        lock.readLock().lock();
+        try {
+            return dictionary.countWordsStartingWith(prefix);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<String> searchAllWords() {
+        return searchAllWordsStartingWith(null);
+    }
+
+    /**
+     * @param prefix
+     * @return list of all the words in dictionary if prefix is blank, otherwise all words starting with prefix,
+     * in lexicographical order
+     */
+    public List<String> searchAllWordsStartingWith(final String prefix) {
+        lock.readLock().lock();
+        try {
+            return dictionary.searchAllWordsStartingWith(prefix);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Forces the pending changes to disk and closes the log. The dictionary must not be used afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            log.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
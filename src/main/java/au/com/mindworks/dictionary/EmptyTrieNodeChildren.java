@@ -0,0 +1,54 @@
+package au.com.mindworks.dictionary;
+
+/**
+ * Stateless child storage shared by all the leaf nodes, so that a leaf costs nothing but the node itself.
+ */
+final class EmptyTrieNodeChildren extends TrieNodeChildren {
+    static final EmptyTrieNodeChildren INSTANCE = new EmptyTrieNodeChildren();
+
+    private EmptyTrieNodeChildren() {
+    }
+
+    @Override
+    int size() {
+        return 0;
+    }
+
+    @Override
+    TrieNode get(final char character) {
+        return null;
+    }
+
+    @Override
+    TrieNodeChildren put(final char character, final TrieNode child) {
+        return new SparseTrieNodeChildren().put(character, child);
+    }
+
+    @Override
+    TrieNodeChildren remove(final char character) {
+        return this;
+    }
+
+    /**
+     * @return 0 as the instance is shared
+     */
+    @Override
+    long estimatedBytes() {
+        return 0;
+    }
+
+    @Override
+    int getSlotCount() {
+        return 0;
+    }
+
+    @Override
+    char getKeyAt(final int slot) {
+        throw new IndexOutOfBoundsException("Slot: " + slot);
+    }
+
+    @Override
+    TrieNode getChildAt(final int slot) {
+        throw new IndexOutOfBoundsException("Slot: " + slot);
+    }
+}
@@ -0,0 +1,136 @@
+package au.com.mindworks.dictionary;
+
+/**
+ * Count-min sketch estimating how often keys were seen recently, in a fixed amount of memory.
+ * <p/>
+ * Each key increments one counter in each of {@link #DEPTH} rows, picked by a different hash of the key, and its
+ * frequency is estimated as the smallest of its counters, which can only over-estimate it (because of collisions).
+ * Counters saturate at {@link #MAX_COUNT}, and are all halved once the number of increments reaches 10 times the
+ * width of the rows, so that old popularity fades away.
+ * <p/>
+ * As counters take 4 bits, they are packed 16 to a {@code long}, each row taking width / 16 consecutive longs.
+ */
+final class FrequencySketch {
+    static final int MAX_COUNT = 15;
+
+    private static final int DEPTH = 4;
+    private static final int MIN_WIDTH = 16;
+    private static final int MAX_WIDTH = 1 << 20;
+    private static final int COUNTERS_PER_LONG_SHIFT = 4;
+    private static final long HALVING_MASK = 0x7777777777777777L;
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    private long[] counters;
+    private int mask;
+    private int sampleSize;
+    private int incrementCount;
+
+    /**
+     * @param expectedKeyCount number of distinct keys whose frequency matters, rounded up to a power of 2 for the width
+     */
+    FrequencySketch(final int expectedKeyCount) {
+        resize(widthFor(expectedKeyCount));
+    }
+
+    /**
+     * Widens the rows if there are fewer counters per row than expectedKeyCount, carrying the frequencies over,
+     * halved as the counters they were summed in are now split between several keys.
+     * <p/>
+     * As widths are powers of 2, the counter of a key in a wider row is at an index which has the index of its
+     * counter in the narrower row as lower bits, so each new counter starts from the old counter at its index modulo
+     * the old width, which can only over-estimate, like any count-min counter. With at least 16 counters per row,
+     * this copies whole longs.
+     *
+     * @param expectedKeyCount
+     */
+    void ensureCapacity(final int expectedKeyCount) {
+        final int width = widthFor(expectedKeyCount);
+        if (width <= mask + 1) {
+            return;
+        }
+        halve();
+        final long[] oldCounters = counters;
+        final int oldLongsPerRow = (mask + 1) >>> COUNTERS_PER_LONG_SHIFT;
+        resize(width);
+        final int longsPerRow = width >>> COUNTERS_PER_LONG_SHIFT;
+        for (int row = 0; row < DEPTH; row++) {
+            for (int i = 0; i < longsPerRow; i++) {
+                counters[row * longsPerRow + i] = oldCounters[row * oldLongsPerRow + (i & (oldLongsPerRow - 1))];
+            }
+        }
+    }
+
+    /**
+     * @return number of counters per row
+     */
+    int getWidth() {
+        return mask + 1;
+    }
+
+    void increment(final Object key) {
+        final int hash = spread(key.hashCode());
+        for (int row = 0; row < DEPTH; row++) {
+            final int index = index(hash, row);
+            final int shift = shiftOf(index);
+            final int arrayIndex = arrayIndexOf(row, index);
+            if ((counters[arrayIndex] >>> shift & MAX_COUNT) < MAX_COUNT) {
+                counters[arrayIndex] += 1L << shift;
+            }
+        }
+        if (++incrementCount == sampleSize) {
+            halve();
+        }
+    }
+
+    int frequency(final Object key) {
+        final int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            final int index = index(hash, row);
+            frequency = Math.min(frequency, (int) (counters[arrayIndexOf(row, index)] >>> shiftOf(index) & MAX_COUNT));
+        }
+        return frequency;
+    }
+
+    private void resize(final int width) {
+        counters = new long[DEPTH * (width >>> COUNTERS_PER_LONG_SHIFT)];
+        mask = width - 1;
+        sampleSize = 10 * width;
+    }
+
+    private int index(final int hash, final int row) {
+        final int rowHash = hash * SEEDS[row];
+        return (rowHash ^ (rowHash >>> 16)) & mask;
+    }
+
+    private int arrayIndexOf(final int row, final int index) {
+        return row * ((mask + 1) >>> COUNTERS_PER_LONG_SHIFT) + (index >>> COUNTERS_PER_LONG_SHIFT);
+    }
+
+    private static int shiftOf(final int index) {
+        return (index & ((1 << COUNTERS_PER_LONG_SHIFT) - 1)) << 2;
+    }
+
+    /**
+     * Halves the 16 counters of each long at once, the bit shifted into the top of each counter being masked out.
+     */
+    private void halve() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = (counters[i] >>> 1) & HALVING_MASK;
+        }
+        incrementCount /= 2;
+    }
+
+    private static int widthFor(final int expectedKeyCount) {
+        int width = MIN_WIDTH;
+        while (width < expectedKeyCount && width < MAX_WIDTH) {
+            width <<= 1;
+        }
+        return width;
+    }
+
+    private static int spread(final int hash) {
+        final int spreadHash = hash * 0x7FEB352D;
+        return spreadHash ^ (spreadHash >>> 15);
+    }
+}
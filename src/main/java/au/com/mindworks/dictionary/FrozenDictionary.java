@@ -0,0 +1,391 @@
+package au.com.mindworks.dictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable, minimal acyclic automaton (DAWG) of the words of a {@link Dictionary}, created by
+ * {@link Dictionary#freeze()}, with the same trimming and case-insensitivity.
+ * <p/>
+ * Nodes of the trie which accept the same set of suffixes (e.g. the "ing", "s" and "ed" endings shared by
+ * many words) are merged into a single state, and the states are stored in flat arrays: the outgoing edges
+ * of state {@code s} are {@code [firstEdges[s], firstEdges[s + 1])} of {@code edgeCharacters} and
+ * {@code edgeTargets}, sorted by character. There is no object per state or per edge.
+ * <p/>
+ * Instances are immutable and safe to use from many threads.
+ */
+public final class FrozenDictionary {
+    private final int[] firstEdges;
+    private final char[] edgeCharacters;
+    private final int[] edgeTargets;
+    private final int[] wordCounts;
+    private final boolean[] endOfWords;
+    private final int rootState;
+    private final int sourceNodeCount;
+
+    private FrozenDictionary(final int[] firstEdges, final char[] edgeCharacters, final int[] edgeTargets,
+                             final int[] wordCounts, final boolean[] endOfWords, final int sourceNodeCount) {
+        this.firstEdges = firstEdges;
+        this.edgeCharacters = edgeCharacters;
+        this.edgeTargets = edgeTargets;
+        this.wordCounts = wordCounts;
+        this.endOfWords = endOfWords;
+        this.rootState = endOfWords.length - 1;
+        this.sourceNodeCount = sourceNodeCount;
+    }
+
+    /**
+     * Minimization Algorithm
+     * <p/>
+     * 1 - walk the trie in post-order, so that all the children of a node are visited before the node itself.
+     * 2 - the signature of a node is its end of word mark, followed by the character and the state of each child.
+     * 2.1 - if a state with the same signature has already been registered, then the node is equivalent to it
+     * (it accepts exactly the same suffixes), so the node becomes that state.
+     * 2.2 - else register a new state for the signature, appending its edges to the edge arrays.
+     * 3 - root is the last state registered.
+     *
+     * @param root            of the trie to freeze
+     * @param sourceNodeCount number of nodes of the trie, for reporting
+     */
+    static FrozenDictionary freeze(final TrieNode root, final int sourceNodeCount) {
+        return new Builder().build(root, sourceNodeCount);
+    }
+
+    public int size() {
+        return wordCounts[rootState];
+    }
+
+    /**
+     * @return number of states of the automaton, including the root
+     */
+    public int stateCount() {
+        return endOfWords.length;
+    }
+
+    public int edgeCount() {
+        return edgeCharacters.length;
+    }
+
+    /**
+     * @return number of nodes, excluding the root, of the trie which was frozen
+     */
+    public int sourceNodeCount() {
+        return sourceNodeCount;
+    }
+
+    /**
+     * @return bytes used by the arrays of the automaton, excluding the object and array headers
+     */
+    public long estimatedBytes() {
+        return 4L * firstEdges.length + 2L * edgeCharacters.length + 4L * edgeTargets.length
+                + 4L * wordCounts.length + endOfWords.length;
+    }
+
+    public double bytesPerWord() {
+        return size() == 0 ? 0 : (double) estimatedBytes() / size();
+    }
+
+    /**
+     * @param wordToSearch
+     * @return true if the wordToSearch is found in dictionary, otherwise return false
+     */
+    public boolean searchWord(final CharSequence wordToSearch) {
+        if (wordToSearch == null) {
+            return false;
+        }
+        final int start = WordNormalizer.start(wordToSearch);
+        final int end = WordNormalizer.end(wordToSearch, start);
+        if (start == end) {
+            return false;
+        }
+
+        final int state = findState(wordToSearch, start, end);
+        return state >= 0 && endOfWords[state];
+    }
+
+    /**
+     * @param prefix
+     * @return number of words in dictionary if prefix is blank, otherwise number of words starting with prefix
+     */
+    public int countWordsStartingWith(final CharSequence prefix) {
+        if (prefix == null) {
+            return size();
+        }
+        final int start = WordNormalizer.start(prefix);
+        final int end = WordNormalizer.end(prefix, start);
+
+        final int state = findState(prefix, start, end);
+        return state < 0 ? 0 : wordCounts[state];
+    }
+
+    public List<String> searchAllWords() {
+        return searchAllWordsStartingWith(null);
+    }
+
+    /**
+     * @param prefix
+     * @return list of all the words in dictionary if prefix is blank, otherwise all words starting with prefix,
+     * in lexicographical order
+     */
+    public List<String> searchAllWordsStartingWith(final CharSequence prefix) {
+        final List<String> listOfFoundWordsWithPrefix = new ArrayList<String>(countWordsStartingWith(prefix));
+        final Iterator<String> iterator = iterateWordsStartingWith(prefix);
+        while (iterator.hasNext()) {
+            listOfFoundWordsWithPrefix.add(iterator.next());
+        }
+        return listOfFoundWordsWithPrefix;
+    }
+
+    /**
+     * @param prefix
+     * @return lazy iterator over all the words in dictionary if prefix is blank, otherwise over all words starting
+     * with prefix, in lexicographical order
+     */
+    public Iterator<String> iterateWordsStartingWith(final CharSequence prefix) {
+        final int start = prefix == null ? 0 : WordNormalizer.start(prefix);
+        final int end = prefix == null ? 0 : WordNormalizer.end(prefix, start);
+        final int state = findState(prefix, start, end);
+        if (state < 0) {
+            return Collections.<String>emptyIterator();
+        }
+
+        final StringBuilder normalizedPrefix = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            normalizedPrefix.append(WordNormalizer.normalize(prefix.charAt(i)));
+        }
+        return new StateWordIterator(state, normalizedPrefix);
+    }
+
+    @Override
+    public String toString() {
+        return "FrozenDictionary[words=" + size()
+                + ", states=" + stateCount() + " (trie nodes=" + (sourceNodeCount + 1) + ")"
+                + ", edges=" + edgeCount()
+                + ", bytes=" + estimatedBytes()
+                + ", bytesPerWord=" + String.format("%.2f", bytesPerWord()) + "]";
+    }
+
+    private int findState(final CharSequence word, final int start, final int end) {
+        int state = rootState;
+        for (int i = start; i < end && state >= 0; i++) {
+            state = getTarget(state, WordNormalizer.normalize(word.charAt(i)));
+        }
+        return state;
+    }
+
+    private int getTarget(final int state, final char character) {
+        final int edge = Arrays.binarySearch(edgeCharacters, firstEdges[state], firstEdges[state + 1], character);
+        return edge < 0 ? -1 : edgeTargets[edge];
+    }
+
+    /**
+     * Same walk as {@link WordIterator}, over the edges of the states.
+     */
+    private final class StateWordIterator implements Iterator<String> {
+        private final StringBuilder word;
+        private int[] nextEdges = new int[16];
+        private int[] lastEdges = new int[16];
+        private int depth = 0;
+        private String next;
+
+        private StateWordIterator(final int baseState, final StringBuilder prefix) {
+            this.word = prefix;
+            push(baseState);
+            next = endOfWords[baseState] ? word.toString() : advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            final String current = next;
+            next = advance();
+            return current;
+        }
+
+        private String advance() {
+            while (depth > 0) {
+                final int edge = nextEdges[depth - 1];
+                if (edge == lastEdges[depth - 1]) {
+                    depth--;
+                    if (depth > 0) {
+                        word.setLength(word.length() - 1);
+                    }
+                    continue;
+                }
+                nextEdges[depth - 1] = edge + 1;
+
+                word.append(edgeCharacters[edge]);
+                push(edgeTargets[edge]);
+                if (endOfWords[edgeTargets[edge]]) {
+                    return word.toString();
+                }
+            }
+            return null;
+        }
+
+        private void push(final int state) {
+            if (depth == nextEdges.length) {
+                nextEdges = Arrays.copyOf(nextEdges, depth * 2);
+                lastEdges = Arrays.copyOf(lastEdges, depth * 2);
+            }
+            nextEdges[depth] = firstEdges[state];
+            lastEdges[depth] = firstEdges[state + 1];
+            depth++;
+        }
+    }
+
+    /**
+     * Post-order walk of the trie registering the states, see {@link #freeze(TrieNode, int)}.
+     */
+    private static final class Builder {
+        private final Map<Signature, Integer> register = new HashMap<Signature, Integer>();
+        private int stateCount = 0;
+        private int edgeCount = 0;
+        private int[] firstEdges = new int[16];
+        private char[] edgeCharacters = new char[16];
+        private int[] edgeTargets = new int[16];
+        private int[] wordCounts = new int[16];
+        private boolean[] endOfWords = new boolean[16];
+
+        private FrozenDictionary build(final TrieNode root, final int sourceNodeCount) {
+            TrieNode[] nodes = new TrieNode[16];
+            int[] nextSlots = new int[16];
+            int[][] childStates = new int[16][];
+            int[] childCounts = new int[16];
+            int depth = 0;
+
+            nodes[depth] = root;
+            childStates[depth] = new int[root.getChildrenCount()];
+            depth++;
+            while (true) {
+                final TrieNode node = nodes[depth - 1];
+                final int slotCount = node.getChildSlotCount();
+                int slot = nextSlots[depth - 1];
+                while (slot < slotCount && node.getChildAt(slot) == null) {
+                    slot++;
+                }
+
+                if (slot < slotCount) {
+                    nextSlots[depth - 1] = slot + 1;
+                    if (depth == nodes.length) {
+                        nodes = Arrays.copyOf(nodes, depth * 2);
+                        nextSlots = Arrays.copyOf(nextSlots, depth * 2);
+                        childStates = Arrays.copyOf(childStates, depth * 2);
+                        childCounts = Arrays.copyOf(childCounts, depth * 2);
+                    }
+                    final TrieNode child = node.getChildAt(slot);
+                    nodes[depth] = child;
+                    nextSlots[depth] = 0;
+                    childStates[depth] = new int[child.getChildrenCount()];
+                    childCounts[depth] = 0;
+                    depth++;
+                    continue;
+                }
+
+                final int state = register(node, childStates[depth - 1], depth == 1);
+                nodes[depth - 1] = null;
+                childStates[depth - 1] = null;
+                depth--;
+                if (depth == 0) {
+                    break;
+                }
+                childStates[depth - 1][childCounts[depth - 1]++] = state;
+            }
+
+            firstEdges = Arrays.copyOf(firstEdges, stateCount + 1);
+            firstEdges[stateCount] = edgeCount;
+            return new FrozenDictionary(firstEdges, Arrays.copyOf(edgeCharacters, edgeCount),
+                    Arrays.copyOf(edgeTargets, edgeCount), Arrays.copyOf(wordCounts, stateCount),
+                    Arrays.copyOf(endOfWords, stateCount), sourceNodeCount);
+        }
+
+        /**
+         * @param isRoot root is never merged, so that it is always the last state
+         */
+        private int register(final TrieNode node, final int[] childStates, final boolean isRoot) {
+            final int[] signature = new int[1 + 2 * childStates.length];
+            signature[0] = node.isEndOfWord() ? 1 : 0;
+            int index = 0;
+            for (int slot = 0; slot < node.getChildSlotCount(); slot++) {
+                if (node.getChildAt(slot) != null) {
+                    signature[1 + 2 * index] = node.getChildCharacterAt(slot);
+                    signature[2 + 2 * index] = childStates[index];
+                    index++;
+                }
+            }
+
+            final Signature key = new Signature(signature);
+            if (!isRoot) {
+                final Integer existingState = register.get(key);
+                if (existingState != null) {
+                    return existingState;
+                }
+            }
+
+            final int state = stateCount++;
+            ensureStateCapacity();
+            firstEdges[state] = edgeCount;
+            wordCounts[state] = node.getWordCount();
+            endOfWords[state] = node.isEndOfWord();
+            for (int i = 0; i < childStates.length; i++) {
+                ensureEdgeCapacity();
+                edgeCharacters[edgeCount] = (char) signature[1 + 2 * i];
+                edgeTargets[edgeCount] = childStates[i];
+                edgeCount++;
+            }
+            if (!isRoot) {
+                register.put(key, state);
+            }
+            return state;
+        }
+
+        private void ensureStateCapacity() {
+            if (stateCount > endOfWords.length) {
+                final int newCapacity = endOfWords.length * 2;
+                firstEdges = Arrays.copyOf(firstEdges, newCapacity);
+                wordCounts = Arrays.copyOf(wordCounts, newCapacity);
+                endOfWords = Arrays.copyOf(endOfWords, newCapacity);
+            }
+        }
+
+        private void ensureEdgeCapacity() {
+            if (edgeCount == edgeCharacters.length) {
+                edgeCharacters = Arrays.copyOf(edgeCharacters, edgeCount * 2);
+                edgeTargets = Arrays.copyOf(edgeTargets, edgeCount * 2);
+            }
+        }
+    }
+
+    private static final class Signature {
+        private final int[] content;
+        private final int hashCode;
+
+        private Signature(final int[] content) {
+            this.content = content;
+            this.hashCode = Arrays.hashCode(content);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Signature && Arrays.equals(content, ((Signature) other).content);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
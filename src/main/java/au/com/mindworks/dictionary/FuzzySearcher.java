@@ -0,0 +1,194 @@
+package au.com.mindworks.dictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Finds the words within a maximum Levenshtein distance (insertions, deletions and substitutions) of a word.
+ * <p/>
+ * The trie is walked depth first, computing one row of the Levenshtein matrix per node from the row of its parent:
+ * {@code row[j]} is the distance between the characters on the path to the node and the first j characters of the
+ * word, so words sharing a prefix share the rows of that prefix. A subtree is pruned as soon as the smallest value
+ * of its row exceeds the maximum distance, as the distance can only grow further down.
+ * <p/>
+ * Same walk as {@link WordIterator}, with an explicit stack holding the node, the next child slot and the row of
+ * each level, so that long words do not need a deep call stack. Levels are preallocated down to twice the word
+ * length, and added as deeper nodes are reached, up to the deepest node which can be within the maximum distance
+ * (word length + maximum distance). So the walk rarely allocates, apart from the words found, and a huge maximum
+ * distance only costs levels for the depth of the trie.
+ */
+final class FuzzySearcher {
+    /**
+     * Farthest first, and last in lexicographical order at the same distance, so that the head of the heap is
+     * the match to drop when there are too many.
+     */
+    private static final Comparator<Match> FARTHEST_FIRST = new Comparator<Match>() {
+        @Override
+        public int compare(final Match first, final Match second) {
+            if (first.distance != second.distance) {
+                return first.distance > second.distance ? -1 : 1;
+            }
+            return second.word.compareTo(first.word);
+        }
+    };
+
+    private final char[] word;
+    private final int maxEdits;
+    private final int maxDepth;
+    private TrieNode[] nodes;
+    private int[] nextSlots;
+    private int[][] rows;
+    private final StringBuilder path = new StringBuilder();
+    private List<String> foundWords;
+    private PriorityQueue<Match> closestMatches;
+    private int limit;
+
+    /**
+     * @param word     normalized word
+     * @param maxEdits
+     */
+    FuzzySearcher(final char[] word, final int maxEdits) {
+        this.word = word;
+        this.maxEdits = maxEdits;
+        this.maxDepth = (int) Math.min((long) word.length + maxEdits, Integer.MAX_VALUE - 1);
+        final int levelCount = Math.min(maxDepth, 2 * word.length) + 1;
+        this.nodes = new TrieNode[levelCount];
+        this.nextSlots = new int[levelCount];
+        this.rows = new int[levelCount][word.length + 1];
+    }
+
+    /**
+     * @return the words within the maximum distance, in lexicographical order
+     */
+    List<String> search(final TrieNode root) {
+        foundWords = new ArrayList<String>();
+        walk(root);
+        return foundWords;
+    }
+
+    /**
+     * Keeps the closest words found so far in a heap of at most limit words, the farthest at its head.
+     *
+     * @param limit maximum number of words to return
+     * @return the closest words within the maximum distance, closest first, words at the same distance in
+     * lexicographical order
+     */
+    List<String> searchClosest(final TrieNode root, final int limit) {
+        final List<String> closestWords = new ArrayList<String>();
+        if (limit == 0) {
+            return closestWords;
+        }
+        this.limit = limit;
+        closestMatches = new PriorityQueue<Match>(Math.min(limit, 16), FARTHEST_FIRST);
+        walk(root);
+
+        final String[] wordsFarthestFirst = new String[closestMatches.size()];
+        for (int i = 0; i < wordsFarthestFirst.length; i++) {
+            wordsFarthestFirst[i] = closestMatches.poll().word;
+        }
+        for (int i = wordsFarthestFirst.length - 1; i >= 0; i--) {
+            closestWords.add(wordsFarthestFirst[i]);
+        }
+        return closestWords;
+    }
+
+    private void walk(final TrieNode root) {
+        for (int j = 0; j <= word.length; j++) {
+            rows[0][j] = j;
+        }
+        nodes[0] = root;
+        nextSlots[0] = 0;
+        int depth = 0;
+        while (depth >= 0) {
+            final TrieNode node = nodes[depth];
+            final int slot = nextSlots[depth];
+            if (depth == maxDepth || slot == node.getChildSlotCount()) {
+                if (depth > 0) {
+                    path.setLength(depth - 1);
+                }
+                depth--;
+                continue;
+            }
+            nextSlots[depth] = slot + 1;
+
+            final TrieNode child = node.getChildAt(slot);
+            if (child == null) {
+                continue;
+            }
+            if (depth + 1 == rows.length) {
+                growLevels();
+            }
+            final char character = node.getChildCharacterAt(slot);
+            if (computeRow(rows[depth], rows[depth + 1], character, depth + 1) > maxEdits) {
+                continue;
+            }
+
+            path.append(character);
+            final int distance = rows[depth + 1][word.length];
+            if (child.isEndOfWord() && distance <= maxEdits) {
+                found(distance);
+            }
+            depth++;
+            nodes[depth] = child;
+            nextSlots[depth] = 0;
+        }
+    }
+
+    /**
+     * @return the smallest value of the row
+     */
+    private int computeRow(final int[] previousRow, final int[] row, final char character, final int depth) {
+        row[0] = depth;
+        int minimum = row[0];
+        for (int j = 1; j <= word.length; j++) {
+            final int substitution = previousRow[j - 1] + (word[j - 1] == character ? 0 : 1);
+            final int deletion = previousRow[j] + 1;
+            final int insertion = row[j - 1] + 1;
+            row[j] = Math.min(substitution, Math.min(deletion, insertion));
+            minimum = Math.min(minimum, row[j]);
+        }
+        return minimum;
+    }
+
+    /**
+     * Words are found in lexicographical order, so a word at the same distance as the farthest kept match ranks
+     * after it, and is dropped when the heap is full.
+     */
+    private void found(final int distance) {
+        if (closestMatches == null) {
+            foundWords.add(path.toString());
+            return;
+        }
+        if (closestMatches.size() == limit) {
+            if (closestMatches.peek().distance <= distance) {
+                return;
+            }
+            closestMatches.poll();
+        }
+        closestMatches.add(new Match(path.toString(), distance));
+    }
+
+    private void growLevels() {
+        final int levelCount = rows.length;
+        final int newLevelCount = (int) Math.min(2L * levelCount, maxDepth + 1L);
+        nodes = Arrays.copyOf(nodes, newLevelCount);
+        nextSlots = Arrays.copyOf(nextSlots, newLevelCount);
+        rows = Arrays.copyOf(rows, newLevelCount);
+        for (int i = levelCount; i < newLevelCount; i++) {
+            rows[i] = new int[word.length + 1];
+        }
+    }
+
+    private static final class Match {
+        private final String word;
+        private final int distance;
+
+        private Match(final String word, final int distance) {
+            this.word = word;
+            this.distance = distance;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package au.com.mindworks.dictionary;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies with one bucket per power of 2 of nanoseconds, so that recording is a couple of
+ * uncontended {@link LongAdder} increments, at the cost of percentiles being precise to a factor of 2 only.
+ * <p/>
+ * Bucket i counts the latencies whose highest bit is bit i - 1, i.e. in {@code [2^(i-1), 2^i)} nanoseconds,
+ * bucket 0 counting the latencies of 0.
+ */
+final class LatencyHistogram {
+    static final int BUCKET_COUNT = Long.SIZE;
+
+    private final LongAdder[] bucketCounts = new LongAdder[BUCKET_COUNT];
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            bucketCounts[i] = new LongAdder();
+        }
+    }
+
+    void record(final long nanos) {
+        final long positiveNanos = Math.max(nanos, 0);
+        bucketCounts[Long.SIZE - Long.numberOfLeadingZeros(positiveNanos)].increment();
+        totalNanos.add(positiveNanos);
+        maxNanos.accumulate(positiveNanos);
+    }
+
+    long[] getBucketCounts() {
+        final long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = bucketCounts[i].sum();
+        }
+        return counts;
+    }
+
+    long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * @param bucketCounts as returned by {@link #getBucketCounts()}
+     * @param percentile   between 0 and 100
+     * @return upper bound of the bucket holding the percentile, 0 if nothing was recorded
+     */
+    static long percentileNanos(final long[] bucketCounts, final double percentile) {
+        long count = 0;
+        for (long bucketCount : bucketCounts) {
+            count += bucketCount;
+        }
+        final long rank = (long) Math.ceil(count * Math.min(Math.max(percentile, 0), 100) / 100);
+        long cumulativeCount = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            cumulativeCount += bucketCounts[i];
+            if (cumulativeCount >= rank && cumulativeCount > 0) {
+                return i == 0 ? 0 : (1L << i) - 1;
+            }
+        }
+        return 0;
+    }
+}
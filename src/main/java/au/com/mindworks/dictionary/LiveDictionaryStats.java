@@ -0,0 +1,94 @@
+package au.com.mindworks.dictionary;
+
+import java.util.Map;
+
+/**
+ * MXBean reading the current {@link DictionaryStats} of a dictionary whenever an attribute is read.
+ */
+final class LiveDictionaryStats implements DictionaryStatsMXBean {
+    private final Dictionary dictionary;
+
+    LiveDictionaryStats(final Dictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public int getSize() {
+        return dictionary.getStats().getSize();
+    }
+
+    @Override
+    public int getNodeCount() {
+        return dictionary.getStats().getNodeCount();
+    }
+
+    @Override
+    public long getLookupCount() {
+        return dictionary.getStats().getLookupCount();
+    }
+
+    @Override
+    public long getHitCount() {
+        return dictionary.getStats().getHitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return dictionary.getStats().getMissCount();
+    }
+
+    @Override
+    public double getHitRatio() {
+        return dictionary.getStats().getHitRatio();
+    }
+
+    @Override
+    public double getAverageTraversalDepth() {
+        return dictionary.getStats().getAverageTraversalDepth();
+    }
+
+    @Override
+    public long getPrefixQueryCount() {
+        return dictionary.getStats().getPrefixQueryCount();
+    }
+
+    @Override
+    public double getAveragePrefixResultSize() {
+        return dictionary.getStats().getAveragePrefixResultSize();
+    }
+
+    @Override
+    public long getPrefixCacheHitCount() {
+        return dictionary.getStats().getPrefixCacheHitCount();
+    }
+
+    @Override
+    public long getPrefixCacheMissCount() {
+        return dictionary.getStats().getPrefixCacheMissCount();
+    }
+
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        return dictionary.getStats().getOperationCounts();
+    }
+
+    @Override
+    public Map<String, Double> getMeanLatencyNanos() {
+        return dictionary.getStats().getMeanLatencyNanos();
+    }
+
+    @Override
+    public Map<String, Long> getMedianLatencyNanos() {
+        return dictionary.getStats().getMedianLatencyNanos();
+    }
+
+    @Override
+    public Map<String, Long> getP99LatencyNanos() {
+        return dictionary.getStats().getP99LatencyNanos();
+    }
+
+    @Override
+    public Map<String, Long> getMaxLatencyNanos() {
+        return dictionary.getStats().getMaxLatencyNanos();
+    }
+}
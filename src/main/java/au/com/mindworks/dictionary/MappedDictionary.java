@@ -0,0 +1,190 @@
+package au.com.mindworks.dictionary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Read-only dictionary served straight from a memory-mapped snapshot written by {@link Dictionary#save(Path)},
+ * with the same trimming and case-insensitivity as {@link Dictionary}.
+ * <p/>
+ * Nothing is deserialized: every lookup reads the records of the nodes on its path from the mapped file
+ * (see {@link TrieSnapshot}), so mapping is near instant whatever the size of the dictionary, and the trie
+ * stays off the Java heap, in pages shared through the OS page cache.
+ * <p/>
+ * Instances are immutable and safe to use from many threads.
+ */
+public final class MappedDictionary {
+    private final ByteBuffer buffer;
+    private final int rootOffset;
+
+    private MappedDictionary(final ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.rootOffset = TrieSnapshot.getRootOffset(buffer);
+    }
+
+    /**
+     * @param snapshotFile written by {@link Dictionary#save(Path)}
+     * @return dictionary reading the mapped snapshot file
+     * @throws IOException if the file cannot be mapped or is not a dictionary snapshot
+     */
+    public static MappedDictionary map(final Path snapshotFile) throws IOException {
+        return new MappedDictionary(TrieSnapshot.map(snapshotFile));
+    }
+
+    public int size() {
+        return TrieSnapshot.getWordCount(buffer);
+    }
+
+    public int nodeCount() {
+        return TrieSnapshot.getNodeCount(buffer);
+    }
+
+    /**
+     * @param wordToSearch
+     * @return true if the wordToSearch is found in dictionary, otherwise return false
+     */
+    public boolean searchWord(final CharSequence wordToSearch) {
+        if (wordToSearch == null) {
+            return false;
+        }
+        final int start = WordNormalizer.start(wordToSearch);
+        final int end = WordNormalizer.end(wordToSearch, start);
+        if (start == end) {
+            return false;
+        }
+
+        final int nodeOffset = findNode(wordToSearch, start, end);
+        return nodeOffset >= 0 && TrieSnapshot.isEndOfWord(buffer, nodeOffset);
+    }
+
+    /**
+     * @param prefix
+     * @return number of words in dictionary if prefix is blank, otherwise number of words starting with prefix
+     */
+    public int countWordsStartingWith(final CharSequence prefix) {
+        if (prefix == null) {
+            return size();
+        }
+        final int start = WordNormalizer.start(prefix);
+        final int end = WordNormalizer.end(prefix, start);
+
+        final int nodeOffset = findNode(prefix, start, end);
+        return nodeOffset < 0 ? 0 : TrieSnapshot.getWordCount(buffer, nodeOffset);
+    }
+
+    public List<String> searchAllWords() {
+        return searchAllWordsStartingWith(null);
+    }
+
+    /**
+     * @param prefix
+     * @return list of all the words in dictionary if prefix is blank, otherwise all words starting with prefix,
+     * in lexicographical order
+     */
+    public List<String> searchAllWordsStartingWith(final CharSequence prefix) {
+        final List<String> listOfFoundWordsWithPrefix = new ArrayList<String>(countWordsStartingWith(prefix));
+        final Iterator<String> iterator = iterateWordsStartingWith(prefix);
+        while (iterator.hasNext()) {
+            listOfFoundWordsWithPrefix.add(iterator.next());
+        }
+        return listOfFoundWordsWithPrefix;
+    }
+
+    /**
+     * @param prefix
+     * @return lazy iterator over all the words in dictionary if prefix is blank, otherwise over all words starting
+     * with prefix, in lexicographical order
+     */
+    public Iterator<String> iterateWordsStartingWith(final CharSequence prefix) {
+        final int start = prefix == null ? 0 : WordNormalizer.start(prefix);
+        final int end = prefix == null ? 0 : WordNormalizer.end(prefix, start);
+        final int nodeOffset = findNode(prefix, start, end);
+        if (nodeOffset < 0) {
+            return Collections.<String>emptyIterator();
+        }
+
+        final StringBuilder normalizedPrefix = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            normalizedPrefix.append(WordNormalizer.normalize(prefix.charAt(i)));
+        }
+        return new MappedWordIterator(buffer, nodeOffset, normalizedPrefix);
+    }
+
+    private int findNode(final CharSequence word, final int start, final int end) {
+        int nodeOffset = rootOffset;
+        for (int i = start; i < end && nodeOffset >= 0; i++) {
+            nodeOffset = TrieSnapshot.getChildOffset(buffer, nodeOffset, WordNormalizer.normalize(word.charAt(i)));
+        }
+        return nodeOffset;
+    }
+
+    /**
+     * Same walk as {@link WordIterator}, over node records instead of nodes.
+     */
+    private static final class MappedWordIterator implements Iterator<String> {
+        private final ByteBuffer buffer;
+        private final StringBuilder word;
+        private int[] nodeOffsets = new int[16];
+        private int[] nextIndexes = new int[16];
+        private int depth = 0;
+        private String next;
+
+        private MappedWordIterator(final ByteBuffer buffer, final int baseNodeOffset, final StringBuilder prefix) {
+            this.buffer = buffer;
+            this.word = prefix;
+            nodeOffsets[depth++] = baseNodeOffset;
+            next = TrieSnapshot.isEndOfWord(buffer, baseNodeOffset) ? word.toString() : advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            final String current = next;
+            next = advance();
+            return current;
+        }
+
+        private String advance() {
+            while (depth > 0) {
+                final int nodeOffset = nodeOffsets[depth - 1];
+                final int index = nextIndexes[depth - 1];
+                if (index == TrieSnapshot.getChildrenCount(buffer, nodeOffset)) {
+                    depth--;
+                    if (depth > 0) {
+                        word.setLength(word.length() - 1);
+                    }
+                    continue;
+                }
+                nextIndexes[depth - 1] = index + 1;
+
+                final int childOffset = TrieSnapshot.getChildOffsetAt(buffer, nodeOffset, index);
+                word.append(TrieSnapshot.getChildCharacterAt(buffer, nodeOffset, index));
+                if (depth == nodeOffsets.length) {
+                    nodeOffsets = Arrays.copyOf(nodeOffsets, depth * 2);
+                    nextIndexes = Arrays.copyOf(nextIndexes, depth * 2);
+                }
+                nodeOffsets[depth] = childOffset;
+                nextIndexes[depth] = 0;
+                depth++;
+                if (TrieSnapshot.isEndOfWord(buffer, childOffset)) {
+                    return word.toString();
+                }
+            }
+            return null;
+        }
+    }
+}
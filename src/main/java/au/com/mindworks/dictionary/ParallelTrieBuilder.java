@@ -0,0 +1,133 @@
+package au.com.mindworks.dictionary;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Bulk loads words into a trie using a {@link ForkJoinPool}.
+ * <p/>
+ * The words starting with different characters live in independent subtrees of root, so the input is read
+ * in chunks of {@link #CHUNK_SIZE} words, each chunk is partitioned by the first (normalized) character, and
+ * the subtree of every character is built by its own task. Subtrees of characters which root does not have
+ * yet are built detached and grafted under root once their task is done, so root is only ever modified by
+ * the calling thread.
+ * <p/>
+ * Only one chunk is held in memory at a time, so the input never needs to be materialized as a whole.
+ */
+final class ParallelTrieBuilder {
+    static final int CHUNK_SIZE = 1 << 16;
+
+    private final TrieNode root;
+    private final ForkJoinPool pool;
+    private int addedWordCount = 0;
+    private int createdNodeCount = 0;
+
+    ParallelTrieBuilder(final TrieNode root, final ForkJoinPool pool) {
+        this.root = root;
+        this.pool = pool;
+    }
+
+    /**
+     * @param wordsToAdd
+     * @return this builder, whose counts tell how many words and nodes were added
+     */
+    ParallelTrieBuilder addAll(final Iterator<? extends CharSequence> wordsToAdd) {
+        final List<CharSequence> chunk = new ArrayList<CharSequence>(CHUNK_SIZE);
+        while (wordsToAdd.hasNext()) {
+            final CharSequence wordToAdd = wordsToAdd.next();
+            if (wordToAdd != null) {
+                chunk.add(wordToAdd);
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+                addChunk(chunk);
+                chunk.clear();
+            }
+        }
+        addChunk(chunk);
+        return this;
+    }
+
+    int getAddedWordCount() {
+        return addedWordCount;
+    }
+
+    int getCreatedNodeCount() {
+        return createdNodeCount;
+    }
+
+    private void addChunk(final List<CharSequence> chunk) {
+        final Map<Character, SubTrieBuildTask> tasksByFirstCharacter = new HashMap<Character, SubTrieBuildTask>();
+        for (CharSequence wordToAdd : chunk) {
+            final int start = WordNormalizer.start(wordToAdd);
+            if (start == wordToAdd.length()) {
+                continue;
+            }
+
+            final char firstCharacter = WordNormalizer.normalize(wordToAdd.charAt(start));
+            SubTrieBuildTask task = tasksByFirstCharacter.get(firstCharacter);
+            if (task == null) {
+                task = new SubTrieBuildTask(firstCharacter, root.getChild(firstCharacter));
+                tasksByFirstCharacter.put(firstCharacter, task);
+            }
+            task.wordsToAdd.add(wordToAdd);
+        }
+        if (tasksByFirstCharacter.isEmpty()) {
+            return;
+        }
+
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(tasksByFirstCharacter.values());
+            }
+        });
+
+        for (SubTrieBuildTask task : tasksByFirstCharacter.values()) {
+            if (task.isGrafted) {
+                root.addChild(task.firstCharacter, task.subTrieRoot);
+            }
+            root.addToWordCount(task.addedWordCount);
+            addedWordCount += task.addedWordCount;
+            createdNodeCount += task.createdNodeCount;
+        }
+    }
+
+    private static final class SubTrieBuildTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final char firstCharacter;
+        private final TrieNode subTrieRoot;
+        private final boolean isGrafted;
+        private final List<CharSequence> wordsToAdd = new ArrayList<CharSequence>();
+        private int addedWordCount = 0;
+        private int createdNodeCount = 0;
+
+        private SubTrieBuildTask(final char firstCharacter, final TrieNode existingSubTrieRoot) {
+            this.firstCharacter = firstCharacter;
+            this.isGrafted = existingSubTrieRoot == null;
+            this.subTrieRoot = isGrafted ? new TrieNode() : existingSubTrieRoot;
+            if (isGrafted) {
+                createdNodeCount++;
+            }
+        }
+
+        @Override
+        protected void compute() {
+            for (CharSequence wordToAdd : wordsToAdd) {
+                final int start = WordNormalizer.start(wordToAdd);
+                final int end = WordNormalizer.end(wordToAdd, start);
+                final int createdNodeCountForWord = Dictionary.addWord(subTrieRoot, wordToAdd, start + 1, end);
+                if (createdNodeCountForWord >= 0) {
+                    addedWordCount++;
+                    createdNodeCount += createdNodeCountForWord;
+                }
+            }
+        }
+    }
+}
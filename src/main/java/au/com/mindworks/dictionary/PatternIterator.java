@@ -0,0 +1,135 @@
+package au.com.mindworks.dictionary;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily walks the words matching a {@link WordPattern}, depth first and in lexicographical order.
+ * <p/>
+ * Like {@link WordIterator}, the path is kept in an explicit stack, along with the states of the pattern active at
+ * each node, so a subtree is left as soon as no state is active. Where the pattern allows a single character
+ * (a literal), the child is looked up directly instead of going through all the children, and once only a trailing
+ * star is left, the whole subtree matches and is handed over to a {@link WordIterator}.
+ * <p/>
+ * The dictionary must not be modified while iterating, otherwise the behaviour is undefined.
+ */
+final class PatternIterator implements Iterator<String> {
+    private static final int INITIAL_DEPTH = 16;
+
+    private final WordPattern pattern;
+    private final StringBuilder word = new StringBuilder(INITIAL_DEPTH);
+    private TrieNode[] nodes = new TrieNode[INITIAL_DEPTH];
+    private long[] states = new long[INITIAL_DEPTH];
+    private int[] nextSlots = new int[INITIAL_DEPTH];
+    private int depth = 0;
+    private WordIterator subtreeIterator;
+    private String next;
+
+    PatternIterator(final TrieNode root, final WordPattern pattern) {
+        this.pattern = pattern;
+        final long initialStates = pattern.initialStates();
+        if (pattern.matchesAnything(initialStates)) {
+            subtreeIterator = new WordIterator(root, word, 0);
+        } else {
+            push(root, initialStates);
+        }
+        next = advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        final String current = next;
+        next = advance();
+        return current;
+    }
+
+    private String advance() {
+        while (true) {
+            if (subtreeIterator != null) {
+                if (subtreeIterator.hasNext()) {
+                    return subtreeIterator.next();
+                }
+                subtreeIterator = null;
+            }
+            if (depth == 0) {
+                return null;
+            }
+
+            final TrieNode node = nodes[depth - 1];
+            final long nodeStates = states[depth - 1];
+            if (!pattern.canContinue(nodeStates)) {
+                pop();
+                continue;
+            }
+            final int slot = nextSlots[depth - 1];
+            final int singleCharacter = pattern.singleCharacter(nodeStates);
+            TrieNode child = null;
+            char character = 0;
+            if (singleCharacter >= 0) {
+                if (slot == 0) {
+                    character = (char) singleCharacter;
+                    child = node.getChild(character);
+                }
+                nextSlots[depth - 1] = 1;
+            } else {
+                final int slotCount = node.getChildSlotCount();
+                int nextSlot = slot;
+                while (nextSlot < slotCount && (child = node.getChildAt(nextSlot)) == null) {
+                    nextSlot++;
+                }
+                if (child != null) {
+                    character = node.getChildCharacterAt(nextSlot);
+                }
+                nextSlots[depth - 1] = nextSlot + 1;
+            }
+
+            if (child == null) {
+                pop();
+                continue;
+            }
+            final long childStates = pattern.step(nodeStates, character);
+            if (childStates == 0) {
+                continue;
+            }
+            word.append(character);
+            if (pattern.matchesAnything(childStates)) {
+                subtreeIterator = new WordIterator(child, word, 0);
+                word.setLength(word.length() - 1);
+                continue;
+            }
+            push(child, childStates);
+            if (child.isEndOfWord() && pattern.isAccepting(childStates)) {
+                return word.toString();
+            }
+        }
+    }
+
+    private void push(final TrieNode node, final long nodeStates) {
+        if (depth == nodes.length) {
+            nodes = Arrays.copyOf(nodes, depth * 2);
+            states = Arrays.copyOf(states, depth * 2);
+            nextSlots = Arrays.copyOf(nextSlots, depth * 2);
+        }
+        nodes[depth] = node;
+        states[depth] = nodeStates;
+        nextSlots[depth] = 0;
+        depth++;
+    }
+
+    private void pop() {
+        depth--;
+        nodes[depth] = null;
+        if (depth > 0) {
+            word.setLength(word.length() - 1);
+        }
+    }
+}
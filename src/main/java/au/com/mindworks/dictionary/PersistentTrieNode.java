@@ -0,0 +1,132 @@
+package au.com.mindworks.dictionary;
+
+import java.util.Arrays;
+
+/**
+ * Node of a persistent trie: once published, a node is never modified, and changes are made on copies of the nodes
+ * on the path of the changed word (path copying), the new path sharing all the other nodes with the old one.
+ * <p/>
+ * Copying a path per word would create garbage for every word of a batch touching the same nodes, so a node created
+ * for a batch is owned by the batch and modified in place by it, until the batch is published
+ * (see {@link #editableBy(Object)}). The owner is never used again afterwards, which freezes the node.
+ * <p/>
+ * Children are kept in arrays sorted by character, like in {@link SparseTrieNodeChildren}.
+ */
+final class PersistentTrieNode {
+    private static final char[] NO_KEYS = new char[0];
+    private static final PersistentTrieNode[] NO_CHILDREN = new PersistentTrieNode[0];
+
+    private final Object owner;
+    private boolean endOfWord;
+    private int wordCount;
+    private char[] keys;
+    private PersistentTrieNode[] children;
+
+    /**
+     * @param owner batch creating the node
+     */
+    PersistentTrieNode(final Object owner) {
+        this(owner, false, 0, NO_KEYS, NO_CHILDREN);
+    }
+
+    private PersistentTrieNode(final Object owner, final boolean endOfWord, final int wordCount, final char[] keys,
+                               final PersistentTrieNode[] children) {
+        this.owner = owner;
+        this.endOfWord = endOfWord;
+        this.wordCount = wordCount;
+        this.keys = keys;
+        this.children = children;
+    }
+
+    boolean isEndOfWord() {
+        return endOfWord;
+    }
+
+    int getWordCount() {
+        return wordCount;
+    }
+
+    int getChildrenCount() {
+        return keys.length;
+    }
+
+    char getChildCharacterAt(final int index) {
+        return keys[index];
+    }
+
+    PersistentTrieNode getChildAt(final int index) {
+        return children[index];
+    }
+
+    PersistentTrieNode getChild(final char character) {
+        final int index = Arrays.binarySearch(keys, character);
+        return index < 0 ? null : children[index];
+    }
+
+    /**
+     * @param batch
+     * @return this node if the batch owns it, otherwise a copy owned by the batch
+     */
+    PersistentTrieNode editableBy(final Object batch) {
+        if (owner == batch) {
+            return this;
+        }
+        return new PersistentTrieNode(batch, endOfWord, wordCount, keys.clone(), children.clone());
+    }
+
+    /*
+     * The methods below must only be called on nodes owned by the calling batch.
+     */
+
+    void setEndOfWord(final boolean endOfWord) {
+        this.endOfWord = endOfWord;
+    }
+
+    void addToWordCount(final int delta) {
+        wordCount += delta;
+    }
+
+    /**
+     * Adds the child for the character, or replaces it if there is one.
+     */
+    void putChild(final char character, final PersistentTrieNode child) {
+        int index = Arrays.binarySearch(keys, character);
+        if (index >= 0) {
+            children[index] = child;
+            return;
+        }
+
+        index = -(index + 1);
+        final char[] newKeys = new char[keys.length + 1];
+        final PersistentTrieNode[] newChildren = new PersistentTrieNode[children.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(children, 0, newChildren, 0, index);
+        newKeys[index] = character;
+        newChildren[index] = child;
+        System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+        System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+        keys = newKeys;
+        children = newChildren;
+    }
+
+    void removeChild(final char character) {
+        final int index = Arrays.binarySearch(keys, character);
+        if (index < 0) {
+            return;
+        }
+        if (keys.length == 1) {
+            keys = NO_KEYS;
+            children = NO_CHILDREN;
+            return;
+        }
+
+        final char[] newKeys = new char[keys.length - 1];
+        final PersistentTrieNode[] newChildren = new PersistentTrieNode[children.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(children, 0, newChildren, 0, index);
+        System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+        System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+        keys = newKeys;
+        children = newChildren;
+    }
+}
@@ -0,0 +1,144 @@
+package au.com.mindworks.dictionary;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Size-bounded cache of the words starting with a prefix, keyed by the normalized prefix.
+ * <p/>
+ * An entry remembers the node of the prefix and its version (see {@link TrieNode#getVersion()}) when the words were
+ * found. Adding or removing a word changes the version of every node on its path, so an entry is only served if
+ * walking the prefix again leads to the same node with the same version, i.e. if no word was added below or removed
+ * from below the prefix since. Changes to other prefixes do not invalidate the entry.
+ * <p/>
+ * The size of the cache is the total number of words held, so that a few huge results cannot take all the memory.
+ * Methods are synchronized, as looking up an entry updates the recency order, and the frequencies for TinyLFU.
+ * <p/>
+ * The TinyLFU sketch only needs to tell apart the prefixes competing for entries, so it is sized from the number of
+ * entries, a small multiple of it, and widened as entries are added, rather than from the number of words held.
+ */
+final class PrefixQueryCache {
+    private static final int INITIAL_SKETCH_ENTRIES = 64;
+    private static final int SKETCH_KEYS_PER_ENTRY = 4;
+
+    private final long maximumWords;
+    private final FrequencySketch sketch;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+    private long cachedWordCount;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * @param maximumWords maximum total number of words held, each entry also counting for one word
+     * @param policy
+     */
+    PrefixQueryCache(final long maximumWords, final CacheEvictionPolicy policy) {
+        this.maximumWords = maximumWords;
+        this.sketch = policy == CacheEvictionPolicy.TINY_LFU
+                ? new FrequencySketch((int) Math.min(maximumWords, INITIAL_SKETCH_ENTRIES) * SKETCH_KEYS_PER_ENTRY) : null;
+    }
+
+    /**
+     * @param prefix normalized prefix
+     * @param node   node of the last character of prefix, as found now, or null if there is no such node
+     * @return the cached words starting with prefix, not to be modified, or null if they are not cached or out of date
+     */
+    synchronized List<String> get(final String prefix, final TrieNode node) {
+        if (sketch != null) {
+            sketch.increment(prefix);
+        }
+        final Entry entry = entries.get(prefix);
+        if (entry != null) {
+            if (entry.node == node && (node == null || entry.version == node.getVersion())) {
+                hitCount++;
+                return entry.words;
+            }
+            entries.remove(prefix);
+            cachedWordCount -= entry.getWeight();
+        }
+        missCount++;
+        return null;
+    }
+
+    /**
+     * Caches the words, unless they are too many, or the TinyLFU policy does not admit them.
+     *
+     * @param prefix normalized prefix
+     * @param node   node of the last character of prefix, or null if there is no such node
+     * @param words  all the words starting with prefix, not to be modified afterwards if they are cached
+     * @return true if the words are cached, otherwise false, and the caller keeps the words
+     */
+    synchronized boolean put(final String prefix, final TrieNode node, final List<String> words) {
+        final Entry entry = new Entry(node, node == null ? 0 : node.getVersion(), words);
+        final Entry previousEntry = entries.remove(prefix);
+        if (previousEntry != null) {
+            cachedWordCount -= previousEntry.getWeight();
+        }
+        if (entry.getWeight() > maximumWords || (sketch != null && !isAdmitted(prefix, entry))) {
+            return false;
+        }
+
+        final Iterator<Entry> leastRecentlyUsedEntries = entries.values().iterator();
+        while (cachedWordCount + entry.getWeight() > maximumWords) {
+            cachedWordCount -= leastRecentlyUsedEntries.next().getWeight();
+            leastRecentlyUsedEntries.remove();
+        }
+        entries.put(prefix, entry);
+        cachedWordCount += entry.getWeight();
+        if (sketch != null) {
+            sketch.ensureCapacity((int) Math.min((long) entries.size() * SKETCH_KEYS_PER_ENTRY, Integer.MAX_VALUE));
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the prefix was more frequent than the prefixes of all the entries which would be evicted
+     */
+    private boolean isAdmitted(final String prefix, final Entry entry) {
+        final int frequency = sketch.frequency(prefix);
+        long freedWordCount = 0;
+        for (Map.Entry<String, Entry> victim : entries.entrySet()) {
+            if (cachedWordCount - freedWordCount + entry.getWeight() <= maximumWords) {
+                break;
+            }
+            if (sketch.frequency(victim.getKey()) >= frequency) {
+                return false;
+            }
+            freedWordCount += victim.getValue().getWeight();
+        }
+        return true;
+    }
+
+    synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return number of counters per row of the TinyLFU sketch, 0 without TinyLFU
+     */
+    synchronized int getSketchWidth() {
+        return sketch == null ? 0 : sketch.getWidth();
+    }
+
+    private static final class Entry {
+        private final TrieNode node;
+        private final int version;
+        private final List<String> words;
+
+        private Entry(final TrieNode node, final int version, final List<String> words) {
+            this.node = node;
+            this.version = version;
+            this.words = words;
+        }
+
+        private long getWeight() {
+            return words.size() + 1L;
+        }
+    }
+}
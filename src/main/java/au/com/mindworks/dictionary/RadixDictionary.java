@@ -0,0 +1,329 @@
+package au.com.mindworks.dictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Path-compressed (radix) variant of {@link Dictionary}, with the same trimming, case-insensitivity and
+ * duplicate handling.
+ * <p/>
+ * A run of characters without any branching or end of word (e.g. "igging" once "d" branches to "ad" and "og")
+ * is stored as the label of a single {@link RadixNode} rather than as one node per character, so long-tail
+ * vocabularies (URLs, SKUs, identifiers) need far fewer nodes and lookups follow far fewer pointers.
+ * addWord splits an edge when a word diverges in the middle of its label, and removeWord merges a node
+ * back into its only child once it is no longer needed.
+ */
+public class RadixDictionary {
+    private final RadixNode root = new RadixNode(new char[0]);
+    private int nodeCount = 0;
+
+    public void addAllWords(final Collection<String> wordsToAdd) {
+        for (String wordToAdd : wordsToAdd) {
+            addWord(wordToAdd);
+        }
+    }
+
+    /**
+     * Addition Algorithm
+     * <p/>
+     * 1 - if wordToAdd is blank, then return.
+     * 2 - start with root as the currentRootNode.
+     * 3 - Loop until all the characters of wordToAdd are consumed
+     * 3.1 - if currentRootNode does not have a child whose label starts with the next character, then add a child
+     * labelled with all the remaining characters, mark it as end of word, and go to 5.
+     * 3.2 - if the label of the child only partly matches the next characters, then split the child: a new node
+     * labelled with the matching part takes its place, and the child keeps the rest of its label under the new node.
+     * 3.3 - consume the characters of the label, and the child becomes the new currentRootNode.
+     * 4 - if currentRootNode is already marked as end of word, then return as the word is already in the dictionary,
+     * else mark it as end of word.
+     * 5 - Walk the path of wordToAdd again, incrementing the word count of every node on the way.
+     *
+     * @param wordToAdd
+     */
+    public void addWord(final CharSequence wordToAdd) {
+        if (wordToAdd == null) {
+            return;
+        }
+        final int start = WordNormalizer.start(wordToAdd);
+        final int end = WordNormalizer.end(wordToAdd, start);
+        if (start == end) {
+            return;
+        }
+
+        RadixNode currentRootNode = root;
+        int i = start;
+        while (i < end) {
+            final RadixNode child = currentRootNode.getChild(WordNormalizer.normalize(wordToAdd.charAt(i)));
+            if (child == null) {
+                final char[] label = new char[end - i];
+                for (int j = 0; j < label.length; j++) {
+                    label[j] = WordNormalizer.normalize(wordToAdd.charAt(i + j));
+                }
+                final RadixNode leaf = new RadixNode(label);
+                leaf.setEndOfWord(true);
+                currentRootNode.putChild(leaf);
+                nodeCount++;
+                addToWordCounts(wordToAdd, start, end, 1);
+                return;
+            }
+
+            final int matchLength = matchLength(child.getLabel(), wordToAdd, i, end);
+            if (matchLength < child.getLabel().length) {
+                split(currentRootNode, child, matchLength);
+            }
+            currentRootNode = currentRootNode.getChild(WordNormalizer.normalize(wordToAdd.charAt(i)));
+            i += matchLength;
+        }
+
+        if (currentRootNode.isEndOfWord()) {
+            return;
+        }
+        currentRootNode.setEndOfWord(true);
+        addToWordCounts(wordToAdd, start, end, 1);
+    }
+
+    /**
+     * Replaces child by a node labelled with the first labelLength characters of its label,
+     * which gets child, labelled with the rest, as its only child.
+     */
+    private void split(final RadixNode parent, final RadixNode child, final int labelLength) {
+        final char[] label = child.getLabel();
+        final RadixNode middle = new RadixNode(Arrays.copyOf(label, labelLength));
+        middle.addToWordCount(child.getWordCount());
+        // middle replaces child while both labels still start with the same character
+        parent.putChild(middle);
+        child.setLabel(Arrays.copyOfRange(label, labelLength, label.length));
+        middle.putChild(child);
+        nodeCount++;
+    }
+
+    /**
+     * Removal Algorithm
+     * <p/>
+     * 1 - if wordToRemove is not in the dictionary, then return false.
+     * 2 - Walk the path of wordToRemove again, decrementing the word count of every node on the way,
+     * and remove the "end of word" mark from the node of the word.
+     * 3 - if the node has no children, then remove it from its parent, and if the parent is now neither
+     * root, nor marked as end of word, and has only one child left, then merge the parent with that child.
+     * 4 - else if the node has only one child, then merge the node with its child.
+     * 5 - return true.
+     *
+     * @param wordToRemove
+     * @return true if the word is removed from dictionary, otherwise false (when word is not found in dictionary)
+     */
+    public boolean removeWord(final CharSequence wordToRemove) {
+        if (wordToRemove == null) {
+            return false;
+        }
+        final int start = WordNormalizer.start(wordToRemove);
+        final int end = WordNormalizer.end(wordToRemove, start);
+        if (start == end) {
+            return false;
+        }
+
+        RadixNode grandParent = null;
+        RadixNode parent = null;
+        RadixNode currentRootNode = root;
+        int i = start;
+        while (i < end) {
+            final RadixNode child = currentRootNode.getChild(WordNormalizer.normalize(wordToRemove.charAt(i)));
+            if (child == null || matchLength(child.getLabel(), wordToRemove, i, end) < child.getLabel().length) {
+                return false;
+            }
+            grandParent = parent;
+            parent = currentRootNode;
+            currentRootNode = child;
+            i += child.getLabel().length;
+        }
+        if (!currentRootNode.isEndOfWord()) {
+            return false;
+        }
+
+        addToWordCounts(wordToRemove, start, end, -1);
+        currentRootNode.setEndOfWord(false);
+        if (currentRootNode.getChildrenCount() == 0) {
+            parent.removeChild(currentRootNode.getLabel()[0]);
+            nodeCount--;
+            if (parent != root && !parent.isEndOfWord() && parent.getChildrenCount() == 1) {
+                mergeWithOnlyChild(grandParent, parent);
+            }
+        } else if (currentRootNode.getChildrenCount() == 1) {
+            mergeWithOnlyChild(parent, currentRootNode);
+        }
+        return true;
+    }
+
+    /**
+     * Replaces node by its only child, prepending the label of node to the label of the child.
+     */
+    private void mergeWithOnlyChild(final RadixNode parent, final RadixNode node) {
+        final RadixNode child = node.getChildAt(0);
+        final char[] label = Arrays.copyOf(node.getLabel(), node.getLabel().length + child.getLabel().length);
+        System.arraycopy(child.getLabel(), 0, label, node.getLabel().length, child.getLabel().length);
+        child.setLabel(label);
+        parent.putChild(child);
+        nodeCount--;
+    }
+
+    /**
+     * Adds delta to the word count of root and of every node on the path of the word, which must exist.
+     */
+    private void addToWordCounts(final CharSequence word, final int start, final int end, final int delta) {
+        RadixNode currentRootNode = root;
+        currentRootNode.addToWordCount(delta);
+        for (int i = start; i < end; i += currentRootNode.getLabel().length) {
+            currentRootNode = currentRootNode.getChild(WordNormalizer.normalize(word.charAt(i)));
+            currentRootNode.addToWordCount(delta);
+        }
+    }
+
+    public int size() {
+        return root.getWordCount();
+    }
+
+    /**
+     * @return number of nodes in the trie, excluding the root
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @param wordToSearch
+     * @return true if the wordToSearch is found in dictionary, otherwise return false
+     */
+    public boolean searchWord(final CharSequence wordToSearch) {
+        if (wordToSearch == null) {
+            return false;
+        }
+        final int start = WordNormalizer.start(wordToSearch);
+        final int end = WordNormalizer.end(wordToSearch, start);
+        if (start == end) {
+            return false;
+        }
+
+        RadixNode currentRootNode = root;
+        for (int i = start; i < end; i += currentRootNode.getLabel().length) {
+            currentRootNode = currentRootNode.getChild(WordNormalizer.normalize(wordToSearch.charAt(i)));
+            if (currentRootNode == null || matchLength(currentRootNode.getLabel(), wordToSearch, i, end) < currentRootNode.getLabel().length) {
+                return false;
+            }
+        }
+        return currentRootNode.isEndOfWord();
+    }
+
+    /**
+     * @param prefix
+     * @return number of words in dictionary if prefix is blank, otherwise number of words starting with prefix
+     */
+    public int countWordsStartingWith(final CharSequence prefix) {
+        if (prefix == null) {
+            return size();
+        }
+        final int start = WordNormalizer.start(prefix);
+        final int end = WordNormalizer.end(prefix, start);
+
+        final RadixNode node = findNodeCovering(prefix, start, end);
+        return node == null ? 0 : node.getWordCount();
+    }
+
+    public List<String> searchAllWords() {
+        return searchAllWordsStartingWith(null);
+    }
+
+    /**
+     * @param prefix
+     * @return list of all the words in dictionary if prefix is blank, otherwise all words starting with prefix,
+     * in lexicographical order
+     */
+    public List<String> searchAllWordsStartingWith(final CharSequence prefix) {
+        final int start = prefix == null ? 0 : WordNormalizer.start(prefix);
+        final int end = prefix == null ? 0 : WordNormalizer.end(prefix, start);
+        final RadixNode node = findNodeCovering(prefix, start, end);
+        if (node == null) {
+            return new ArrayList<String>();
+        }
+
+        // the prefix may end in the middle of the label of node, whose words all start with the whole label
+        final StringBuilder word = new StringBuilder();
+        int labelsLength = 0;
+        RadixNode currentRootNode = root;
+        while (currentRootNode != node) {
+            currentRootNode = currentRootNode.getChild(WordNormalizer.normalize(prefix.charAt(start + labelsLength)));
+            word.append(currentRootNode.getLabel());
+            labelsLength += currentRootNode.getLabel().length;
+        }
+
+        final List<String> listOfFoundWordsWithPrefix = new ArrayList<String>(node.getWordCount());
+        searchAllWords(node, word, listOfFoundWordsWithPrefix);
+        return listOfFoundWordsWithPrefix;
+    }
+
+    /**
+     * Same walk as {@link WordIterator}, appending and truncating whole labels.
+     */
+    private static void searchAllWords(final RadixNode baseNode, final StringBuilder word, final List<String> listOfFoundWords) {
+        RadixNode[] nodes = new RadixNode[16];
+        int[] nextIndexes = new int[16];
+        int depth = 0;
+
+        if (baseNode.isEndOfWord()) {
+            listOfFoundWords.add(word.toString());
+        }
+        nodes[depth++] = baseNode;
+        while (depth > 0) {
+            final RadixNode node = nodes[depth - 1];
+            final int index = nextIndexes[depth - 1];
+            if (index == node.getChildrenCount()) {
+                depth--;
+                if (depth > 0) {
+                    word.setLength(word.length() - node.getLabel().length);
+                }
+                continue;
+            }
+            nextIndexes[depth - 1] = index + 1;
+
+            final RadixNode child = node.getChildAt(index);
+            word.append(child.getLabel());
+            if (child.isEndOfWord()) {
+                listOfFoundWords.add(word.toString());
+            }
+            if (depth == nodes.length) {
+                nodes = Arrays.copyOf(nodes, depth * 2);
+                nextIndexes = Arrays.copyOf(nextIndexes, depth * 2);
+            }
+            nodes[depth] = child;
+            nextIndexes[depth] = 0;
+            depth++;
+        }
+    }
+
+    /**
+     * @return the first node whose path from root covers the whole word (root if the word is blank),
+     * or null if no word of the dictionary starts with the word
+     */
+    private RadixNode findNodeCovering(final CharSequence word, final int start, final int end) {
+        RadixNode currentRootNode = root;
+        for (int i = start; i < end; i += currentRootNode.getLabel().length) {
+            currentRootNode = currentRootNode.getChild(WordNormalizer.normalize(word.charAt(i)));
+            if (currentRootNode == null || matchLength(currentRootNode.getLabel(), word, i, end) < Math.min(currentRootNode.getLabel().length, end - i)) {
+                return null;
+            }
+        }
+        return currentRootNode;
+    }
+
+    /**
+     * @return number of leading characters of label matching the normalized characters of word from start to end
+     */
+    private static int matchLength(final char[] label, final CharSequence word, final int start, final int end) {
+        final int maxLength = Math.min(label.length, end - start);
+        int length = 0;
+        while (length < maxLength && label[length] == WordNormalizer.normalize(word.charAt(start + length))) {
+            length++;
+        }
+        return length;
+    }
+}
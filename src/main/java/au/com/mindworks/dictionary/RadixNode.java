@@ -0,0 +1,113 @@
+package au.com.mindworks.dictionary;
+
+import java.util.Arrays;
+
+/**
+ * Node of {@link RadixDictionary}: the edge from its parent carries a whole run of characters (the label),
+ * instead of a single character.
+ * <p/>
+ * Children are kept in an array sorted by the first character of their labels, which is distinct among the
+ * children of a node, so no separate keys are stored.
+ */
+final class RadixNode {
+    private static final RadixNode[] NO_CHILDREN = new RadixNode[0];
+
+    private char[] label;
+    private boolean endOfWord = false;
+    private int wordCount = 0;
+    private RadixNode[] children = NO_CHILDREN;
+    private int childrenCount = 0;
+
+    RadixNode(final char[] label) {
+        this.label = label;
+    }
+
+    char[] getLabel() {
+        return label;
+    }
+
+    void setLabel(final char[] label) {
+        this.label = label;
+    }
+
+    boolean isEndOfWord() {
+        return endOfWord;
+    }
+
+    void setEndOfWord(final boolean endOfWord) {
+        this.endOfWord = endOfWord;
+    }
+
+    int getWordCount() {
+        return wordCount;
+    }
+
+    void addToWordCount(final int delta) {
+        wordCount += delta;
+    }
+
+    int getChildrenCount() {
+        return childrenCount;
+    }
+
+    RadixNode getChildAt(final int index) {
+        return children[index];
+    }
+
+    /**
+     * @return the child whose label starts with the character, or null if there is no such child
+     */
+    RadixNode getChild(final char firstCharacter) {
+        final int index = indexOf(firstCharacter);
+        return index < 0 ? null : children[index];
+    }
+
+    /**
+     * Adds the child, replacing the child whose label starts with the same character if any.
+     */
+    void putChild(final RadixNode child) {
+        int index = indexOf(child.label[0]);
+        if (index >= 0) {
+            children[index] = child;
+            return;
+        }
+
+        index = -(index + 1);
+        if (childrenCount == children.length) {
+            children = Arrays.copyOf(children, childrenCount + (childrenCount >> 1) + 1);
+        }
+        System.arraycopy(children, index, children, index + 1, childrenCount - index);
+        children[index] = child;
+        childrenCount++;
+    }
+
+    void removeChild(final char firstCharacter) {
+        final int index = indexOf(firstCharacter);
+        if (index < 0) {
+            return;
+        }
+        childrenCount--;
+        System.arraycopy(children, index + 1, children, index, childrenCount - index);
+        children[childrenCount] = null;
+        if (childrenCount == 0) {
+            children = NO_CHILDREN;
+        }
+    }
+
+    private int indexOf(final char firstCharacter) {
+        int low = 0;
+        int high = childrenCount - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final char key = children[middle].label[0];
+            if (key < firstCharacter) {
+                low = middle + 1;
+            } else if (key > firstCharacter) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+}
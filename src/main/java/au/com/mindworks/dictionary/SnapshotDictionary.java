@@ -0,0 +1,420 @@
+package au.com.mindworks.dictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe variant of {@link Dictionary} made of immutable {@link DictionarySnapshot}s, with the same trimming,
+ * case-insensitivity and duplicate handling.
+ * <p/>
+ * Each mutation batch builds the next snapshot by copying the nodes on the paths of the words it changes
+ * (see {@link PersistentTrieNode}), and publishes it atomically. All the other nodes are shared with the previous
+ * snapshot. Readers take no locks: they read the current snapshot, or keep one with {@link #snapshot()} to make
+ * several consistent queries.
+ * <p/>
+ * The trie is sharded by the first character of the words, and a batch locks the shards it touches, in ascending
+ * order, so batches touching different shards are built in parallel. Publishing only swaps the roots of the shards
+ * of the batch into the current snapshot with a compare-and-set, which is retried if another batch was published
+ * meanwhile.
+ * <p/>
+ * Reloading with {@link #replaceAllWords(Collection)} applies the difference with the current words as one batch,
+ * so it only allocates nodes for the changed words instead of a second full trie. The difference is found by
+ * merging the sorted new words with the words of the trie as it is walked, so the current words are not listed.
+ */
+public class SnapshotDictionary {
+    static final int SHARD_COUNT = 64;
+
+    private final AtomicReference<DictionarySnapshot> current = new AtomicReference<DictionarySnapshot>(DictionarySnapshot.empty());
+    private final ReentrantLock[] shardLocks = new ReentrantLock[SHARD_COUNT];
+
+    public SnapshotDictionary() {
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shardLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * @return the current snapshot, which never changes afterwards
+     */
+    public DictionarySnapshot snapshot() {
+        return current.get();
+    }
+
+    public void addAllWords(final Collection<? extends CharSequence> wordsToAdd) {
+        applyBatch(wordsToAdd, Collections.<CharSequence>emptyList());
+    }
+
+    public void addWord(final CharSequence wordToAdd) {
+        applyBatch(Collections.singletonList(wordToAdd), Collections.<CharSequence>emptyList());
+    }
+
+    /**
+     * @param wordToRemove
+     * @return true if the word is removed from dictionary, otherwise false (when word is not found in dictionary)
+     */
+    public boolean removeWord(final CharSequence wordToRemove) {
+        final Batch batch = new Batch();
+        applyBatch(Collections.<CharSequence>emptyList(), Collections.singletonList(wordToRemove), batch);
+        return batch.sizeDelta != 0;
+    }
+
+    /**
+     * Apply Batch Algorithm:
+     * 1. Normalize the words and group them by shard.
+     * 2. Lock the shards of the words in ascending order.
+     * 3. Build the new root of each of these shards from the current one, adding the words to add and then
+     * removing the words to remove, copying each node on their paths at most once.
+     * 4. Publish a snapshot made of the current snapshot with the new shard roots.
+     * 5. Unlock the shards.
+     *
+     * @param wordsToAdd    null and blank words are ignored, as well as the words already in dictionary
+     * @param wordsToRemove null and blank words are ignored, as well as the words not in dictionary
+     * @return the snapshot published by the batch, which may include the changes of concurrent batches
+     */
+    public DictionarySnapshot applyBatch(final Collection<? extends CharSequence> wordsToAdd,
+                                         final Collection<? extends CharSequence> wordsToRemove) {
+        return applyBatch(wordsToAdd, wordsToRemove, new Batch());
+    }
+
+    /**
+     * Replace All Words Algorithm:
+     * 1. Normalize wordsToKeep, group them by shard, and sort each group.
+     * 2. Lock all the shards.
+     * 3. Walk each shard of the current snapshot in lexicographical order, advancing in the sorted words to keep
+     * along the way: the words of the shard which are not reached in the words to keep are the words to remove.
+     * 4. Publish a snapshot adding the words to keep, which skips the ones already in dictionary, and removing
+     * the words to remove, as in {@link #applyBatch(Collection, Collection)}.
+     * 5. Unlock the shards.
+     *
+     * @param wordsToKeep
+     * @return the snapshot published by the batch
+     */
+    public DictionarySnapshot replaceAllWords(final Collection<? extends CharSequence> wordsToKeep) {
+        final List<String>[] additionsPerShard = groupByShard(wordsToKeep);
+        for (List<String> additions : additionsPerShard) {
+            if (additions != null) {
+                Collections.sort(additions);
+            }
+        }
+
+        final boolean[] touchedShards = new boolean[SHARD_COUNT];
+        Arrays.fill(touchedShards, true);
+        lockShards(touchedShards);
+        try {
+            final DictionarySnapshot base = current.get();
+            final List<String>[] removalsPerShard = newListsPerShard();
+            for (int shard = 0; shard < SHARD_COUNT; shard++) {
+                final List<String> additions = additionsPerShard[shard];
+                final RemovedWordsFinder finder = new RemovedWordsFinder(
+                        additions == null ? Collections.<String>emptyList() : additions);
+                finder.findRemovedWords(base.getShardRoot(shard));
+                if (!finder.removedWords.isEmpty()) {
+                    removalsPerShard[shard] = finder.removedWords;
+                }
+            }
+            return publish(additionsPerShard, removalsPerShard, touchedShards, new Batch());
+        } finally {
+            unlockShards(touchedShards);
+        }
+    }
+
+    private DictionarySnapshot applyBatch(final Collection<? extends CharSequence> wordsToAdd,
+                                          final Collection<? extends CharSequence> wordsToRemove, final Batch batch) {
+        final List<String>[] additionsPerShard = groupByShard(wordsToAdd);
+        final List<String>[] removalsPerShard = groupByShard(wordsToRemove);
+        final boolean[] touchedShards = new boolean[SHARD_COUNT];
+        boolean touchesAnyShard = false;
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            touchedShards[shard] = additionsPerShard[shard] != null || removalsPerShard[shard] != null;
+            touchesAnyShard |= touchedShards[shard];
+        }
+        if (!touchesAnyShard) {
+            return current.get();
+        }
+
+        lockShards(touchedShards);
+        try {
+            return publish(additionsPerShard, removalsPerShard, touchedShards, batch);
+        } finally {
+            unlockShards(touchedShards);
+        }
+    }
+
+    /**
+     * Must be called holding the locks of the touched shards: no other batch can change their roots until
+     * the new snapshot is published, so only the other shards may differ between the snapshot the new roots
+     * are built from and the snapshot they are published into.
+     */
+    private DictionarySnapshot publish(final List<String>[] additionsPerShard, final List<String>[] removalsPerShard,
+                                       final boolean[] touchedShards, final Batch batch) {
+        final DictionarySnapshot base = current.get();
+        final PersistentTrieNode[] newShardRoots = new PersistentTrieNode[SHARD_COUNT];
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            if (!touchedShards[shard]) {
+                continue;
+            }
+            PersistentTrieNode shardRoot = base.getShardRoot(shard);
+            if (additionsPerShard[shard] != null) {
+                for (String wordToAdd : additionsPerShard[shard]) {
+                    shardRoot = addWord(shardRoot, wordToAdd, batch);
+                }
+            }
+            if (removalsPerShard[shard] != null) {
+                for (String wordToRemove : removalsPerShard[shard]) {
+                    shardRoot = removeWord(shardRoot, wordToRemove, batch);
+                }
+            }
+            newShardRoots[shard] = shardRoot;
+        }
+        if (batch.sizeDelta == 0 && !batch.changedNodes) {
+            return base;
+        }
+
+        while (true) {
+            final DictionarySnapshot snapshot = current.get();
+            final PersistentTrieNode[] shardRoots = snapshot.copyShardRoots();
+            for (int shard = 0; shard < SHARD_COUNT; shard++) {
+                if (touchedShards[shard]) {
+                    shardRoots[shard] = newShardRoots[shard];
+                }
+            }
+            final DictionarySnapshot newSnapshot = new DictionarySnapshot(shardRoots, snapshot.size() + batch.sizeDelta,
+                    snapshot.getVersion() + 1);
+            if (current.compareAndSet(snapshot, newSnapshot)) {
+                return newSnapshot;
+            }
+        }
+    }
+
+    private static PersistentTrieNode addWord(final PersistentTrieNode shardRoot, final String word, final Batch batch) {
+        if (isEndOfWord(shardRoot, word)) {
+            return shardRoot;
+        }
+
+        final PersistentTrieNode newShardRoot = shardRoot.editableBy(batch);
+        newShardRoot.addToWordCount(1);
+        PersistentTrieNode currentRootNode = newShardRoot;
+        for (int i = 0; i < word.length(); i++) {
+            final char character = word.charAt(i);
+            final PersistentTrieNode child = currentRootNode.getChild(character);
+            final PersistentTrieNode newChild = child == null ? new PersistentTrieNode(batch) : child.editableBy(batch);
+            if (newChild != child) {
+                currentRootNode.putChild(character, newChild);
+            }
+            newChild.addToWordCount(1);
+            currentRootNode = newChild;
+        }
+        currentRootNode.setEndOfWord(true);
+        batch.sizeDelta++;
+        batch.changedNodes = true;
+        return newShardRoot;
+    }
+
+    /**
+     * A child left without words is removed with its whole subtree, which then only holds that word.
+     */
+    private static PersistentTrieNode removeWord(final PersistentTrieNode shardRoot, final String word, final Batch batch) {
+        if (!isEndOfWord(shardRoot, word)) {
+            return shardRoot;
+        }
+
+        final PersistentTrieNode newShardRoot = shardRoot.editableBy(batch);
+        newShardRoot.addToWordCount(-1);
+        batch.sizeDelta--;
+        batch.changedNodes = true;
+        PersistentTrieNode currentRootNode = newShardRoot;
+        for (int i = 0; i < word.length(); i++) {
+            final char character = word.charAt(i);
+            final PersistentTrieNode child = currentRootNode.getChild(character);
+            if (child.getWordCount() == 1) {
+                currentRootNode.removeChild(character);
+                return newShardRoot;
+            }
+            final PersistentTrieNode newChild = child.editableBy(batch);
+            if (newChild != child) {
+                currentRootNode.putChild(character, newChild);
+            }
+            newChild.addToWordCount(-1);
+            currentRootNode = newChild;
+        }
+        currentRootNode.setEndOfWord(false);
+        return newShardRoot;
+    }
+
+    private static boolean isEndOfWord(final PersistentTrieNode shardRoot, final String word) {
+        PersistentTrieNode currentRootNode = shardRoot;
+        for (int i = 0; i < word.length() && currentRootNode != null; i++) {
+            currentRootNode = currentRootNode.getChild(word.charAt(i));
+        }
+        return currentRootNode != null && currentRootNode.isEndOfWord();
+    }
+
+    /**
+     * @return normalized words per shard, null for the shards without words
+     */
+    private static List<String>[] groupByShard(final Collection<? extends CharSequence> words) {
+        final List<String>[] wordsPerShard = newListsPerShard();
+        for (CharSequence word : words) {
+            if (word == null) {
+                continue;
+            }
+            final int start = WordNormalizer.start(word);
+            final int end = WordNormalizer.end(word, start);
+            if (start == end) {
+                continue;
+            }
+
+            final char[] normalizedWord = new char[end - start];
+            for (int i = start; i < end; i++) {
+                normalizedWord[i - start] = WordNormalizer.normalize(word.charAt(i));
+            }
+            final int shard = DictionarySnapshot.shardOf(normalizedWord[0]);
+            if (wordsPerShard[shard] == null) {
+                wordsPerShard[shard] = new ArrayList<String>();
+            }
+            wordsPerShard[shard].add(new String(normalizedWord));
+        }
+        return wordsPerShard;
+    }
+
+    /**
+     * @return array of SHARD_COUNT null lists
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<String>[] newListsPerShard() {
+        return new List[SHARD_COUNT];
+    }
+
+    private void lockShards(final boolean[] touchedShards) {
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            if (touchedShards[shard]) {
+                shardLocks[shard].lock();
+            }
+        }
+    }
+
+    private void unlockShards(final boolean[] touchedShards) {
+        for (int shard = SHARD_COUNT - 1; shard >= 0; shard--) {
+            if (touchedShards[shard]) {
+                shardLocks[shard].unlock();
+            }
+        }
+    }
+
+    public int size() {
+        return current.get().size();
+    }
+
+    /**
+     * Lock-free, on the current snapshot.
+     *
+     * @param wordToSearch
+     * @return true if the wordToSearch is found in dictionary, otherwise return false
+     */
+    public boolean searchWord(final CharSequence wordToSearch) {
+        return current.get().searchWord(wordToSearch);
+    }
+
+    public int countWordsStartingWith(final CharSequence prefix) {
+        return current.get().countWordsStartingWith(prefix);
+    }
+
+    public List<String> searchAllWords() {
+        return current.get().searchAllWords();
+    }
+
+    /**
+     * Lock-free, on the current snapshot.
+     *
+     * @param prefix
+     * @return list of all the words in dictionary if prefix is blank, otherwise all words starting with prefix,
+     * in lexicographical order
+     */
+    public List<String> searchAllWordsStartingWith(final CharSequence prefix) {
+        return current.get().searchAllWordsStartingWith(prefix);
+    }
+
+    /**
+     * Walks a shard depth first, in lexicographical order, keeping the word of the current node in a buffer, and
+     * advances in the sorted words to keep up to that word. Only the words of the shard which are not kept are
+     * turned into strings. Same walk as {@link DictionarySnapshot#searchAllWords()}, with an explicit stack so that
+     * long words do not need a deep call stack.
+     */
+    private static final class RemovedWordsFinder {
+        private final List<String> sortedWordsToKeep;
+        private final StringBuilder word = new StringBuilder();
+        private final List<String> removedWords = new ArrayList<String>();
+        private int nextWordToKeep;
+
+        private RemovedWordsFinder(final List<String> sortedWordsToKeep) {
+            this.sortedWordsToKeep = sortedWordsToKeep;
+        }
+
+        private void findRemovedWords(final PersistentTrieNode shardRoot) {
+            PersistentTrieNode[] nodes = new PersistentTrieNode[16];
+            int[] nextIndexes = new int[16];
+            int depth = 0;
+
+            nodes[depth++] = shardRoot;
+            while (depth > 0) {
+                final PersistentTrieNode node = nodes[depth - 1];
+                final int index = nextIndexes[depth - 1];
+                if (index == node.getChildrenCount()) {
+                    depth--;
+                    if (depth > 0) {
+                        word.setLength(word.length() - 1);
+                    }
+                    continue;
+                }
+                nextIndexes[depth - 1] = index + 1;
+
+                final PersistentTrieNode child = node.getChildAt(index);
+                word.append(node.getChildCharacterAt(index));
+                if (child.isEndOfWord() && !isKept()) {
+                    removedWords.add(word.toString());
+                }
+                if (depth == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, depth * 2);
+                    nextIndexes = Arrays.copyOf(nextIndexes, depth * 2);
+                }
+                nodes[depth] = child;
+                nextIndexes[depth] = 0;
+                depth++;
+            }
+        }
+
+        private boolean isKept() {
+            while (nextWordToKeep < sortedWordsToKeep.size()) {
+                final int comparison = compare(sortedWordsToKeep.get(nextWordToKeep), word);
+                if (comparison >= 0) {
+                    return comparison == 0;
+                }
+                nextWordToKeep++;
+            }
+            return false;
+        }
+
+        private static int compare(final String first, final CharSequence second) {
+            final int length = Math.min(first.length(), second.length());
+            for (int i = 0; i < length; i++) {
+                if (first.charAt(i) != second.charAt(i)) {
+                    return first.charAt(i) - second.charAt(i);
+                }
+            }
+            return first.length() - second.length();
+        }
+    }
+
+    /**
+     * Owner of the nodes created by a batch, which also counts its changes.
+     */
+    private static final class Batch {
+        private int sizeDelta;
+        private boolean changedNodes;
+    }
+}
@@ -0,0 +1,134 @@
+package au.com.mindworks.dictionary;
+
+import java.util.Arrays;
+
+/**
+ * Child storage for small fan-out: parallel {@code char[]} and {@code TrieNode[]} arrays kept sorted by key.
+ * <p/>
+ * Upgrades itself to {@link DenseTrieNodeChildren} once it holds {@link #DENSE_THRESHOLD} children which
+ * are all ASCII lower case letters, and falls back to {@link EmptyTrieNodeChildren} when the last child is removed.
+ */
+final class SparseTrieNodeChildren extends TrieNodeChildren {
+    static final int DENSE_THRESHOLD = 10;
+
+    private static final int INITIAL_CAPACITY = 1;
+
+    private int size;
+    private char[] keys;
+    private TrieNode[] children;
+
+    SparseTrieNodeChildren() {
+        this(INITIAL_CAPACITY);
+    }
+
+    SparseTrieNodeChildren(final int capacity) {
+        keys = new char[capacity];
+        children = new TrieNode[capacity];
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    TrieNode get(final char character) {
+        final int index = indexOf(character);
+        return index < 0 ? null : children[index];
+    }
+
+    @Override
+    TrieNodeChildren put(final char character, final TrieNode child) {
+        int index = indexOf(character);
+        if (index >= 0) {
+            children[index] = child;
+            return this;
+        }
+
+        if (size + 1 >= DENSE_THRESHOLD && isLowerCaseLetter(character) && areAllKeysLowerCaseLetters()) {
+            return toDense().put(character, child);
+        }
+
+        index = -(index + 1);
+        if (size == keys.length) {
+            final int newCapacity = size + (size >> 1) + 1;
+            keys = Arrays.copyOf(keys, newCapacity);
+            children = Arrays.copyOf(children, newCapacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(children, index, children, index + 1, size - index);
+        keys[index] = character;
+        children[index] = child;
+        size++;
+        return this;
+    }
+
+    @Override
+    TrieNodeChildren remove(final char character) {
+        final int index = indexOf(character);
+        if (index < 0) {
+            return this;
+        }
+        if (size == 1) {
+            return EmptyTrieNodeChildren.INSTANCE;
+        }
+
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(children, index + 1, children, index, size - index - 1);
+        size--;
+        children[size] = null;
+        return this;
+    }
+
+    /**
+     * Adds a child whose key is greater than all the existing keys, without any upgrade to the dense storage.
+     * The capacity given at construction time must be large enough.
+     */
+    void append(final char character, final TrieNode child) {
+        keys[size] = character;
+        children[size] = child;
+        size++;
+    }
+
+    @Override
+    int getSlotCount() {
+        return size;
+    }
+
+    @Override
+    char getKeyAt(final int slot) {
+        return keys[slot];
+    }
+
+    @Override
+    TrieNode getChildAt(final int slot) {
+        return children[slot];
+    }
+
+    @Override
+    long estimatedBytes() {
+        // header, size, keys and children
+        return 24 + arrayBytes(keys.length, 2) + arrayBytes(children.length, 4);
+    }
+
+    private int indexOf(final char character) {
+        return Arrays.binarySearch(keys, 0, size, character);
+    }
+
+    private boolean areAllKeysLowerCaseLetters() {
+        // keys are sorted, so checking both ends is enough
+        return size == 0 || (isLowerCaseLetter(keys[0]) && isLowerCaseLetter(keys[size - 1]));
+    }
+
+    private TrieNodeChildren toDense() {
+        final DenseTrieNodeChildren dense = new DenseTrieNodeChildren();
+        for (int i = 0; i < size; i++) {
+            dense.put(keys[i], children[i]);
+        }
+        return dense;
+    }
+
+    static boolean isLowerCaseLetter(final char character) {
+        return character >= 'a' && character <= 'z';
+    }
+}
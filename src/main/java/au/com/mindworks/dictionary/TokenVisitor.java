@@ -0,0 +1,17 @@
+package au.com.mindworks.dictionary;
+
+import java.nio.CharBuffer;
+
+/**
+ * Notified of the tokens of a text searched with {@link Dictionary#searchTokens(CharBuffer, TokenVisitor)}.
+ */
+public interface TokenVisitor {
+
+    /**
+     * @param text  the searched text, the token is not copied out of it
+     * @param start absolute index of the first character of the token in text
+     * @param end   absolute index after the last character of the token in text
+     * @param found true if the token is found in dictionary
+     */
+    void visitToken(CharBuffer text, int start, int end, boolean found);
+}
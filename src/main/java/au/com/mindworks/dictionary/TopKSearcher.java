@@ -0,0 +1,89 @@
+package au.com.mindworks.dictionary;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Best-first search of the k highest weighted words of a subtree.
+ * <p/>
+ * The queue holds both nodes, prioritized by the highest weight in their subtree ({@link TrieNode#getMaxWeight()}),
+ * and words, prioritized by their own weight. As no word of a subtree can weigh more than its node, a word taken
+ * from the queue weighs at least as much as any word not found yet, so the search stops after k words, having
+ * expanded only the nodes on the paths to them and their siblings, whatever the size of the subtree.
+ * <p/>
+ * Equal weights are broken in lexicographical order, which is consistent because the words of a subtree
+ * never sort before its prefix.
+ */
+final class TopKSearcher {
+    private static final Comparator<Candidate> BEST_FIRST = new Comparator<Candidate>() {
+        @Override
+        public int compare(final Candidate first, final Candidate second) {
+            if (first.priority != second.priority) {
+                return first.priority > second.priority ? -1 : 1;
+            }
+            final int textComparison = first.text.compareTo(second.text);
+            if (textComparison != 0) {
+                return textComparison;
+            }
+            return first.node == null ? (second.node == null ? 0 : -1) : (second.node == null ? 1 : 0);
+        }
+    };
+
+    private TopKSearcher() {
+    }
+
+    /**
+     * @param baseNode node of the last character of prefix
+     * @param prefix   normalized prefix which all the words start with
+     * @param k
+     * @return at most k words of the subtree, highest weight first
+     */
+    static List<String> search(final TrieNode baseNode, final String prefix, final int k) {
+        final List<String> topWords = new ArrayList<String>(Math.min(k, baseNode.getWordCount()));
+        if (k == 0) {
+            return topWords;
+        }
+
+        final PriorityQueue<Candidate> queue = new PriorityQueue<Candidate>(16, BEST_FIRST);
+        queue.add(new Candidate(baseNode, prefix, baseNode.getMaxWeight()));
+        while (!queue.isEmpty()) {
+            final Candidate candidate = queue.poll();
+            if (candidate.node == null) {
+                topWords.add(candidate.text);
+                if (topWords.size() == k) {
+                    break;
+                }
+                continue;
+            }
+
+            final TrieNode node = candidate.node;
+            if (node.isEndOfWord()) {
+                queue.add(new Candidate(null, candidate.text, node.getWeight()));
+            }
+            for (int slot = 0; slot < node.getChildSlotCount(); slot++) {
+                final TrieNode child = node.getChildAt(slot);
+                if (child != null) {
+                    queue.add(new Candidate(child, candidate.text + node.getChildCharacterAt(slot), child.getMaxWeight()));
+                }
+            }
+        }
+        return topWords;
+    }
+
+    /**
+     * A subtree (node is not null) or a word (node is null).
+     */
+    private static final class Candidate {
+        private final TrieNode node;
+        private final String text;
+        private final int priority;
+
+        private Candidate(final TrieNode node, final String text, final int priority) {
+            this.node = node;
+            this.text = text;
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package au.com.mindworks.dictionary;
+
+/**
+ * What a node of a {@link UnicodeDictionary} is keyed by. Both encodings enumerate words in code point order.
+ */
+public enum TrieKeyEncoding {
+    /**
+     * One node per code point, so surrogate pairs are never split across nodes. Fan-out is unbounded,
+     * children are kept in sorted arrays.
+     */
+    CODE_POINTS,
+    /**
+     * One node per byte of the UTF-8 encoding of the code points, so fan-out is at most 256: nodes with many
+     * children use a 256 slot table. Words of non-Latin scripts take 2 to 4 nodes per code point, but share
+     * the nodes of their leading bytes, e.g. of their script block.
+     */
+    UTF8_BYTES
+}
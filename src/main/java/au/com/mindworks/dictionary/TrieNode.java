@@ -1,11 +1,18 @@
 package au.com.mindworks.dictionary;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public class TrieNode {
+    /**
+     * Estimated size of a node, excluding its children: 12 bytes of header, a boolean, 4 ints and a reference,
+     * padded to 8 bytes, assuming a 64-bit JVM with compressed references.
+     */
+    static final int SHALLOW_BYTES = 40;
+
     private boolean endOfWord = false;
-    private Map<Character, TrieNode> children = new HashMap();
+    private int wordCount = 0;
+    private int weight = 0;
+    private int maxWeight = 0;
+    private int version = 0;
+    private TrieNodeChildren children = EmptyTrieNodeChildren.INSTANCE;
 
     public boolean hasChildren() {
         return children.size() > 0;
@@ -15,27 +22,111 @@ public class TrieNode {
         return endOfWord;
     }
 
-    public Map<Character, TrieNode> getChildren() {
-        return children;
+    /**
+     * @return number of words ending at this node or at any of its descendants
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    void addToWordCount(final int delta) {
+        wordCount += delta;
+        version++;
+    }
+
+    /**
+     * @return number of times words were added below or removed from below this node, so that results computed
+     * from the subtree can be told apart from results computed before it last changed
+     */
+    int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return weight of the word ending at this node, 0 for words added without a weight
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    void setWeight(final int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * @return highest weight of the words ending at this node or at any of its descendants
+     */
+    public int getMaxWeight() {
+        return maxWeight;
+    }
+
+    void setMaxWeight(final int maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    public int getChildrenCount() {
+        return children.size();
     }
 
     public void setEndOfWord(final boolean endOfWord) {
         this.endOfWord = endOfWord;
     }
 
-    public boolean hasChild(final Character character) {
-        return children.containsKey(character);
+    public boolean hasChild(final char character) {
+        return children.get(character) != null;
     }
 
-    public TrieNode getChild(final Character character) {
+    public TrieNode getChild(final char character) {
         return children.get(character);
     }
 
-    public void removeChild(final Character character) {
-        children.remove(character);
+    public void removeChild(final char character) {
+        children = children.remove(character);
+    }
+
+    public TrieNode addChild(final char character) {
+        final TrieNode child = new TrieNode();
+        children = children.put(character, child);
+        return child;
+    }
+
+    /**
+     * Grafts an existing subtree as the child for the character, replacing any existing child.
+     */
+    void addChild(final char character, final TrieNode child) {
+        children = children.put(character, child);
+    }
+
+    TrieNodeChildren getChildren() {
+        return children;
+    }
+
+    /**
+     * Children are walked by slot, in ascending order of their characters:
+     * <pre>
+     * for (int slot = 0; slot &lt; node.getChildSlotCount(); slot++) {
+     *     final TrieNode child = node.getChildAt(slot);
+     *     if (child != null) {
+     *         ... node.getChildCharacterAt(slot) ...
+     *     }
+     * }
+     * </pre>
+     *
+     * @return number of slots of the current child storage, which may be larger than the number of children
+     */
+    public int getChildSlotCount() {
+        return children.getSlotCount();
+    }
+
+    public char getChildCharacterAt(final int slot) {
+        return children.getKeyAt(slot);
     }
 
-    public void addChild(final Character firstCharacter) {
-        children.put(firstCharacter, new TrieNode());
+    /**
+     * @param slot
+     * @return the child in the slot, or null if the slot is not occupied
+     */
+    public TrieNode getChildAt(final int slot) {
+        return children.getChildAt(slot);
     }
-}
\ No newline at end of file
+}
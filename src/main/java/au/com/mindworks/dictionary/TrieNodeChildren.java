@@ -0,0 +1,49 @@
+package au.com.mindworks.dictionary;
+
+/**
+ * Child storage strategy of a {@link TrieNode}.
+ * <p/>
+ * Implementations are keyed by primitive {@code char}s (no boxing), keep their keys in ascending order and
+ * are free to hand back a different (better suited) implementation whenever a child is added or removed,
+ * which is how a node switches between the empty sentinel, the sparse sorted arrays and the dense table
+ * as its fan-out changes.
+ * <p/>
+ * Children are exposed through "slots" rather than through a collection, so that callers can walk them
+ * without allocating: a slot is an index in {@code [0, getSlotCount())} and {@link #getChildAt(int)} returns
+ * null for slots which are not occupied.
+ */
+abstract class TrieNodeChildren {
+
+    abstract int size();
+
+    abstract TrieNode get(char character);
+
+    /**
+     * @return the storage to be used from now on, which may or may not be this instance
+     */
+    abstract TrieNodeChildren put(char character, TrieNode child);
+
+    /**
+     * @return the storage to be used from now on, which may or may not be this instance
+     */
+    abstract TrieNodeChildren remove(char character);
+
+    abstract int getSlotCount();
+
+    abstract char getKeyAt(int slot);
+
+    abstract TrieNode getChildAt(int slot);
+
+    /**
+     * @return shallow size of the storage, i.e. of its object and arrays but not of the children,
+     * see {@link TrieNode#SHALLOW_BYTES} for the assumed object layout
+     */
+    abstract long estimatedBytes();
+
+    /**
+     * @return size of an array, including its header and padding to 8 bytes
+     */
+    static long arrayBytes(final int length, final int elementBytes) {
+        return (16L + (long) length * elementBytes + 7) & ~7L;
+    }
+}
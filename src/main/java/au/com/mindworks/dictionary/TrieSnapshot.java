@@ -0,0 +1,260 @@
+package au.com.mindworks.dictionary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Binary, pointer-free layout of a trie, written by {@link Dictionary#save(Path)} and read by
+ * {@link Dictionary#load(Path)} and {@link MappedDictionary}.
+ * <p/>
+ * All numbers are big-endian. The file starts with a header:
+ * <pre>
+ * int magic ("DTRI"), int version, int word count, int node count (excluding root), int offset of root record
+ * </pre>
+ * followed by one record per node, children always being written before their parent:
+ * <pre>
+ * int   word count of the subtree
+ * int   children count &lt;&lt; 1 | end of word flag
+ * char  key of each child, in ascending order
+ * int   offset of the record of each child, in the same order
+ * </pre>
+ * Offsets are relative to the start of the file, which is limited to 2GB so it can be mapped as a single buffer.
+ */
+final class TrieSnapshot {
+    static final int MAGIC = 0x44545249;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 20;
+
+    private static final int WORD_COUNT_OFFSET = 8;
+    private static final int NODE_COUNT_OFFSET = 12;
+    private static final int ROOT_OFFSET_OFFSET = 16;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private TrieSnapshot() {
+    }
+
+    static void write(final TrieNode root, final int nodeCount, final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            final Writer writer = new Writer(channel);
+            final int rootOffset = writer.writeSubtree(root);
+            writer.flush();
+
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(root.getWordCount()).putInt(nodeCount).putInt(rootOffset);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+    }
+
+    /**
+     * @return the whole file mapped read-only, after checking its header
+     */
+    static MappedByteBuffer map(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Dictionary snapshot is larger than 2GB: " + path);
+            }
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a dictionary snapshot: " + path);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported dictionary snapshot version " + buffer.getInt(4) + ": " + path);
+            }
+            return buffer;
+        }
+    }
+
+    static int getWordCount(final ByteBuffer buffer) {
+        return buffer.getInt(WORD_COUNT_OFFSET);
+    }
+
+    static int getNodeCount(final ByteBuffer buffer) {
+        return buffer.getInt(NODE_COUNT_OFFSET);
+    }
+
+    static int getRootOffset(final ByteBuffer buffer) {
+        return buffer.getInt(ROOT_OFFSET_OFFSET);
+    }
+
+    static int getWordCount(final ByteBuffer buffer, final int nodeOffset) {
+        return buffer.getInt(nodeOffset);
+    }
+
+    static boolean isEndOfWord(final ByteBuffer buffer, final int nodeOffset) {
+        return (buffer.getInt(nodeOffset + 4) & 1) != 0;
+    }
+
+    static int getChildrenCount(final ByteBuffer buffer, final int nodeOffset) {
+        return buffer.getInt(nodeOffset + 4) >>> 1;
+    }
+
+    static char getChildCharacterAt(final ByteBuffer buffer, final int nodeOffset, final int index) {
+        return buffer.getChar(nodeOffset + 8 + 2 * index);
+    }
+
+    static int getChildOffsetAt(final ByteBuffer buffer, final int nodeOffset, final int index) {
+        final int childrenCount = getChildrenCount(buffer, nodeOffset);
+        return buffer.getInt(nodeOffset + 8 + 2 * childrenCount + 4 * index);
+    }
+
+    /**
+     * @return offset of the record of the child for the character, or -1 if there is no such child
+     */
+    static int getChildOffset(final ByteBuffer buffer, final int nodeOffset, final char character) {
+        final int childrenCount = getChildrenCount(buffer, nodeOffset);
+        int low = 0;
+        int high = childrenCount - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final char key = buffer.getChar(nodeOffset + 8 + 2 * middle);
+            if (key < character) {
+                low = middle + 1;
+            } else if (key > character) {
+                high = middle - 1;
+            } else {
+                return buffer.getInt(nodeOffset + 8 + 2 * childrenCount + 4 * middle);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return root of a trie rebuilt from the records of the buffer
+     */
+    static TrieNode read(final ByteBuffer buffer) {
+        final TrieNode root = new TrieNode();
+        TrieNode[] nodes = new TrieNode[16];
+        int[] offsets = new int[16];
+        int depth = 0;
+
+        nodes[depth] = root;
+        offsets[depth] = getRootOffset(buffer);
+        depth++;
+        while (depth > 0) {
+            depth--;
+            final TrieNode node = nodes[depth];
+            final int nodeOffset = offsets[depth];
+            nodes[depth] = null;
+
+            node.setEndOfWord(isEndOfWord(buffer, nodeOffset));
+            node.addToWordCount(getWordCount(buffer, nodeOffset));
+            final int childrenCount = getChildrenCount(buffer, nodeOffset);
+            if (depth + childrenCount > nodes.length) {
+                nodes = Arrays.copyOf(nodes, Math.max(nodes.length * 2, depth + childrenCount));
+                offsets = Arrays.copyOf(offsets, nodes.length);
+            }
+            for (int i = 0; i < childrenCount; i++) {
+                nodes[depth] = node.addChild(getChildCharacterAt(buffer, nodeOffset, i));
+                offsets[depth] = getChildOffsetAt(buffer, nodeOffset, i);
+                depth++;
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Writes the records in post-order through a buffer, keeping the offsets of the children of each node
+     * on the path until the node itself is written.
+     */
+    private static final class Writer {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private long bufferStart = HEADER_SIZE;
+
+        private Writer(final FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private int writeSubtree(final TrieNode subtreeRoot) throws IOException {
+            TrieNode[] nodes = new TrieNode[16];
+            int[] nextSlots = new int[16];
+            int[][] childOffsets = new int[16][];
+            int[] childCounts = new int[16];
+            int depth = 0;
+
+            nodes[depth] = subtreeRoot;
+            childOffsets[depth] = new int[subtreeRoot.getChildrenCount()];
+            depth++;
+            while (true) {
+                final TrieNode node = nodes[depth - 1];
+                final int slotCount = node.getChildSlotCount();
+                int slot = nextSlots[depth - 1];
+                while (slot < slotCount && node.getChildAt(slot) == null) {
+                    slot++;
+                }
+
+                if (slot < slotCount) {
+                    nextSlots[depth - 1] = slot + 1;
+                    if (depth == nodes.length) {
+                        nodes = Arrays.copyOf(nodes, depth * 2);
+                        nextSlots = Arrays.copyOf(nextSlots, depth * 2);
+                        childOffsets = Arrays.copyOf(childOffsets, depth * 2);
+                        childCounts = Arrays.copyOf(childCounts, depth * 2);
+                    }
+                    final TrieNode child = node.getChildAt(slot);
+                    nodes[depth] = child;
+                    nextSlots[depth] = 0;
+                    childOffsets[depth] = new int[child.getChildrenCount()];
+                    childCounts[depth] = 0;
+                    depth++;
+                    continue;
+                }
+
+                final int nodeOffset = writeNode(node, childOffsets[depth - 1]);
+                nodes[depth - 1] = null;
+                childOffsets[depth - 1] = null;
+                depth--;
+                if (depth == 0) {
+                    return nodeOffset;
+                }
+                childOffsets[depth - 1][childCounts[depth - 1]++] = nodeOffset;
+            }
+        }
+
+        private int writeNode(final TrieNode node, final int[] childOffsets) throws IOException {
+            final long position = bufferStart + buffer.position();
+            if (position + 8 + 6L * childOffsets.length > Integer.MAX_VALUE) {
+                throw new IOException("Dictionary snapshot would be larger than 2GB");
+            }
+            final int nodeOffset = (int) position;
+
+            ensureRemaining(8);
+            buffer.putInt(node.getWordCount());
+            buffer.putInt(childOffsets.length << 1 | (node.isEndOfWord() ? 1 : 0));
+            for (int slot = 0; slot < node.getChildSlotCount(); slot++) {
+                if (node.getChildAt(slot) != null) {
+                    ensureRemaining(2);
+                    buffer.putChar(node.getChildCharacterAt(slot));
+                }
+            }
+            for (int childOffset : childOffsets) {
+                ensureRemaining(4);
+                buffer.putInt(childOffset);
+            }
+            return nodeOffset;
+        }
+
+        private void ensureRemaining(final int byteCount) throws IOException {
+            if (buffer.remaining() < byteCount) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                bufferStart += channel.write(buffer, bufferStart);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package au.com.mindworks.dictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Shape of a trie at the time it was described: number of nodes per depth, number of nodes per fan-out,
+ * child storage used by the nodes and estimated retained size.
+ * <p/>
+ * Sizes are estimated from the layout of the objects on a 64-bit JVM with compressed references
+ * (see {@link TrieNode#SHALLOW_BYTES}), they are not measured.
+ */
+public final class TrieStructure {
+    private final int wordCount;
+    private final long[] nodeCountsPerDepth;
+    private final long[] nodeCountsPerFanOut;
+    private final long sparseChildrenCount;
+    private final long denseChildrenCount;
+    private final long estimatedBytes;
+
+    private TrieStructure(final int wordCount, final long[] nodeCountsPerDepth, final long[] nodeCountsPerFanOut,
+                          final long sparseChildrenCount, final long denseChildrenCount, final long estimatedBytes) {
+        this.wordCount = wordCount;
+        this.nodeCountsPerDepth = nodeCountsPerDepth;
+        this.nodeCountsPerFanOut = nodeCountsPerFanOut;
+        this.sparseChildrenCount = sparseChildrenCount;
+        this.denseChildrenCount = denseChildrenCount;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    /**
+     * Walks the trie level by level, so that deep tries do not need a deep call stack.
+     */
+    static TrieStructure describe(final TrieNode root) {
+        final List<Long> nodeCountsPerDepth = new ArrayList<Long>();
+        long[] nodeCountsPerFanOut = new long[SparseTrieNodeChildren.DENSE_THRESHOLD + 1];
+        long sparseChildrenCount = 0;
+        long denseChildrenCount = 0;
+        long estimatedBytes = 0;
+
+        List<TrieNode> level = new ArrayList<TrieNode>();
+        level.add(root);
+        while (!level.isEmpty()) {
+            nodeCountsPerDepth.add((long) level.size());
+            final List<TrieNode> nextLevel = new ArrayList<TrieNode>();
+            for (TrieNode node : level) {
+                final TrieNodeChildren children = node.getChildren();
+                final int fanOut = children.size();
+                if (fanOut >= nodeCountsPerFanOut.length) {
+                    nodeCountsPerFanOut = Arrays.copyOf(nodeCountsPerFanOut, Math.max(fanOut + 1, nodeCountsPerFanOut.length * 2));
+                }
+                nodeCountsPerFanOut[fanOut]++;
+                if (children instanceof SparseTrieNodeChildren) {
+                    sparseChildrenCount++;
+                } else if (children instanceof DenseTrieNodeChildren) {
+                    denseChildrenCount++;
+                }
+                estimatedBytes += TrieNode.SHALLOW_BYTES + children.estimatedBytes();
+
+                for (int slot = 0; slot < node.getChildSlotCount(); slot++) {
+                    final TrieNode child = node.getChildAt(slot);
+                    if (child != null) {
+                        nextLevel.add(child);
+                    }
+                }
+            }
+            level = nextLevel;
+        }
+
+        int maxFanOut = nodeCountsPerFanOut.length - 1;
+        while (maxFanOut > 0 && nodeCountsPerFanOut[maxFanOut] == 0) {
+            maxFanOut--;
+        }
+        final long[] depths = new long[nodeCountsPerDepth.size()];
+        for (int depth = 0; depth < depths.length; depth++) {
+            depths[depth] = nodeCountsPerDepth.get(depth);
+        }
+        return new TrieStructure(root.getWordCount(), depths, Arrays.copyOf(nodeCountsPerFanOut, maxFanOut + 1),
+                sparseChildrenCount, denseChildrenCount, estimatedBytes);
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * @return number of nodes, including the root
+     */
+    public long getNodeCount() {
+        long nodeCount = 0;
+        for (long nodeCountAtDepth : nodeCountsPerDepth) {
+            nodeCount += nodeCountAtDepth;
+        }
+        return nodeCount;
+    }
+
+    /**
+     * @return length of the longest word, which is the depth of the deepest node (the root being at depth 0)
+     */
+    public int getMaxDepth() {
+        return nodeCountsPerDepth.length - 1;
+    }
+
+    /**
+     * @param depth 0 for the root
+     * @return number of nodes at depth, i.e. number of distinct prefixes of that length
+     */
+    public long getNodeCountAtDepth(final int depth) {
+        return depth >= 0 && depth < nodeCountsPerDepth.length ? nodeCountsPerDepth[depth] : 0;
+    }
+
+    public int getMaxFanOut() {
+        return nodeCountsPerFanOut.length - 1;
+    }
+
+    /**
+     * @param fanOut number of children, 0 for the leaves
+     * @return number of nodes with fanOut children
+     */
+    public long getNodeCountWithFanOut(final int fanOut) {
+        return fanOut >= 0 && fanOut < nodeCountsPerFanOut.length ? nodeCountsPerFanOut[fanOut] : 0;
+    }
+
+    /**
+     * @return number of nodes storing their children in sorted arrays
+     */
+    public long getSparseChildrenCount() {
+        return sparseChildrenCount;
+    }
+
+    /**
+     * @return number of nodes storing their children in a 26 slot table
+     */
+    public long getDenseChildrenCount() {
+        return denseChildrenCount;
+    }
+
+    /**
+     * @return estimated bytes retained by the nodes and their child storage
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public double getBytesPerWord() {
+        return wordCount == 0 ? 0 : (double) estimatedBytes / wordCount;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder report = new StringBuilder();
+        report.append("TrieStructure[words=").append(wordCount)
+                .append(", nodes=").append(getNodeCount())
+                .append(", maxDepth=").append(getMaxDepth())
+                .append(", sparseChildren=").append(sparseChildrenCount)
+                .append(", denseChildren=").append(denseChildrenCount)
+                .append(", bytes=").append(estimatedBytes)
+                .append(", bytesPerWord=").append(String.format("%.2f", getBytesPerWord())).append("]");
+        report.append(System.lineSeparator()).append("nodes per depth:");
+        for (int depth = 0; depth < nodeCountsPerDepth.length; depth++) {
+            report.append(System.lineSeparator()).append(String.format("%6d %12d", depth, nodeCountsPerDepth[depth]));
+        }
+        report.append(System.lineSeparator()).append("nodes per fan-out:");
+        for (int fanOut = 0; fanOut < nodeCountsPerFanOut.length; fanOut++) {
+            if (nodeCountsPerFanOut[fanOut] > 0) {
+                report.append(System.lineSeparator()).append(String.format("%6d %12d", fanOut, nodeCountsPerFanOut[fanOut]));
+            }
+        }
+        return report.toString();
+    }
+}
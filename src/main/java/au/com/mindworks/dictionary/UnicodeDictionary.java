@@ -0,0 +1,293 @@
+package au.com.mindworks.dictionary;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Variant of {@link Dictionary} for multilingual words, with a configurable {@link WordNormalization} and
+ * nodes keyed by code points or by UTF-8 bytes (see {@link TrieKeyEncoding}).
+ * <p/>
+ * Words are walked down the trie while they are normalized: each code point goes to the trie as soon as the
+ * normalization produces it, and lookups stop at the first code point without a node.
+ * <p/>
+ * Words found are returned normalized, in code point order. In {@link TrieKeyEncoding#UTF8_BYTES} mode,
+ * unpaired surrogates, which have no UTF-8 encoding, are returned as U+FFFD.
+ */
+public class UnicodeDictionary {
+    private final WordNormalization normalization;
+    private final TrieKeyEncoding keyEncoding;
+    private final UnicodeTrieNode root = new UnicodeTrieNode();
+    private int nodeCount = 0;
+
+    /**
+     * Dictionary with {@link WordNormalization#CASE_FOLDING}, keyed by code points.
+     */
+    public UnicodeDictionary() {
+        this(WordNormalization.CASE_FOLDING, TrieKeyEncoding.CODE_POINTS);
+    }
+
+    public UnicodeDictionary(final WordNormalization normalization, final TrieKeyEncoding keyEncoding) {
+        if (normalization == null || keyEncoding == null) {
+            throw new IllegalArgumentException("Normalization and key encoding are required");
+        }
+        this.normalization = normalization;
+        this.keyEncoding = keyEncoding;
+    }
+
+    public WordNormalization getNormalization() {
+        return normalization;
+    }
+
+    public TrieKeyEncoding getKeyEncoding() {
+        return keyEncoding;
+    }
+
+    public void addAllWords(final Iterable<? extends CharSequence> wordsToAdd) {
+        for (CharSequence wordToAdd : wordsToAdd) {
+            addWord(wordToAdd);
+        }
+    }
+
+    /**
+     * Addition Algorithm:
+     * 1. Normalize wordToAdd, walking down from root and adding a child for every key without one.
+     * 2. If the word is blank once normalized, or its last node is already marked as end of word, then return.
+     * 3. Mark the last node as end of word, and increment the word count of every node on the path.
+     *
+     * @param wordToAdd
+     */
+    public void addWord(final CharSequence wordToAdd) {
+        if (wordToAdd == null) {
+            return;
+        }
+        final PathWalker walker = new PathWalker(true);
+        normalization.normalize(wordToAdd, walker);
+        final UnicodeTrieNode node = walker.getNode();
+        if (walker.getDepth() == 0 || node.isEndOfWord()) {
+            return;
+        }
+
+        node.setEndOfWord(true);
+        for (int depth = 0; depth <= walker.getDepth(); depth++) {
+            walker.getNodeAt(depth).addToWordCount(1);
+        }
+    }
+
+    /**
+     * Removal Algorithm:
+     * 1. Normalize wordToRemove, walking down from root, and return false if a key has no child.
+     * 2. If the last node is not marked as end of word, then return false.
+     * 3. Unmark the last node, and decrement the word count of every node on the path.
+     * 4. Remove the highest node on the path left without words, with the chain of nodes below it.
+     *
+     * @param wordToRemove
+     * @return true if the word is removed from dictionary, otherwise false (when word is not found in dictionary)
+     */
+    public boolean removeWord(final CharSequence wordToRemove) {
+        if (wordToRemove == null) {
+            return false;
+        }
+        final PathWalker walker = new PathWalker(false);
+        if (!normalization.normalize(wordToRemove, walker) || walker.getDepth() == 0 || !walker.getNode().isEndOfWord()) {
+            return false;
+        }
+
+        walker.getNode().setEndOfWord(false);
+        for (int depth = 0; depth <= walker.getDepth(); depth++) {
+            walker.getNodeAt(depth).addToWordCount(-1);
+        }
+        for (int depth = 1; depth <= walker.getDepth(); depth++) {
+            if (walker.getNodeAt(depth).getWordCount() == 0) {
+                walker.getNodeAt(depth - 1).removeChild(walker.getKeyAt(depth - 1));
+                nodeCount -= walker.getDepth() - depth + 1;
+                break;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return root.getWordCount();
+    }
+
+    /**
+     * @return number of nodes, excluding root
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @param wordToSearch
+     * @return true if the normalized wordToSearch is found in dictionary, otherwise return false
+     */
+    public boolean searchWord(final CharSequence wordToSearch) {
+        if (wordToSearch == null) {
+            return false;
+        }
+        final PathWalker walker = new PathWalker(false);
+        return normalization.normalize(wordToSearch, walker) && walker.getDepth() > 0 && walker.getNode().isEndOfWord();
+    }
+
+    /**
+     * @param prefix
+     * @return number of words in dictionary if prefix is blank, otherwise number of words starting with prefix
+     */
+    public int countWordsStartingWith(final CharSequence prefix) {
+        if (prefix == null) {
+            return size();
+        }
+        final PathWalker walker = new PathWalker(false);
+        return normalization.normalize(prefix, walker) ? walker.getNode().getWordCount() : 0;
+    }
+
+    public List<String> searchAllWords() {
+        return searchAllWordsStartingWith(null);
+    }
+
+    /**
+     * Walks the subtree of the node of prefix depth first, in key order, keeping the keys of the path in the walker.
+     *
+     * @param prefix
+     * @return list of all the normalized words in dictionary if prefix is blank, otherwise all normalized words
+     * starting with prefix, in code point order
+     */
+    public List<String> searchAllWordsStartingWith(final CharSequence prefix) {
+        final List<String> listOfFoundWordsWithPrefix = new ArrayList<String>();
+        final PathWalker walker = new PathWalker(false);
+        if (prefix != null && !normalization.normalize(prefix, walker)) {
+            return listOfFoundWordsWithPrefix;
+        }
+
+        final int baseDepth = walker.getDepth();
+        int[] nextSlots = new int[16];
+        int depth = baseDepth;
+        if (walker.getNode().isEndOfWord() && depth > 0) {
+            listOfFoundWordsWithPrefix.add(walker.wordOfPath(depth));
+        }
+        while (depth >= baseDepth) {
+            final UnicodeTrieNode node = walker.getNodeAt(depth);
+            final int slot = nextSlots[depth - baseDepth];
+            if (slot == node.getChildSlotCount()) {
+                depth--;
+                continue;
+            }
+            nextSlots[depth - baseDepth] = slot + 1;
+
+            final UnicodeTrieNode child = node.getChildAt(slot);
+            if (child == null) {
+                continue;
+            }
+            walker.setPath(depth, node.getKeyAt(slot), child);
+            depth++;
+            if (child.isEndOfWord()) {
+                listOfFoundWordsWithPrefix.add(walker.wordOfPath(depth));
+            }
+            if (depth - baseDepth == nextSlots.length) {
+                nextSlots = Arrays.copyOf(nextSlots, nextSlots.length * 2);
+            }
+            nextSlots[depth - baseDepth] = 0;
+        }
+        return listOfFoundWordsWithPrefix;
+    }
+
+    /**
+     * Walks down from root as the code points of a normalized word arrive, splitting them into UTF-8 bytes
+     * in {@link TrieKeyEncoding#UTF8_BYTES} mode, and remembers the keys and nodes of the path.
+     */
+    private final class PathWalker implements CodePointSink {
+        private final boolean adding;
+        private int[] keys = new int[16];
+        private UnicodeTrieNode[] nodes = new UnicodeTrieNode[17];
+        private int depth;
+
+        private PathWalker(final boolean adding) {
+            this.adding = adding;
+            nodes[0] = root;
+        }
+
+        @Override
+        public boolean accept(final int codePoint) {
+            if (keyEncoding == TrieKeyEncoding.CODE_POINTS) {
+                return step(codePoint);
+            }
+            if (codePoint < 0x80) {
+                return step(codePoint);
+            }
+            if (codePoint < 0x800) {
+                return step(0xC0 | codePoint >> 6) && step(0x80 | codePoint & 0x3F);
+            }
+            if (codePoint < 0x10000) {
+                return step(0xE0 | codePoint >> 12) && step(0x80 | codePoint >> 6 & 0x3F) && step(0x80 | codePoint & 0x3F);
+            }
+            return step(0xF0 | codePoint >> 18) && step(0x80 | codePoint >> 12 & 0x3F)
+                    && step(0x80 | codePoint >> 6 & 0x3F) && step(0x80 | codePoint & 0x3F);
+        }
+
+        private boolean step(final int key) {
+            final UnicodeTrieNode node = nodes[depth];
+            UnicodeTrieNode child = node.getChild(key);
+            if (child == null) {
+                if (!adding) {
+                    return false;
+                }
+                child = node.getOrAddChild(key);
+                nodeCount++;
+            }
+            setPath(depth, key, child);
+            depth++;
+            return true;
+        }
+
+        /**
+         * Sets the key leading from the node at depth to child, and child as the node at depth + 1.
+         */
+        private void setPath(final int depth, final int key, final UnicodeTrieNode child) {
+            if (depth == keys.length) {
+                keys = Arrays.copyOf(keys, depth * 2);
+                nodes = Arrays.copyOf(nodes, depth * 2 + 1);
+            }
+            keys[depth] = key;
+            nodes[depth + 1] = child;
+        }
+
+        private int getDepth() {
+            return depth;
+        }
+
+        /**
+         * @return node of the last key of the path, root if the path is empty
+         */
+        private UnicodeTrieNode getNode() {
+            return nodes[depth];
+        }
+
+        private UnicodeTrieNode getNodeAt(final int depth) {
+            return nodes[depth];
+        }
+
+        private int getKeyAt(final int depth) {
+            return keys[depth];
+        }
+
+        /**
+         * @return the word made of the first length keys of the path
+         */
+        private String wordOfPath(final int length) {
+            if (keyEncoding == TrieKeyEncoding.UTF8_BYTES) {
+                final byte[] bytes = new byte[length];
+                for (int i = 0; i < length; i++) {
+                    bytes[i] = (byte) keys[i];
+                }
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+            final StringBuilder word = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                word.appendCodePoint(keys[i]);
+            }
+            return word.toString();
+        }
+    }
+}
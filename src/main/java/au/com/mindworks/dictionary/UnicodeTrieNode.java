@@ -0,0 +1,161 @@
+package au.com.mindworks.dictionary;
+
+import java.util.Arrays;
+
+/**
+ * Node of a {@link UnicodeDictionary}, keyed by code points or by UTF-8 bytes (see {@link TrieKeyEncoding}).
+ * <p/>
+ * Children are kept in parallel {@code int[]} and node arrays sorted by key, like {@link SparseTrieNodeChildren},
+ * and move to a 256 slot table indexed by the key once there are {@link #DENSE_THRESHOLD} of them and all their
+ * keys are below 256, which is always the case for UTF-8 bytes. They move back to the arrays when the number of
+ * children drops below {@link #SPARSE_THRESHOLD}, or a key above 255 is added. Slots are enumerated in key order
+ * in both layouts, empty slots of the table being null.
+ */
+final class UnicodeTrieNode {
+    static final int DENSE_THRESHOLD = 16;
+    static final int SPARSE_THRESHOLD = 8;
+
+    private static final int SLOT_COUNT = 256;
+    private static final int[] NO_KEYS = new int[0];
+    private static final UnicodeTrieNode[] NO_CHILDREN = new UnicodeTrieNode[0];
+
+    private boolean endOfWord;
+    private int wordCount;
+    private int size;
+    private int[] keys = NO_KEYS;
+    private UnicodeTrieNode[] children = NO_CHILDREN;
+    private UnicodeTrieNode[] table;
+
+    boolean isEndOfWord() {
+        return endOfWord;
+    }
+
+    void setEndOfWord(final boolean endOfWord) {
+        this.endOfWord = endOfWord;
+    }
+
+    /**
+     * @return number of words ending at this node or at any of its descendants
+     */
+    int getWordCount() {
+        return wordCount;
+    }
+
+    void addToWordCount(final int delta) {
+        wordCount += delta;
+    }
+
+    int getChildrenCount() {
+        return size;
+    }
+
+    boolean isDense() {
+        return table != null;
+    }
+
+    UnicodeTrieNode getChild(final int key) {
+        if (table != null) {
+            return key >= 0 && key < SLOT_COUNT ? table[key] : null;
+        }
+        final int index = Arrays.binarySearch(keys, 0, size, key);
+        return index < 0 ? null : children[index];
+    }
+
+    /**
+     * @return the child for the key, added if there was none
+     */
+    UnicodeTrieNode getOrAddChild(final int key) {
+        final UnicodeTrieNode child = getChild(key);
+        if (child != null) {
+            return child;
+        }
+
+        final UnicodeTrieNode newChild = new UnicodeTrieNode();
+        if (table == null && size + 1 >= DENSE_THRESHOLD && key < SLOT_COUNT && keys[size - 1] < SLOT_COUNT) {
+            table = new UnicodeTrieNode[SLOT_COUNT];
+            for (int i = 0; i < size; i++) {
+                table[keys[i]] = children[i];
+            }
+            keys = NO_KEYS;
+            children = NO_CHILDREN;
+        }
+        if (table != null && key < SLOT_COUNT) {
+            table[key] = newChild;
+            size++;
+            return newChild;
+        }
+        if (table != null) {
+            toSparse();
+        }
+
+        final int index = -(Arrays.binarySearch(keys, 0, size, key) + 1);
+        if (size == keys.length) {
+            final int newCapacity = size + (size >> 1) + 1;
+            keys = Arrays.copyOf(keys, newCapacity);
+            children = Arrays.copyOf(children, newCapacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(children, index, children, index + 1, size - index);
+        keys[index] = key;
+        children[index] = newChild;
+        size++;
+        return newChild;
+    }
+
+    void removeChild(final int key) {
+        if (table != null) {
+            if (key >= 0 && key < SLOT_COUNT && table[key] != null) {
+                table[key] = null;
+                size--;
+                if (size < SPARSE_THRESHOLD) {
+                    toSparse();
+                }
+            }
+            return;
+        }
+        final int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(children, index + 1, children, index, size - index - 1);
+        size--;
+        children[size] = null;
+    }
+
+    private void toSparse() {
+        keys = new int[size + 1];
+        children = new UnicodeTrieNode[size + 1];
+        int index = 0;
+        for (int key = 0; key < SLOT_COUNT; key++) {
+            if (table[key] != null) {
+                keys[index] = key;
+                children[index++] = table[key];
+            }
+        }
+        table = null;
+    }
+
+    /**
+     * @return number of child slots, some of which may be empty
+     */
+    int getChildSlotCount() {
+        return table != null ? SLOT_COUNT : size;
+    }
+
+    /**
+     * @param slot between 0 and {@link #getChildSlotCount()}
+     * @return key of the child in slot
+     */
+    int getKeyAt(final int slot) {
+        return table != null ? slot : keys[slot];
+    }
+
+    /**
+     * @param slot between 0 and {@link #getChildSlotCount()}
+     * @return child in slot, or null if the slot is empty
+     */
+    UnicodeTrieNode getChildAt(final int slot) {
+        return table != null ? table[slot] : children[slot];
+    }
+}
@@ -0,0 +1,114 @@
+package au.com.mindworks.dictionary;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily walks the words of a subtree, depth first and in ascending order of characters, which is the
+ * lexicographical order of the words.
+ * <p/>
+ * The path from the base node to the current node is kept in an explicit stack and the current word in a
+ * single {@link StringBuilder}, so memory is proportional to the depth of the subtree rather than to the
+ * number of words, and the only allocation per word is the returned String.
+ * <p/>
+ * The dictionary must not be modified while iterating, otherwise the behaviour is undefined.
+ */
+final class WordIterator implements Iterator<String> {
+    private static final int INITIAL_DEPTH = 16;
+
+    private final StringBuilder word;
+    private TrieNode[] nodes = new TrieNode[INITIAL_DEPTH];
+    private int[] nextSlots = new int[INITIAL_DEPTH];
+    private int depth = 0;
+    private int wordsToSkip;
+    private String next;
+
+    /**
+     * @param baseNode node of the last character of prefix
+     * @param prefix   normalized prefix which all the words start with
+     * @param offset   number of words to skip, whole subtrees are skipped at once using their word counts
+     */
+    WordIterator(final TrieNode baseNode, final CharSequence prefix, final int offset) {
+        word = new StringBuilder(prefix.length() + INITIAL_DEPTH).append(prefix);
+        wordsToSkip = offset;
+        if (baseNode.getWordCount() <= wordsToSkip) {
+            return;
+        }
+
+        push(baseNode);
+        if (baseNode.isEndOfWord()) {
+            if (wordsToSkip == 0) {
+                next = word.toString();
+                return;
+            }
+            wordsToSkip--;
+        }
+        next = advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        final String current = next;
+        next = advance();
+        return current;
+    }
+
+    private String advance() {
+        while (depth > 0) {
+            final TrieNode node = nodes[depth - 1];
+            final int slotCount = node.getChildSlotCount();
+            int slot = nextSlots[depth - 1];
+            TrieNode child = null;
+            while (slot < slotCount && (child = node.getChildAt(slot)) == null) {
+                slot++;
+            }
+
+            if (slot == slotCount) {
+                pop();
+                continue;
+            }
+            nextSlots[depth - 1] = slot + 1;
+
+            if (child.getWordCount() <= wordsToSkip) {
+                wordsToSkip -= child.getWordCount();
+                continue;
+            }
+            word.append(node.getChildCharacterAt(slot));
+            push(child);
+            if (child.isEndOfWord()) {
+                if (wordsToSkip == 0) {
+                    return word.toString();
+                }
+                wordsToSkip--;
+            }
+        }
+        return null;
+    }
+
+    private void push(final TrieNode node) {
+        if (depth == nodes.length) {
+            nodes = Arrays.copyOf(nodes, depth * 2);
+            nextSlots = Arrays.copyOf(nextSlots, depth * 2);
+        }
+        nodes[depth] = node;
+        nextSlots[depth] = 0;
+        depth++;
+    }
+
+    private void pop() {
+        depth--;
+        nodes[depth] = null;
+        if (depth > 0) {
+            word.setLength(word.length() - 1);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package au.com.mindworks.dictionary;
+
+import java.nio.CharBuffer;
+import java.text.Normalizer;
+
+/**
+ * How the words of a {@link UnicodeDictionary} are normalized into trie keys, one code point at a time:
+ * <ol>
+ * <li>leading and trailing characters which {@link String#trim()} would remove are ignored,</li>
+ * <li>the word is put in a Unicode normalization form, e.g. NFC so that precomposed and combining accents match,
+ * or NFKD so that compatibility variants such as ligatures also match,</li>
+ * <li>accents (non-spacing marks of the canonical decomposition) are stripped, if enabled,</li>
+ * <li>each code point is case folded, if enabled, with {@code Character.toLowerCase(Character.toUpperCase(c))},
+ * which does not depend on the default locale and also folds variants such as final sigma or the Kelvin sign.</li>
+ * </ol>
+ * Words made of ASCII characters only, which no normalization form changes, and words already in the form are
+ * normalized in a single pass over their characters without any copy. Other words take one copy through
+ * {@link Normalizer}, which the JDK only offers for whole strings, and two if accents are stripped under a composed
+ * form, which has to be recomposed.
+ * Surrogate pairs are always handled as one code point.
+ */
+public final class WordNormalization {
+    /**
+     * Case folding only, the normalization of {@link Dictionary} applied per code point instead of per char.
+     */
+    public static final WordNormalization CASE_FOLDING = new WordNormalization(null, true, false);
+
+    private final Normalizer.Form form;
+    private final boolean caseFolding;
+    private final boolean accentStripping;
+
+    /**
+     * @param form            normalization form, or null to keep the code points as they are
+     * @param caseFolding     true to fold the case of the code points
+     * @param accentStripping true to strip the accents
+     */
+    public WordNormalization(final Normalizer.Form form, final boolean caseFolding, final boolean accentStripping) {
+        this.form = form;
+        this.caseFolding = caseFolding;
+        this.accentStripping = accentStripping;
+    }
+
+    public Normalizer.Form getForm() {
+        return form;
+    }
+
+    public boolean isCaseFolding() {
+        return caseFolding;
+    }
+
+    public boolean isAccentStripping() {
+        return accentStripping;
+    }
+
+    /**
+     * @param word
+     * @return the normalized word, empty if the word is blank
+     */
+    public String normalize(final CharSequence word) {
+        final StringBuilder normalizedWord = new StringBuilder(word.length());
+        normalize(word, new CodePointSink() {
+            @Override
+            public boolean accept(final int codePoint) {
+                normalizedWord.appendCodePoint(codePoint);
+                return true;
+            }
+        });
+        return normalizedWord.toString();
+    }
+
+    /**
+     * Normalization Algorithm:
+     * 1. Find the word without its leading and trailing blanks.
+     * 2. If all its characters are ASCII, pass each of them to sink, case folded if enabled.
+     * 3. Otherwise normalize the word into the form (decomposed first if accents are stripped), and pass each
+     * code point to sink, skipping the accents if they are stripped and case folding if enabled.
+     *
+     * @param word
+     * @param sink receives the code points of the normalized word, until it returns false
+     * @return false if sink stopped the normalization, otherwise true
+     */
+    boolean normalize(final CharSequence word, final CodePointSink sink) {
+        final int start = WordNormalizer.start(word);
+        final int end = WordNormalizer.end(word, start);
+        if (isAscii(word, start, end)) {
+            for (int i = start; i < end; i++) {
+                if (!sink.accept(caseFolding ? WordNormalizer.normalize(word.charAt(i)) : word.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        if (accentStripping) {
+            final CharSequence strippedWord = stripAccents(CharBuffer.wrap(word, start, end));
+            return acceptCodePoints(strippedWord, 0, strippedWord.length(), sink);
+        }
+        if (form == null || Normalizer.isNormalized(CharBuffer.wrap(word, start, end), form)) {
+            return acceptCodePoints(word, start, end, sink);
+        }
+        final String normalizedWord = Normalizer.normalize(CharBuffer.wrap(word, start, end), form);
+        return acceptCodePoints(normalizedWord, 0, normalizedWord.length(), sink);
+    }
+
+    private boolean acceptCodePoints(final CharSequence word, final int start, final int end, final CodePointSink sink) {
+        for (int i = start; i < end; ) {
+            final int codePoint = Character.codePointAt(word, i);
+            i += Character.charCount(codePoint);
+            if (!sink.accept(caseFolding ? Character.toLowerCase(Character.toUpperCase(codePoint)) : codePoint)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Accents are the non-spacing marks of the decomposed word. Compatibility forms decompose with NFKD,
+     * composed forms are recomposed once the accents are gone.
+     */
+    private CharSequence stripAccents(final CharSequence word) {
+        final boolean compatibility = form == Normalizer.Form.NFKC || form == Normalizer.Form.NFKD;
+        final String decomposedWord = Normalizer.normalize(word,
+                compatibility ? Normalizer.Form.NFKD : Normalizer.Form.NFD);
+        final StringBuilder strippedWord = new StringBuilder(decomposedWord.length());
+        for (int i = 0; i < decomposedWord.length(); ) {
+            final int codePoint = decomposedWord.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.getType(codePoint) != Character.NON_SPACING_MARK) {
+                strippedWord.appendCodePoint(codePoint);
+            }
+        }
+        if (form == Normalizer.Form.NFC || form == Normalizer.Form.NFKC) {
+            return Normalizer.normalize(strippedWord, form);
+        }
+        return strippedWord;
+    }
+
+    private static boolean isAscii(final CharSequence word, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (word.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "WordNormalization[form=" + form + ", caseFolding=" + caseFolding + ", accentStripping=" + accentStripping + "]";
+    }
+}
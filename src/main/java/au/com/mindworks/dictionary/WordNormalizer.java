@@ -0,0 +1,47 @@
+package au.com.mindworks.dictionary;
+
+/**
+ * Normalizes words in place, one character at a time, instead of producing trimmed and lower cased copies.
+ * <p/>
+ * A word is the range {@code [start(word), end(word, start))} of the given {@link CharSequence}, i.e. without
+ * the leading and trailing characters which {@link String#trim()} would remove, and each of its characters
+ * is to be passed through {@link #normalize(char)} before being used as a trie key.
+ */
+final class WordNormalizer {
+
+    private WordNormalizer() {
+    }
+
+    /**
+     * @param word
+     * @return index of the first character which is not trimmed, or word.length() if the word is blank
+     */
+    static int start(final CharSequence word) {
+        final int length = word.length();
+        int start = 0;
+        while (start < length && word.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * @param word
+     * @param start as returned by {@link #start(CharSequence)}
+     * @return index after the last character which is not trimmed, which equals start if the word is blank
+     */
+    static int end(final CharSequence word, final int start) {
+        int end = word.length();
+        while (end > start && word.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    static char normalize(final char character) {
+        if (character < 128) {
+            return character >= 'A' && character <= 'Z' ? (char) (character + ('a' - 'A')) : character;
+        }
+        return Character.toLowerCase(character);
+    }
+}
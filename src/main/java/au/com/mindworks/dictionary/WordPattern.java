@@ -0,0 +1,206 @@
+package au.com.mindworks.dictionary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiled word pattern, matched one character at a time so that it can be run along the paths of the trie.
+ * <p/>
+ * Syntax:
+ * <ul>
+ * <li>{@code ?} or {@code .} matches exactly one character</li>
+ * <li>{@code *} matches any number of characters, including none</li>
+ * <li>{@code [abc]}, {@code [a-z]} match one character of the class, {@code [^abc]} one character not in the class</li>
+ * <li>{@code \} makes the next character a literal, any other character matches itself</li>
+ * </ul>
+ * Characters are normalized like the words of the dictionary, so patterns are case insensitive.
+ * <p/>
+ * The pattern is a sequence of elements (a character set or a star), and state i means that the first i elements
+ * have been matched. As several states can be active at once (e.g. a star matching or not the next character),
+ * the active states are kept as bits of a long, which limits patterns to {@link #MAX_ELEMENTS} elements.
+ */
+final class WordPattern {
+    static final int MAX_ELEMENTS = 63;
+
+    private static final char[] ANY_CHARACTER = new char[0];
+
+    /**
+     * Ranges of characters (pairs of first and last character) matched by each element, null for a star.
+     */
+    private final char[][] ranges;
+    private final boolean[] negated;
+    private final long starStates;
+    private final long acceptingState;
+    private final long anythingStates;
+
+    private WordPattern(final List<char[]> ranges, final List<Boolean> negated) {
+        final int elementCount = ranges.size();
+        this.ranges = ranges.toArray(new char[elementCount][]);
+        this.negated = new boolean[elementCount];
+        long starStates = 0;
+        for (int i = 0; i < elementCount; i++) {
+            this.negated[i] = negated.get(i);
+            if (this.ranges[i] == null) {
+                starStates |= 1L << i;
+            }
+        }
+        this.starStates = starStates;
+        this.acceptingState = 1L << elementCount;
+        // consecutive stars are collapsed, so only a trailing star can be followed by stars alone
+        this.anythingStates = elementCount > 0 && this.ranges[elementCount - 1] == null ? 1L << (elementCount - 1) : 0;
+    }
+
+    /**
+     * @param pattern
+     * @param start   as returned by {@link WordNormalizer#start(CharSequence)}
+     * @param end     as returned by {@link WordNormalizer#end(CharSequence, int)}
+     * @throws IllegalArgumentException if a character class is not closed, a backslash ends the pattern,
+     *                                  or the pattern has more than {@link #MAX_ELEMENTS} elements
+     */
+    static WordPattern compile(final CharSequence pattern, final int start, final int end) {
+        final List<char[]> ranges = new ArrayList<char[]>();
+        final List<Boolean> negated = new ArrayList<Boolean>();
+        int i = start;
+        while (i < end) {
+            final char character = pattern.charAt(i++);
+            if (character == '*') {
+                if (ranges.isEmpty() || ranges.get(ranges.size() - 1) != null) {
+                    ranges.add(null);
+                    negated.add(false);
+                }
+            } else if (character == '?' || character == '.') {
+                ranges.add(ANY_CHARACTER);
+                negated.add(true);
+            } else if (character == '[') {
+                final StringBuilder classRanges = new StringBuilder();
+                final boolean negatedClass = i < end && pattern.charAt(i) == '^';
+                if (negatedClass) {
+                    i++;
+                }
+                while (i < end && (pattern.charAt(i) != ']' || classRanges.length() == 0)) {
+                    final char first = WordNormalizer.normalize(pattern.charAt(i++));
+                    if (i + 1 < end && pattern.charAt(i) == '-' && pattern.charAt(i + 1) != ']') {
+                        final char last = WordNormalizer.normalize(pattern.charAt(i + 1));
+                        classRanges.append((char) Math.min(first, last)).append((char) Math.max(first, last));
+                        i += 2;
+                    } else {
+                        classRanges.append(first).append(first);
+                    }
+                }
+                if (i == end) {
+                    throw new IllegalArgumentException("Character class is not closed: " + pattern);
+                }
+                i++;
+                ranges.add(classRanges.toString().toCharArray());
+                negated.add(negatedClass);
+            } else {
+                char literal = character;
+                if (character == '\\') {
+                    if (i == end) {
+                        throw new IllegalArgumentException("Pattern must not end with a backslash: " + pattern);
+                    }
+                    literal = pattern.charAt(i++);
+                }
+                final char normalizedLiteral = WordNormalizer.normalize(literal);
+                ranges.add(new char[]{normalizedLiteral, normalizedLiteral});
+                negated.add(false);
+            }
+            if (ranges.size() > MAX_ELEMENTS) {
+                throw new IllegalArgumentException("Pattern must not have more than " + MAX_ELEMENTS + " elements: " + pattern);
+            }
+        }
+        return new WordPattern(ranges, negated);
+    }
+
+    /**
+     * @return states active before any character is matched
+     */
+    long initialStates() {
+        return closure(1L);
+    }
+
+    /**
+     * @param states    active states
+     * @param character normalized character
+     * @return states active after matching character, 0 if the pattern cannot match any more
+     */
+    long step(final long states, final char character) {
+        long nextStates = 0;
+        long remainingStates = states & ~acceptingState;
+        while (remainingStates != 0) {
+            final int state = Long.numberOfTrailingZeros(remainingStates);
+            remainingStates &= remainingStates - 1;
+            if (ranges[state] == null) {
+                nextStates |= 1L << state;
+            } else if (matches(state, character)) {
+                nextStates |= 1L << (state + 1);
+            }
+        }
+        return closure(nextStates);
+    }
+
+    /**
+     * @return true if the characters matched so far are a word matching the pattern
+     */
+    boolean isAccepting(final long states) {
+        return (states & acceptingState) != 0;
+    }
+
+    /**
+     * @return true if more characters can be matched, i.e. a state other than the accepting state is active
+     */
+    boolean canContinue(final long states) {
+        return (states & ~acceptingState) != 0;
+    }
+
+    /**
+     * @return true if any continuation of the characters matched so far, including none, matches the pattern,
+     * i.e. only stars are left
+     */
+    boolean matchesAnything(final long states) {
+        return (states & anythingStates) != 0;
+    }
+
+    /**
+     * @return the only character which step can match from states, or -1 if several characters can be matched
+     */
+    int singleCharacter(final long states) {
+        int character = -1;
+        long remainingStates = states & ~acceptingState;
+        while (remainingStates != 0) {
+            final int state = Long.numberOfTrailingZeros(remainingStates);
+            remainingStates &= remainingStates - 1;
+            final char[] stateRanges = ranges[state];
+            if (stateRanges == null || negated[state] || stateRanges.length != 2 || stateRanges[0] != stateRanges[1]
+                    || (character != -1 && character != stateRanges[0])) {
+                return -1;
+            }
+            character = stateRanges[0];
+        }
+        return character;
+    }
+
+    private boolean matches(final int state, final char character) {
+        final char[] stateRanges = ranges[state];
+        for (int i = 0; i < stateRanges.length; i += 2) {
+            if (character >= stateRanges[i] && character <= stateRanges[i + 1]) {
+                return !negated[state];
+            }
+        }
+        return negated[state];
+    }
+
+    /**
+     * A star can match no character, so the state after a star is active whenever the state of the star is.
+     */
+    private long closure(final long states) {
+        long closedStates = states;
+        long remainingStates = states & starStates;
+        while (remainingStates != 0) {
+            final int state = Long.numberOfTrailingZeros(remainingStates);
+            remainingStates &= remainingStates - 1;
+            closedStates |= 1L << (state + 1);
+        }
+        return closedStates;
+    }
+}
@@ -0,0 +1,373 @@
+package au.com.mindworks.dictionary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of the changes made to a {@link DurableDictionary} since its last snapshot.
+ * <p/>
+ * All numbers are big-endian. The file starts with a header:
+ * <pre>
+ * int magic ("DWAL"), int version
+ * </pre>
+ * followed by one record per change:
+ * <pre>
+ * byte  type, ADD or REMOVE, | ONE_BYTE_CHARACTERS if every character of the word is below 128
+ * int   number of characters of the word
+ * byte  each character if ONE_BYTE_CHARACTERS is set, otherwise char each character
+ * int   CRC32 of the bytes above
+ * </pre>
+ * Records are first appended to an in-memory buffer, which is written and forced to the file by {@link #flush()}.
+ * Only one thread flushes at a time, and the threads waiting for their records meanwhile find them flushed by the
+ * next flush, which writes all the records appended during the previous one with a single fsync (group commit).
+ * <p/>
+ * A crash may leave a torn record at the end of the file: {@link #replay(Dictionary)} stops at the first record
+ * which is incomplete or fails its checksum, and truncates the file there.
+ */
+final class WriteAheadLog implements Closeable {
+    static final int MAGIC = 0x4457414c;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final byte ADD = 1;
+    static final byte REMOVE = 2;
+    static final long ASYNC_FLUSH_INTERVAL_MILLIS = 50;
+
+    private static final byte ONE_BYTE_CHARACTERS = (byte) 0x80;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService flusher;
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer pending = ByteBuffer.allocate(BUFFER_SIZE);
+    private ByteBuffer spare = ByteBuffer.allocate(BUFFER_SIZE);
+    private long appendedSequence;
+    private long writtenBytes;
+    private int flushingBytes;
+    private volatile long durableSequence;
+    private volatile IOException flushFailure;
+
+    private WriteAheadLog(final Path path, final FileChannel channel, final DurabilityMode mode) {
+        this.path = path;
+        this.channel = channel;
+        this.flusher = mode == DurabilityMode.ASYNC ? Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "dictionary-log-flusher");
+                thread.setDaemon(true);
+                return thread;
+            }
+        }) : null;
+    }
+
+    /**
+     * Opens the log, creating it if it does not exist. {@link #replay(Dictionary)} must be called before appending.
+     *
+     * @throws IOException if the file cannot be opened or is not a dictionary log
+     */
+    static WriteAheadLog open(final Path path, final DurabilityMode mode) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                writeHeader(channel);
+            }
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("Not a dictionary log: " + path);
+                }
+            }
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a dictionary log: " + path);
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("Unsupported dictionary log version " + header.getInt(4) + ": " + path);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        final WriteAheadLog log = new WriteAheadLog(path, channel, mode);
+        if (log.flusher != null) {
+            log.flusher.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        log.flush();
+                    } catch (IOException e) {
+                        log.flushFailure = e;
+                    }
+                }
+            }, ASYNC_FLUSH_INTERVAL_MILLIS, ASYNC_FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return log;
+    }
+
+    private static void writeHeader(final FileChannel channel) throws IOException {
+        channel.truncate(0);
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(true);
+    }
+
+    /**
+     * Replay Algorithm:
+     * 1. Read the records one after the other, from the end of the header.
+     * 2. Stop at the first record which is incomplete or whose checksum does not match.
+     * 3. Apply each complete record to dictionary, adding or removing its word.
+     * 4. Truncate the file after the last complete record, so that new records follow it.
+     *
+     * @param dictionary the dictionary as of the snapshot the log was started from
+     * @return number of records applied
+     * @throws IOException if the file cannot be read or truncated
+     */
+    int replay(final Dictionary dictionary) throws IOException {
+        final long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Dictionary log is larger than 2GB: " + path);
+        }
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        final RecordWord word = new RecordWord();
+        int offset = HEADER_SIZE;
+        int recordCount = 0;
+        while (offset + 5 <= buffer.limit()) {
+            final byte type = buffer.get(offset);
+            final int characterCount = buffer.getInt(offset + 1);
+            final int bytesPerCharacter = (type & ONE_BYTE_CHARACTERS) != 0 ? 1 : 2;
+            final long recordSize = 5 + (long) characterCount * bytesPerCharacter + 4;
+            if (characterCount < 0 || offset + recordSize > buffer.limit()) {
+                break;
+            }
+            final int crcOffset = (int) (offset + recordSize - 4);
+            crc.reset();
+            final ByteBuffer record = buffer.duplicate();
+            record.limit(crcOffset);
+            record.position(offset);
+            crc.update(record);
+            if ((int) crc.getValue() != buffer.getInt(crcOffset)) {
+                break;
+            }
+
+            word.read(buffer, offset + 5, characterCount, bytesPerCharacter);
+            switch (type & ~ONE_BYTE_CHARACTERS) {
+                case ADD:
+                    dictionary.addWord(word);
+                    break;
+                case REMOVE:
+                    dictionary.removeWord(word);
+                    break;
+                default:
+                    throw new IOException("Unknown record type " + type + " at offset " + offset + ": " + path);
+            }
+            offset = crcOffset + 4;
+            recordCount++;
+        }
+
+        if (offset < size) {
+            channel.truncate(offset);
+            channel.force(true);
+        }
+        writtenBytes = offset;
+        return recordCount;
+    }
+
+    /**
+     * Appends the record to the in-memory buffer, it is only durable once {@link #awaitDurable(long)} returns.
+     *
+     * @param type ADD or REMOVE
+     * @param word
+     * @return sequence number of the record
+     * @throws IOException if a flush failed, e.g. in the background, as the record would never be written
+     */
+    synchronized long append(final byte type, final CharSequence word) throws IOException {
+        checkFlushFailure();
+        final int start = WordNormalizer.start(word);
+        final int end = WordNormalizer.end(word, start);
+        boolean oneByteCharacters = true;
+        for (int i = start; i < end && oneByteCharacters; i++) {
+            oneByteCharacters = word.charAt(i) < 128;
+        }
+        final int recordSize = 5 + (end - start) * (oneByteCharacters ? 1 : 2) + 4;
+        if (pending.remaining() < recordSize) {
+            final ByteBuffer largerBuffer = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + recordSize));
+            pending.flip();
+            pending = largerBuffer.put(pending);
+        }
+
+        final int recordStart = pending.position();
+        pending.put(oneByteCharacters ? (byte) (type | ONE_BYTE_CHARACTERS) : type).putInt(end - start);
+        for (int i = start; i < end; i++) {
+            if (oneByteCharacters) {
+                pending.put((byte) word.charAt(i));
+            } else {
+                pending.putChar(word.charAt(i));
+            }
+        }
+        crc.reset();
+        crc.update(pending.array(), recordStart, pending.position() - recordStart);
+        pending.putInt((int) crc.getValue());
+        return ++appendedSequence;
+    }
+
+    /**
+     * Returns once the record of sequence is forced to disk, flushing the pending records if no other thread
+     * has flushed it meanwhile.
+     *
+     * @throws IOException if the records cannot be written or forced, or a background flush failed
+     */
+    void awaitDurable(final long sequence) throws IOException {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        synchronized (flushLock) {
+            if (durableSequence < sequence) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Writes and forces all the records appended so far. Once a flush failed, the records appended since are never
+     * written and every flush fails, as the end of the file is unknown.
+     */
+    void flush() throws IOException {
+        synchronized (flushLock) {
+            checkFlushFailure();
+            final ByteBuffer records;
+            final long sequence;
+            synchronized (this) {
+                if (pending.position() == 0) {
+                    return;
+                }
+                records = pending;
+                pending = spare;
+                spare = null;
+                sequence = appendedSequence;
+                flushingBytes = records.position();
+            }
+
+            records.flip();
+            long position = writtenBytes;
+            try {
+                while (records.hasRemaining()) {
+                    position += channel.write(records, position);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                flushFailure = e;
+                throw e;
+            }
+            records.clear();
+            synchronized (this) {
+                writtenBytes = position;
+                flushingBytes = 0;
+                spare = records;
+            }
+            durableSequence = sequence;
+        }
+    }
+
+    private void checkFlushFailure() throws IOException {
+        final IOException failure = flushFailure;
+        if (failure != null) {
+            throw new IOException("Flushing the dictionary log failed: " + path, failure);
+        }
+    }
+
+    FileChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * @return bytes of the log, including the records being flushed and the ones not flushed yet
+     */
+    synchronized long size() {
+        return writtenBytes + flushingBytes + pending.position();
+    }
+
+    /**
+     * Empties the log, once its records are part of a snapshot. Records appended concurrently are discarded too,
+     * so the caller must prevent appends.
+     */
+    void reset() throws IOException {
+        synchronized (flushLock) {
+            synchronized (this) {
+                pending.clear();
+                writtenBytes = HEADER_SIZE;
+                durableSequence = appendedSequence;
+            }
+            channel.truncate(HEADER_SIZE);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Flushes the pending records and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Word of the record being replayed, reused from record to record.
+     */
+    private static final class RecordWord implements CharSequence {
+        private char[] characters = new char[16];
+        private int length;
+
+        private void read(final ByteBuffer buffer, final int offset, final int characterCount, final int bytesPerCharacter) {
+            if (characters.length < characterCount) {
+                characters = new char[Math.max(characterCount, characters.length * 2)];
+            }
+            for (int i = 0; i < characterCount; i++) {
+                characters[i] = bytesPerCharacter == 1 ? (char) buffer.get(offset + i) : buffer.getChar(offset + 2 * i);
+            }
+            length = characterCount;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            return characters[index];
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            return new String(characters, start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(characters, 0, length);
+        }
+    }
+}
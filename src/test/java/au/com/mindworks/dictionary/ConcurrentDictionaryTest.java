@@ -0,0 +1,167 @@
+package au.com.mindworks.dictionary;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Arrays.asList;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ConcurrentDictionaryTest {
+    private static final List<String> LIST_OF_WORDS = asList(
+            "a", "an", "any", "ant", "all", "allot", "alloy", "aloe", "are", "ate",
+            "be",
+            "dog", "dads", "dad", "digging",
+            "ear", "earn",
+            "i",
+            "mom", "moms", "mommy",
+            "you", "your"
+    );
+    private static final int THREAD_COUNT = 8;
+
+    private ConcurrentDictionary dictionary = new ConcurrentDictionary();
+
+    @Test
+    public void shouldBehaveLikeDictionaryWhenUsedByOneThread() {
+        final Dictionary expectedDictionary = new Dictionary();
+        expectedDictionary.addAllWords(LIST_OF_WORDS);
+        dictionary.addAllWords(LIST_OF_WORDS);
+        dictionary.addWord(" ANY ");
+        dictionary.addWord(" ");
+        dictionary.addWord(null);
+
+        assertThat(dictionary.size(), is(LIST_OF_WORDS.size()));
+        assertThat(dictionary.searchAllWords(), is(expectedDictionary.searchAllWords()));
+        assertThat(dictionary.searchAllWordsStartingWith("aLL"), is(asList("all", "allot", "alloy")));
+        assertThat(dictionary.countWordsStartingWith("a"), is(10));
+        assertTrue(dictionary.searchWord(" Digging"));
+        assertFalse(dictionary.searchWord("dig"));
+
+        assertFalse(dictionary.removeWord("dig"));
+        assertTrue(dictionary.removeWord("digging"));
+        assertTrue(dictionary.removeWord("dad"));
+        assertFalse(dictionary.searchWord("digging"));
+        assertTrue(dictionary.searchWord("dads"));
+        assertThat(dictionary.countWordsStartingWith("d"), is(2));
+        assertThat(dictionary.size(), is(LIST_OF_WORDS.size() - 2));
+    }
+
+    @Test
+    public void shouldAlwaysFindStableWordsWhileOtherWordsAreAddedAndRemovedConcurrently() throws Exception {
+        final List<String> stableWords = RandomWords.distinctWords(new Random(1), 2000, 8, 6);
+        final List<String> volatileWords = new ArrayList<String>(RandomWords.distinctWords(new Random(2), 4000, 8, 6));
+        volatileWords.removeAll(stableWords);
+        dictionary.addAllWords(stableWords);
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT * 2);
+        final List<Future<Boolean>> readers = new ArrayList<Future<Boolean>>();
+        final List<Future<Boolean>> writers = new ArrayList<Future<Boolean>>();
+        try {
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                readers.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        start.await();
+                        while (running.get()) {
+                            for (String stableWord : stableWords) {
+                                if (!dictionary.searchWord(stableWord)) {
+                                    return false;
+                                }
+                            }
+                            if (!dictionary.searchAllWords().containsAll(stableWords)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                final Random random = new Random(i);
+                writers.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        start.await();
+                        for (int j = 0; j < 50000; j++) {
+                            final String volatileWord = volatileWords.get(random.nextInt(volatileWords.size()));
+                            if (random.nextBoolean()) {
+                                dictionary.addWord(volatileWord);
+                            } else {
+                                dictionary.removeWord(volatileWord);
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+
+            start.countDown();
+            for (Future<Boolean> writer : writers) {
+                assertTrue(writer.get(1, TimeUnit.MINUTES));
+            }
+            running.set(false);
+            for (Future<Boolean> reader : readers) {
+                assertTrue("Expected readers to always find the stable words", reader.get(1, TimeUnit.MINUTES));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final List<String> allWords = dictionary.searchAllWords();
+        assertThat(dictionary.size(), is(allWords.size()));
+        assertTrue(allWords.containsAll(stableWords));
+        for (String word : allWords) {
+            assertTrue(dictionary.searchWord(word));
+        }
+        assertThat(dictionary.countWordsStartingWith("a"), is(dictionary.searchAllWordsStartingWith("a").size()));
+    }
+
+    @Test
+    public void shouldKeepCountsExactWhenSameWordsAreAddedAndRemovedConcurrently() throws Exception {
+        final List<String> words = RandomWords.distinctWords(new Random(3), 500, 8, 6);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            final List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                final List<String> shuffledWords = new ArrayList<String>(words);
+                Collections.shuffle(shuffledWords, new Random(i));
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int round = 0; round < 20; round++) {
+                            dictionary.addAllWords(shuffledWords);
+                            for (String word : shuffledWords) {
+                                dictionary.removeWord(word);
+                            }
+                        }
+                        dictionary.addAllWords(shuffledWords);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(dictionary.size(), is(words.size()));
+        assertThat(dictionary.searchAllWords().size(), is(words.size()));
+        assertThat(dictionary.countWordsStartingWith("b"), is(dictionary.searchAllWordsStartingWith("b").size()));
+    }
+}
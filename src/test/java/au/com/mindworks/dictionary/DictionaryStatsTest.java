@@ -0,0 +1,127 @@
+package au.com.mindworks.dictionary;
+
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class DictionaryStatsTest {
+    private static final List<String> LIST_OF_WORDS = asList(
+            "a", "an", "any", "ant", "all", "allot", "alloy", "aloe", "are", "ate",
+            "be",
+            "dog", "dads", "dad", "digging",
+            "ear", "earn",
+            "i",
+            "mom", "moms", "mommy",
+            "you", "your"
+    );
+
+    private Dictionary dictionary = new Dictionary();
+
+    @Test
+    public void shouldNotRecordAnythingWhileMetricsAreDisabled() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+        dictionary.searchWord("dog");
+
+        final DictionaryStats stats = dictionary.getStats();
+
+        assertFalse(dictionary.isMetricsEnabled());
+        assertThat(stats.getSize(), is(LIST_OF_WORDS.size()));
+        assertThat(stats.getNodeCount(), is(dictionary.nodeCount()));
+        assertThat(stats.getLookupCount(), is(0L));
+        assertThat(stats.getOperationCount(DictionaryOperation.ADD_WORD), is(0L));
+        assertThat(stats.getLatencyPercentileNanos(DictionaryOperation.ADD_WORD, 99), is(0L));
+    }
+
+    @Test
+    public void shouldRecordHitsMissesAndTraversalDepth() {
+        dictionary.enableMetrics();
+        dictionary.addAllWords(LIST_OF_WORDS);
+
+        assertTrue(dictionary.searchWord("dog"));
+        assertTrue(dictionary.searchWord(" MOMMY "));
+        assertFalse(dictionary.searchWord("dogs"));
+        assertFalse(dictionary.searchWord("zebra"));
+        assertFalse(dictionary.searchWord(" "));
+
+        final DictionaryStats stats = dictionary.getStats();
+        assertThat(stats.getLookupCount(), is(5L));
+        assertThat(stats.getHitCount(), is(2L));
+        assertThat(stats.getMissCount(), is(3L));
+        assertThat(stats.getHitRatio(), is(0.4));
+        // dog: 3, mommy: 5, dogs: 3, zebra: 0, blank: 0
+        assertThat(stats.getAverageTraversalDepth(), is(11 / 5.0));
+        assertThat(stats.getOperationCount(DictionaryOperation.SEARCH_WORD), is(5L));
+        assertThat(stats.getOperationCount(DictionaryOperation.ADD_WORD), is((long) LIST_OF_WORDS.size()));
+    }
+
+    @Test
+    public void shouldRecordPrefixQueriesAndLatencies() {
+        dictionary.enableMetrics();
+        dictionary.addAllWords(LIST_OF_WORDS);
+        dictionary.addWord("zebra", 3);
+        dictionary.removeWord("zebra");
+        dictionary.removeWord("zebra");
+
+        assertThat(dictionary.searchAllWordsStartingWith("a").size(), is(10));
+        assertThat(dictionary.searchAllWordsStartingWith("mo").size(), is(3));
+        assertThat(dictionary.searchAllWordsStartingWith("x").size(), is(0));
+        assertThat(dictionary.searchAllWordsStartingWith("a", 0, 2).size(), is(2));
+
+        final DictionaryStats stats = dictionary.getStats();
+        assertThat(stats.getPrefixQueryCount(), is(4L));
+        assertThat(stats.getAveragePrefixResultSize(), is(15 / 4.0));
+        assertThat(stats.getOperationCount(DictionaryOperation.ADD_WORD), is(LIST_OF_WORDS.size() + 1L));
+        assertThat(stats.getOperationCount(DictionaryOperation.REMOVE_WORD), is(2L));
+        for (DictionaryOperation operation : DictionaryOperation.values()) {
+            final long maxNanos = stats.getMaxLatencyNanos(operation);
+            assertTrue(stats.getMeanLatencyNanos(operation) <= maxNanos);
+            assertTrue(stats.getLatencyPercentileNanos(operation, 100) >= maxNanos);
+            assertTrue(stats.getLatencyPercentileNanos(operation, 100) < 2 * maxNanos + 1);
+            assertTrue(stats.getLatencyPercentileNanos(operation, 50) <= stats.getLatencyPercentileNanos(operation, 99));
+        }
+    }
+
+    @Test
+    public void shouldDiscardMetricsWhenDisabled() {
+        dictionary.enableMetrics();
+        dictionary.searchWord("dog");
+        dictionary.enableMetrics();
+        assertThat(dictionary.getStats().getLookupCount(), is(1L));
+
+        dictionary.disableMetrics();
+        dictionary.searchWord("dog");
+        dictionary.enableMetrics();
+
+        assertThat(dictionary.getStats().getLookupCount(), is(0L));
+    }
+
+    @Test
+    public void shouldExposeStatsThroughJmx() throws Exception {
+        dictionary.enableMetrics();
+        dictionary.addAllWords(LIST_OF_WORDS);
+        dictionary.searchWord("dog");
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = dictionary.registerMXBean("test");
+        try {
+            assertThat(server.getAttribute(name, "Size"), is((Object) LIST_OF_WORDS.size()));
+            assertThat(server.getAttribute(name, "HitCount"), is((Object) 1L));
+
+            dictionary.searchWord("cat");
+
+            assertThat(server.getAttribute(name, "MissCount"), is((Object) 1L));
+            assertTrue(server.getAttribute(name, "P99LatencyNanos") != null);
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
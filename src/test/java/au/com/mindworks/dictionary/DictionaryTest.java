@@ -1,10 +1,21 @@
 package au.com.mindworks.dictionary;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
+import java.util.stream.Collectors;
 
 import static java.util.Arrays.asList;
 import static junit.framework.Assert.assertFalse;
@@ -24,6 +35,9 @@ public class DictionaryTest {
             "you", "your"
     );
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private Dictionary dictionary = new Dictionary();
 
     @Test
@@ -227,4 +241,579 @@ public class DictionaryTest {
             assertThat(isWordRemoved, is(doesWordExistInDictionary));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldAddSearchAndRemoveVeryLongWord() {
+        final StringBuilder veryLongWord = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            veryLongWord.append((char) ('a' + i % 26));
+        }
+
+        dictionary.addWord(veryLongWord);
+
+        assertTrue(dictionary.searchWord(veryLongWord));
+        assertFalse(dictionary.searchWord(veryLongWord.substring(1)));
+        assertTrue(dictionary.removeWord(veryLongWord.toString()));
+        assertFalse(dictionary.searchWord(veryLongWord));
+    }
+
+    @Test
+    public void shouldSearchWordsFromReusableBuffer() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+
+        final StringBuilder buffer = new StringBuilder();
+        for (String word : LIST_OF_WORDS) {
+            buffer.setLength(0);
+            buffer.append("  ").append(word.toUpperCase()).append('\t');
+
+            assertTrue("Expected to find word: '" + buffer + "'", dictionary.searchWord(buffer));
+        }
+
+        buffer.setLength(0);
+        buffer.append("dig");
+        assertFalse(dictionary.searchWord(buffer));
+    }
+
+    @Test
+    public void shouldKeepOtherWordsSharingPrefixWhenRemovingWord() {
+        dictionary.addAllWords(asList("dog", "do", "digging"));
+
+        assertTrue(dictionary.removeWord("dog"));
+        assertTrue(dictionary.searchWord("do"));
+        assertTrue(dictionary.searchWord("digging"));
+        assertTrue(dictionary.searchAllWordsStartingWith("dog").isEmpty());
+
+        assertTrue(dictionary.removeWord("do"));
+        assertTrue(dictionary.searchWord("digging"));
+        assertTrue(dictionary.searchAllWordsStartingWith("do").isEmpty());
+        assertThat(dictionary.searchAllWords(), is(asList("digging")));
+    }
+
+    @Test
+    public void shouldCountWordsAndNodesIncrementally() {
+        dictionary.addAllWords(asList("dog", "dad", "dads", "digging"));
+
+        assertThat(dictionary.size(), is(4));
+        assertThat(dictionary.nodeCount(), is(1 + 2 + 2 + 1 + 6));
+
+        dictionary.addWord(" DOG ");
+        dictionary.addWord("dads");
+
+        assertThat(dictionary.size(), is(4));
+        assertThat(dictionary.nodeCount(), is(12));
+
+        assertFalse(dictionary.removeWord("do"));
+        assertTrue(dictionary.removeWord("digging"));
+
+        assertThat(dictionary.size(), is(3));
+        assertThat(dictionary.nodeCount(), is(6));
+
+        assertTrue(dictionary.removeWord("dad"));
+
+        assertThat(dictionary.size(), is(2));
+        assertThat(dictionary.nodeCount(), is(6));
+
+        assertTrue(dictionary.removeWord("dads"));
+        assertTrue(dictionary.removeWord("dog"));
+
+        assertThat(dictionary.size(), is(0));
+        assertThat(dictionary.nodeCount(), is(0));
+    }
+
+    @Test
+    public void shouldCountWordsStartingWithPrefix() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+
+        assertThat(dictionary.countWordsStartingWith("a"), is(10));
+        assertThat(dictionary.countWordsStartingWith("aN"), is(3));
+        assertThat(dictionary.countWordsStartingWith(" allo "), is(2));
+        assertThat(dictionary.countWordsStartingWith("mommy"), is(1));
+        assertThat(dictionary.countWordsStartingWith("mommys"), is(0));
+        assertThat(dictionary.countWordsStartingWith("sh"), is(0));
+        assertThat(dictionary.countWordsStartingWith(" "), is(LIST_OF_WORDS.size()));
+        assertThat(dictionary.countWordsStartingWith(null), is(LIST_OF_WORDS.size()));
+
+        dictionary.removeWord("alloy");
+        dictionary.addWord("allow");
+        dictionary.addWord("allot");
+
+        assertThat(dictionary.countWordsStartingWith("allo"), is(2));
+        assertThat(dictionary.countWordsStartingWith("a"), is(10));
+    }
+
+    @Test
+    public void shouldProvideWordsStartingWithPrefixInLexicographicalOrder() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+
+        final List<String> sortedWords = new ArrayList<String>(LIST_OF_WORDS);
+        Collections.sort(sortedWords);
+
+        assertThat(dictionary.searchAllWords(), is(sortedWords));
+        assertThat(dictionary.searchAllWordsStartingWith("a"), is(asList("a", "all", "allot", "alloy", "aloe", "an", "ant", "any", "are", "ate")));
+        assertThat(dictionary.searchAllWordsStartingWith("MOM"), is(asList("mom", "mommy", "moms")));
+    }
+
+    @Test
+    public void shouldProvideBoundedWordsStartingWithPrefix() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+
+        assertThat(dictionary.searchAllWordsStartingWith("a", 0, 3), is(asList("a", "all", "allot")));
+        assertThat(dictionary.searchAllWordsStartingWith("a", 3, 3), is(asList("alloy", "aloe", "an")));
+        assertThat(dictionary.searchAllWordsStartingWith("a", 8, 3), is(asList("are", "ate")));
+        assertTrue(dictionary.searchAllWordsStartingWith("a", 10, 3).isEmpty());
+        assertTrue(dictionary.searchAllWordsStartingWith("a", 0, 0).isEmpty());
+        assertThat(dictionary.searchAllWordsStartingWith(" ", 21, 5), is(asList("you", "your")));
+        assertTrue(dictionary.searchAllWordsStartingWith("sh", 0, 5).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeOffset() {
+        dictionary.searchAllWordsStartingWith("a", -1, 3);
+    }
+
+    @Test
+    public void shouldIterateAndStreamWordsStartingWithPrefixLazily() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+
+        final Iterator<String> iterator = dictionary.iterateWordsStartingWith(" Al");
+        assertThat(iterator.next(), is("all"));
+        assertThat(iterator.next(), is("allot"));
+        assertThat(iterator.next(), is("alloy"));
+        assertThat(iterator.next(), is("aloe"));
+        assertFalse(iterator.hasNext());
+
+        assertFalse(dictionary.iterateWordsStartingWith("sh").hasNext());
+        assertThat(dictionary.streamWordsStartingWith("a").limit(4).collect(Collectors.toList()), is(asList("a", "all", "allot", "alloy")));
+        assertThat(dictionary.streamWordsStartingWith("d").count(), is(4L));
+        assertThat(dictionary.streamWordsStartingWith(null).count(), is((long) LIST_OF_WORDS.size()));
+    }
+
+    @Test
+    public void shouldAddAllWordsInParallelLikeSequentially() {
+        final Random random = new Random(7);
+        final List<String> words = new ArrayList<String>();
+        for (int i = 0; i < ParallelTrieBuilder.CHUNK_SIZE * 2 + 100; i++) {
+            final StringBuilder word = new StringBuilder(random.nextBoolean() ? " " : "");
+            final int length = 1 + random.nextInt(10);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ((random.nextBoolean() ? 'a' : 'A') + random.nextInt(26)));
+            }
+            words.add(word.toString());
+        }
+        words.add(" ");
+        words.add(null);
+
+        final Dictionary expectedDictionary = new Dictionary();
+        expectedDictionary.addAllWords(words.subList(0, 1000));
+        dictionary.addAllWords(words.subList(0, 1000));
+
+        expectedDictionary.addAllWords(words);
+        dictionary.addAllWordsInParallel(words.stream());
+
+        assertThat(dictionary.size(), is(expectedDictionary.size()));
+        assertThat(dictionary.nodeCount(), is(expectedDictionary.nodeCount()));
+        assertThat(dictionary.countWordsStartingWith("q"), is(expectedDictionary.countWordsStartingWith("q")));
+        assertThat(dictionary.searchAllWords(), is(expectedDictionary.searchAllWords()));
+    }
+
+    @Test
+    public void shouldAddAllWordsOfFileInParallel() throws Exception {
+        final Path wordsFile = temporaryFolder.newFile("words.txt").toPath();
+        Files.write(wordsFile, LIST_OF_WORDS, StandardCharsets.UTF_8);
+
+        dictionary.addAllWordsInParallel(wordsFile);
+
+        assertThat(dictionary.size(), is(LIST_OF_WORDS.size()));
+        assertTrue(dictionary.searchAllWords().containsAll(LIST_OF_WORDS));
+    }
+
+    @Test
+    public void shouldProvideHighestWeightedWordsStartingWithPrefix() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+        dictionary.addWord("any", 50);
+        dictionary.addWord("Alloy", 40);
+        dictionary.addWord("all", 30);
+        dictionary.addWord("ate", 30);
+        dictionary.addWord("mommy", 70);
+        dictionary.addWord("antelope", 60);
+
+        assertThat(dictionary.size(), is(LIST_OF_WORDS.size() + 1));
+        assertThat(dictionary.topK("a", 4), is(asList("antelope", "any", "alloy", "all")));
+        assertThat(dictionary.topK("a", 5), is(asList("antelope", "any", "alloy", "all", "ate")));
+        assertThat(dictionary.topK(" AL", 10), is(asList("alloy", "all", "allot", "aloe")));
+        assertThat(dictionary.topK(null, 2), is(asList("mommy", "antelope")));
+        assertThat(dictionary.topK("d", 3), is(asList("dad", "dads", "digging")));
+        assertTrue(dictionary.topK("sh", 3).isEmpty());
+        assertTrue(dictionary.topK("a", 0).isEmpty());
+    }
+
+    @Test
+    public void shouldUpdateHighestWeightedWordsWhenWeightsChangeAndWordsAreRemoved() {
+        dictionary.addWord("ant", 10);
+        dictionary.addWord("antelope", 60);
+        dictionary.addWord("any", 50);
+
+        assertThat(dictionary.topK("an", 1), is(asList("antelope")));
+
+        dictionary.addWord("antelope", 5);
+        assertThat(dictionary.topK("an", 3), is(asList("any", "ant", "antelope")));
+
+        assertTrue(dictionary.removeWord("any"));
+        assertThat(dictionary.topK("an", 1), is(asList("ant")));
+
+        assertTrue(dictionary.removeWord("ant"));
+        assertThat(dictionary.topK("an", 3), is(asList("antelope")));
+
+        dictionary.addWord("ant");
+        assertThat(dictionary.topK("an", 3), is(asList("antelope", "ant")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeWeight() {
+        dictionary.addWord("ant", -1);
+    }
+
+    @Test
+    public void shouldProvideWordsWithinEditDistance() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+
+        assertThat(dictionary.searchWithinDistance("alloe", 1), is(asList("allot", "alloy", "aloe")));
+        assertThat(dictionary.searchWithinDistance(" ALLOE ", 2), is(asList("all", "allot", "alloy", "aloe")));
+        assertThat(dictionary.searchWithinDistance("dog", 0), is(asList("dog")));
+        assertThat(dictionary.searchWithinDistance("dg", 1), is(asList("dog")));
+        assertThat(dictionary.searchWithinDistance("momy", 1), is(asList("mom", "mommy", "moms")));
+        assertTrue(dictionary.searchWithinDistance("zebra", 2).isEmpty());
+        assertTrue(dictionary.searchWithinDistance(" ", 2).isEmpty());
+        assertTrue(dictionary.searchWithinDistance(null, 2).isEmpty());
+    }
+
+    @Test
+    public void shouldProvideClosestWordsWithinEditDistance() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+
+        assertThat(dictionary.searchWithinDistance("aloy", 2, 10), is(asList("alloy", "aloe", "all", "allot", "any")));
+        assertThat(dictionary.searchWithinDistance("aloy", 2, 3), is(asList("alloy", "aloe", "all")));
+        assertThat(dictionary.searchWithinDistance("eat", 2, 4), is(asList("ear", "a", "an", "ant")));
+        assertTrue(dictionary.searchWithinDistance("ear", 1, 0).isEmpty());
+    }
+
+    @Test
+    public void shouldProvideAllWordsWithinHugeEditDistance() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+
+        assertThat(dictionary.searchWithinDistance("dog", Integer.MAX_VALUE), is(dictionary.searchAllWords()));
+        assertThat(dictionary.searchWithinDistance("i", Integer.MAX_VALUE - 1, 2), is(asList("i", "a")));
+        assertThat(dictionary.searchWithinDistance("a", 7), is(dictionary.searchAllWords()));
+    }
+
+    @Test
+    public void shouldProvideVeryLongWordsWithinHugeEditDistance() {
+        final StringBuilder longWord = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            longWord.append((char) ('a' + i % 26));
+        }
+        dictionary.addAllWords(asList(longWord.toString(), "ab", "abc"));
+
+        assertThat(dictionary.searchWithinDistance("ab", Integer.MAX_VALUE), is(asList("ab", "abc", longWord.toString())));
+        assertThat(dictionary.searchWithinDistance("ab", Integer.MAX_VALUE, 2), is(asList("ab", "abc")));
+        assertThat(dictionary.searchWithinDistance("abcd", Integer.MAX_VALUE, 1), is(asList("abc")));
+    }
+
+    @Test
+    public void shouldFindSameWordsWithinEditDistanceAsBruteForce() {
+        final Random random = new Random(13);
+        for (int i = 0; i < 20000; i++) {
+            final StringBuilder word = new StringBuilder();
+            final int length = 1 + random.nextInt(7);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('a' + random.nextInt(6)));
+            }
+            dictionary.addWord(word);
+        }
+
+        for (String query : asList("abc", "fedcba", "aaaa", "b")) {
+            for (int maxEdits = 0; maxEdits <= 2; maxEdits++) {
+                final List<String> expectedWords = new ArrayList<String>();
+                for (String word : dictionary.searchAllWords()) {
+                    if (levenshteinDistance(query, word) <= maxEdits) {
+                        expectedWords.add(word);
+                    }
+                }
+                assertThat(dictionary.searchWithinDistance(query, maxEdits), is(expectedWords));
+
+                final List<String> expectedClosestWords = new ArrayList<String>(expectedWords);
+                final String currentQuery = query;
+                Collections.sort(expectedClosestWords, new Comparator<String>() {
+                    @Override
+                    public int compare(final String first, final String second) {
+                        return levenshteinDistance(currentQuery, first) - levenshteinDistance(currentQuery, second);
+                    }
+                });
+                assertThat(dictionary.searchWithinDistance(query, maxEdits, 5),
+                        is(expectedClosestWords.subList(0, Math.min(5, expectedClosestWords.size()))));
+            }
+        }
+    }
+
+    @Test
+    public void shouldProvideWordsMatchingPattern() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+
+        assertThat(dictionary.searchPattern("d?g*"), is(asList("digging", "dog")));
+        assertThat(dictionary.searchPattern("a.l.y"), is(asList("alloy")));
+        assertThat(dictionary.searchPattern("*s"), is(asList("dads", "moms")));
+        assertThat(dictionary.searchPattern("*n"), is(asList("an", "earn")));
+        assertThat(dictionary.searchPattern("a*o**"), is(asList("allot", "alloy", "aloe")));
+        assertThat(dictionary.searchPattern(" MO* "), is(asList("mom", "mommy", "moms")));
+        assertThat(dictionary.searchPattern("[a-d]?"), is(asList("an", "be")));
+        assertThat(dictionary.searchPattern("[^a]??"), is(asList("dad", "dog", "ear", "mom", "you")));
+        assertThat(dictionary.searchPattern("[ie]*"), is(asList("ear", "earn", "i")));
+        assertThat(dictionary.searchPattern("*").size(), is(LIST_OF_WORDS.size()));
+        assertTrue(dictionary.searchPattern("x*").isEmpty());
+        assertTrue(dictionary.searchPattern(" ").isEmpty());
+        assertTrue(dictionary.searchPattern(null).isEmpty());
+
+        final Iterator<String> iterator = dictionary.iterateWordsMatching("?n*");
+        assertThat(iterator.next(), is("an"));
+        assertThat(iterator.next(), is("ant"));
+        assertThat(iterator.next(), is("any"));
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnclosedCharacterClass() {
+        dictionary.searchPattern("d[ao");
+    }
+
+    @Test
+    public void shouldFindSameWordsMatchingPatternAsRegularExpression() {
+        final Random random = new Random(17);
+        for (int i = 0; i < 20000; i++) {
+            final StringBuilder word = new StringBuilder();
+            final int length = 1 + random.nextInt(7);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('a' + random.nextInt(4)));
+            }
+            dictionary.addWord(word);
+        }
+
+        for (String pattern : asList("a*", "*a", "a?c*", "*b*b*", "?", "[ab]*[^cd]", "??*??", "*a*?", "d[a-c]b", "abcd")) {
+            final List<String> expectedWords = new ArrayList<String>();
+            final String regularExpression = pattern.replace("?", ".").replace("*", ".*");
+            for (String word : dictionary.searchAllWords()) {
+                if (word.matches(regularExpression)) {
+                    expectedWords.add(word);
+                }
+            }
+            assertThat(pattern, dictionary.searchPattern(pattern), is(expectedWords));
+        }
+    }
+
+    @Test
+    public void shouldSearchWordsInBatch() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+
+        final CharSequence[] wordsToSearch = {"mommy", "al", " Dog ", null, "allot", "mommy", "", "zebra", "a", "alloys",
+                new StringBuilder("EARN"), "all", "mo"};
+        final boolean[] found = dictionary.searchWords(wordsToSearch);
+
+        for (int i = 0; i < wordsToSearch.length; i++) {
+            assertThat(String.valueOf(wordsToSearch[i]), found[i], is(dictionary.searchWord(wordsToSearch[i])));
+        }
+        assertThat(dictionary.searchWords(asList("dad", "dads", "dadss", "you")), is(BitSet.valueOf(new long[]{0b1011})));
+        assertThat(dictionary.searchWords(new CharSequence[0]).length, is(0));
+    }
+
+    @Test
+    public void shouldSearchWordsInBatchLikeOneByOne() {
+        final Random random = new Random(19);
+        final CharSequence[] wordsToSearch = new CharSequence[5000];
+        for (int i = 0; i < 10000; i++) {
+            final StringBuilder word = new StringBuilder();
+            final int length = 1 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('a' + random.nextInt(4)));
+            }
+            if (i % 2 == 0) {
+                dictionary.addWord(word);
+            } else {
+                wordsToSearch[i / 2] = word;
+            }
+        }
+
+        final boolean[] found = dictionary.searchWords(wordsToSearch);
+        for (int i = 0; i < wordsToSearch.length; i++) {
+            assertThat(wordsToSearch[i].toString(), found[i], is(dictionary.searchWord(wordsToSearch[i])));
+        }
+    }
+
+    @Test
+    public void shouldSearchTokensOfText() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+
+        final CharBuffer text = CharBuffer.wrap("The dog, and your MOM: digging 42 ants... an ear!");
+        text.position(4);
+        final List<String> foundTokens = new ArrayList<String>();
+        final List<String> missingTokens = new ArrayList<String>();
+        final int foundCount = dictionary.searchTokens(text, new TokenVisitor() {
+            @Override
+            public void visitToken(final CharBuffer text, final int start, final int end, final boolean found) {
+                (found ? foundTokens : missingTokens).add(text.duplicate().position(start).limit(end).toString());
+            }
+        });
+
+        assertThat(foundCount, is(6));
+        assertThat(foundTokens, is(asList("dog", "your", "MOM", "digging", "an", "ear")));
+        assertThat(missingTokens, is(asList("and", "42", "ants")));
+        assertThat(text.position(), is(4));
+    }
+
+    @Test
+    public void shouldServeCachedWordsStartingWithPrefixUntilPrefixChanges() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+        dictionary.enablePrefixCache(1000, CacheEvictionPolicy.LRU);
+
+        assertThat(dictionary.searchAllWordsStartingWith("an"), is(asList("an", "ant", "any")));
+        final List<String> cachedWords = dictionary.searchAllWordsStartingWith(" AN");
+        assertThat(cachedWords, is(asList("an", "ant", "any")));
+        assertThat(dictionary.getStats().getPrefixCacheHitCount(), is(1L));
+
+        cachedWords.clear();
+        dictionary.addWord("zebra");
+        assertThat(dictionary.searchAllWordsStartingWith("an"), is(asList("an", "ant", "any")));
+        assertThat(dictionary.searchAllWordsStartingWith("an", 1, 5), is(asList("ant", "any")));
+        assertThat(dictionary.getStats().getPrefixCacheHitCount(), is(3L));
+
+        dictionary.addWord("anvil");
+        assertThat(dictionary.searchAllWordsStartingWith("an"), is(asList("an", "ant", "anvil", "any")));
+        dictionary.removeWord("ant");
+        assertThat(dictionary.searchAllWordsStartingWith("an"), is(asList("an", "anvil", "any")));
+        dictionary.removeWord("an");
+        dictionary.removeWord("any");
+        dictionary.removeWord("anvil");
+        assertTrue(dictionary.searchAllWordsStartingWith("an").isEmpty());
+        dictionary.addWord("an");
+        assertThat(dictionary.searchAllWordsStartingWith("an"), is(asList("an")));
+        assertThat(dictionary.getStats().getPrefixCacheHitCount(), is(3L));
+        assertThat(dictionary.getStats().getPrefixCacheMissCount(), is(5L));
+    }
+
+    @Test
+    public void shouldProvideSameWordsStartingWithPrefixWithAndWithoutCache() {
+        final Dictionary cachedDictionary = new Dictionary();
+        cachedDictionary.enablePrefixCache(200, CacheEvictionPolicy.TINY_LFU);
+        final Random random = new Random(23);
+        for (int i = 0; i < 5000; i++) {
+            final StringBuilder word = new StringBuilder();
+            final int length = 1 + random.nextInt(5);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('a' + random.nextInt(3)));
+            }
+            final String prefix = word.substring(0, random.nextInt(Math.min(length, 3)));
+            switch (random.nextInt(3)) {
+                case 0:
+                    dictionary.addWord(word);
+                    cachedDictionary.addWord(word);
+                    break;
+                case 1:
+                    assertThat(cachedDictionary.removeWord(word), is(dictionary.removeWord(word)));
+                    break;
+                default:
+                    assertThat(cachedDictionary.searchAllWordsStartingWith(prefix), is(dictionary.searchAllWordsStartingWith(prefix)));
+                    assertThat(cachedDictionary.searchAllWordsStartingWith(prefix, 2, 3), is(dictionary.searchAllWordsStartingWith(prefix, 2, 3)));
+            }
+        }
+        assertTrue(cachedDictionary.getStats().getPrefixCacheHitCount() > 0);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedPrefixes() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+        dictionary.enablePrefixCache(8, CacheEvictionPolicy.LRU);
+
+        dictionary.searchAllWordsStartingWith("an");
+        dictionary.searchAllWordsStartingWith("mo");
+        dictionary.searchAllWordsStartingWith("an");
+        dictionary.searchAllWordsStartingWith("ea");
+        assertThat(dictionary.getStats().getPrefixCacheHitCount(), is(1L));
+
+        dictionary.searchAllWordsStartingWith("an");
+        dictionary.searchAllWordsStartingWith("ea");
+        assertThat(dictionary.getStats().getPrefixCacheHitCount(), is(3L));
+        dictionary.searchAllWordsStartingWith("mo");
+        assertThat(dictionary.getStats().getPrefixCacheHitCount(), is(3L));
+    }
+
+    @Test
+    public void shouldNotAdmitRarePrefixesWithTinyLfu() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+        dictionary.enablePrefixCache(8, CacheEvictionPolicy.TINY_LFU);
+
+        for (int i = 0; i < 3; i++) {
+            dictionary.searchAllWordsStartingWith("an");
+            dictionary.searchAllWordsStartingWith("mo");
+        }
+        assertThat(dictionary.getStats().getPrefixCacheHitCount(), is(4L));
+
+        dictionary.searchAllWordsStartingWith("ea");
+        dictionary.searchAllWordsStartingWith("an");
+        dictionary.searchAllWordsStartingWith("mo");
+        assertThat(dictionary.getStats().getPrefixCacheHitCount(), is(6L));
+        assertThat(dictionary.getStats().getPrefixCacheMissCount(), is(3L));
+    }
+
+    @Test
+    public void shouldSizeTinyLfuSketchFromEntriesNotFromWords() {
+        final PrefixQueryCache cache = new PrefixQueryCache(10000000L, CacheEvictionPolicy.TINY_LFU);
+        assertThat(cache.getSketchWidth(), is(256));
+
+        for (int i = 0; i < 100; i++) {
+            cache.put("prefix" + i, null, Collections.<String>emptyList());
+        }
+        assertThat(cache.getSketchWidth(), is(512));
+        assertThat(new PrefixQueryCache(10000000L, CacheEvictionPolicy.LRU).getSketchWidth(), is(0));
+    }
+
+    @Test
+    public void shouldKeepHalvedFrequenciesWhenWideningTinyLfuSketch() {
+        final FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 8; i++) {
+            sketch.increment("an");
+        }
+        sketch.increment("mo");
+        sketch.increment("mo");
+
+        sketch.ensureCapacity(1024);
+
+        assertThat(sketch.getWidth(), is(1024));
+        assertThat(sketch.frequency("an"), is(4));
+        assertThat(sketch.frequency("mo"), is(1));
+    }
+
+    @Test
+    public void shouldProvideWordsTooManyForPrefixCache() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+        dictionary.enablePrefixCache(4, CacheEvictionPolicy.LRU);
+
+        final List<String> words = dictionary.searchAllWordsStartingWith("a");
+        assertThat(words, is(asList("a", "all", "allot", "alloy", "aloe", "an", "ant", "any", "are", "ate")));
+        words.clear();
+        assertThat(dictionary.searchAllWordsStartingWith("a").size(), is(10));
+        assertThat(dictionary.getStats().getPrefixCacheHitCount(), is(0L));
+    }
+
+    private static int levenshteinDistance(final String first, final String second) {
+        final int[][] distances = new int[first.length() + 1][second.length() + 1];
+        for (int i = 0; i <= first.length(); i++) {
+            for (int j = 0; j <= second.length(); j++) {
+                if (i == 0 || j == 0) {
+                    distances[i][j] = i + j;
+                } else {
+                    final int substitution = distances[i - 1][j - 1] + (first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1);
+                    distances[i][j] = Math.min(substitution, Math.min(distances[i - 1][j], distances[i][j - 1]) + 1);
+                }
+            }
+        }
+        return distances[first.length()][second.length()];
+    }
+}
@@ -0,0 +1,226 @@
+package au.com.mindworks.dictionary;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class DurableDictionaryTest {
+    private static final List<String> LIST_OF_WORDS = asList(
+            "a", "an", "any", "ant", "all", "allot", "alloy", "aloe", "are", "ate",
+            "be",
+            "dog", "dads", "dad", "digging",
+            "ear", "earn",
+            "i",
+            "mom", "moms", "mommy",
+            "you", "your"
+    );
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = temporaryFolder.getRoot().toPath().resolve("dictionary");
+    }
+
+    @Test
+    public void shouldRecoverChangesInEveryDurabilityMode() throws Exception {
+        for (DurabilityMode mode : DurabilityMode.values()) {
+            final Path modeDirectory = directory.resolve(mode.name());
+            try (DurableDictionary dictionary = DurableDictionary.open(modeDirectory, mode)) {
+                dictionary.addAllWords(LIST_OF_WORDS);
+                dictionary.addWord(" ANY ");
+                dictionary.addWord("D\u00c9j\u00e0");
+                assertTrue(dictionary.removeWord("digging"));
+                assertFalse(dictionary.removeWord("dig"));
+            }
+
+            try (DurableDictionary dictionary = DurableDictionary.open(modeDirectory, mode)) {
+                assertThat(dictionary.size(), is(LIST_OF_WORDS.size()));
+                assertTrue(dictionary.searchWord("d\u00e9j\u00e0"));
+                assertFalse(dictionary.searchWord("digging"));
+                assertThat(dictionary.searchAllWordsStartingWith("all"), is(asList("all", "allot", "alloy")));
+            }
+        }
+    }
+
+    @Test
+    public void shouldOnlyLogChanges() throws Exception {
+        try (DurableDictionary dictionary = DurableDictionary.open(directory, DurabilityMode.SYNC)) {
+            dictionary.addWord("any");
+            final long logSize = dictionary.logSize();
+
+            dictionary.addWord("ANY");
+            dictionary.addWord(" ");
+            dictionary.removeWord("ant");
+
+            assertThat(dictionary.logSize(), is(logSize));
+        }
+    }
+
+    @Test
+    public void shouldIgnoreTornRecordAtEndOfLog() throws Exception {
+        try (DurableDictionary dictionary = DurableDictionary.open(directory, DurabilityMode.SYNC)) {
+            dictionary.addAllWords(LIST_OF_WORDS);
+            dictionary.addWord("zebra");
+        }
+        final Path logFile = directory.resolve(DurableDictionary.LOG_FILE_NAME);
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+
+        try (DurableDictionary dictionary = DurableDictionary.open(directory, DurabilityMode.SYNC)) {
+            assertThat(dictionary.size(), is(LIST_OF_WORDS.size()));
+            assertFalse(dictionary.searchWord("zebra"));
+            dictionary.addWord("zoo");
+        }
+        try (DurableDictionary dictionary = DurableDictionary.open(directory, DurabilityMode.SYNC)) {
+            assertThat(dictionary.size(), is(LIST_OF_WORDS.size() + 1));
+            assertTrue(dictionary.searchWord("zoo"));
+        }
+    }
+
+    @Test
+    public void shouldStopReplayAtCorruptedRecord() throws Exception {
+        try (DurableDictionary dictionary = DurableDictionary.open(directory, DurabilityMode.SYNC)) {
+            dictionary.addWord("any");
+            dictionary.addWord("ant");
+            dictionary.addWord("all");
+        }
+        final Path logFile = directory.resolve(DurableDictionary.LOG_FILE_NAME);
+        final byte[] log = Files.readAllBytes(logFile);
+        final int secondRecordCharacterOffset = WriteAheadLog.HEADER_SIZE + (5 + 3 + 4) + 5;
+        log[secondRecordCharacterOffset] = 'x';
+        Files.write(logFile, log);
+
+        try (DurableDictionary dictionary = DurableDictionary.open(directory, DurabilityMode.SYNC)) {
+            assertThat(dictionary.searchAllWords(), is(asList("any")));
+        }
+    }
+
+    @Test
+    public void shouldCompactLogIntoSnapshot() throws Exception {
+        try (DurableDictionary dictionary = DurableDictionary.open(directory, DurabilityMode.BATCHED)) {
+            dictionary.addAllWords(LIST_OF_WORDS);
+            dictionary.compact();
+            assertThat(dictionary.logSize(), is((long) WriteAheadLog.HEADER_SIZE));
+
+            dictionary.removeWord("any");
+            dictionary.addWord("zebra");
+        }
+
+        assertTrue(Files.exists(directory.resolve(DurableDictionary.SNAPSHOT_FILE_NAME)));
+        try (DurableDictionary dictionary = DurableDictionary.open(directory, DurabilityMode.BATCHED)) {
+            assertThat(dictionary.size(), is(LIST_OF_WORDS.size()));
+            assertFalse(dictionary.searchWord("any"));
+            assertTrue(dictionary.searchWord("zebra"));
+        }
+    }
+
+    @Test
+    public void shouldCompactAutomaticallyAboveThreshold() throws Exception {
+        final List<String> words = RandomWords.distinctWords(new Random(1), 2000, 10, 26);
+        try (DurableDictionary dictionary = DurableDictionary.open(directory, DurabilityMode.ASYNC, 1024)) {
+            for (String word : words) {
+                dictionary.addWord(word);
+                assertTrue(dictionary.logSize() <= 1024);
+            }
+        }
+
+        try (DurableDictionary dictionary = DurableDictionary.open(directory, DurabilityMode.ASYNC)) {
+            assertThat(dictionary.size(), is(words.size()));
+        }
+    }
+
+    @Test
+    public void shouldFailWritersOnceBackgroundFlushFailed() throws Exception {
+        final DurableDictionary dictionary = DurableDictionary.open(directory, DurabilityMode.ASYNC);
+        dictionary.getLog().getChannel().close();
+        dictionary.addWord("any");
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        boolean failed = false;
+        for (int i = 0; !failed && System.nanoTime() < deadline; i++) {
+            try {
+                dictionary.addWord("word" + i);
+                Thread.sleep(10);
+            } catch (UncheckedIOException e) {
+                failed = true;
+            }
+        }
+        assertTrue(failed);
+
+        final long logSize = dictionary.logSize();
+        boolean failedAgain = false;
+        try {
+            dictionary.removeWord("any");
+        } catch (UncheckedIOException e) {
+            failedAgain = true;
+        }
+        assertTrue(failedAgain);
+        assertThat(dictionary.logSize(), is(logSize));
+
+        boolean failedToClose = false;
+        try {
+            dictionary.close();
+        } catch (IOException e) {
+            failedToClose = true;
+        }
+        assertTrue(failedToClose);
+    }
+
+    @Test
+    public void shouldRecoverChangesOfConcurrentWritersWithGroupCommit() throws Exception {
+        final List<String> words = RandomWords.distinctWords(new Random(2), 400, 10, 26);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (DurableDictionary dictionary = DurableDictionary.open(directory, DurabilityMode.BATCHED)) {
+            final List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int i = 0; i < 4; i++) {
+                final List<String> wordsOfWriter = words.subList(i * words.size() / 4, (i + 1) * words.size() / 4);
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (String word : wordsOfWriter) {
+                            dictionary.addWord(word);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (DurableDictionary dictionary = DurableDictionary.open(directory, DurabilityMode.BATCHED)) {
+            assertThat(dictionary.size(), is(words.size()));
+            for (String word : words) {
+                assertTrue(dictionary.searchWord(word));
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package au.com.mindworks.dictionary;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FrozenDictionaryTest {
+    private static final List<String> LIST_OF_WORDS = asList(
+            "a", "an", "any", "ant", "all", "allot", "alloy", "aloe", "are", "ate",
+            "be",
+            "dog", "dads", "dad", "digging",
+            "ear", "earn",
+            "i",
+            "mom", "moms", "mommy",
+            "you", "your"
+    );
+
+    private Dictionary dictionary = new Dictionary();
+
+    @Test
+    public void shouldHaveSameWordsAsFrozenDictionary() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+
+        final FrozenDictionary frozenDictionary = dictionary.freeze();
+
+        assertThat(frozenDictionary.size(), is(LIST_OF_WORDS.size()));
+        for (String word : LIST_OF_WORDS) {
+            assertTrue("Expected to find word: '" + word + "'", frozenDictionary.searchWord(" " + word.toUpperCase() + " "));
+        }
+        assertFalse(frozenDictionary.searchWord("al"));
+        assertFalse(frozenDictionary.searchWord("diggings"));
+        assertFalse(frozenDictionary.searchWord(" "));
+        assertFalse(frozenDictionary.searchWord(null));
+
+        assertThat(frozenDictionary.searchAllWords(), is(dictionary.searchAllWords()));
+        assertThat(frozenDictionary.searchAllWordsStartingWith("aLLo"), is(asList("allot", "alloy")));
+        assertTrue(frozenDictionary.searchAllWordsStartingWith("sh").isEmpty());
+        assertThat(frozenDictionary.countWordsStartingWith("mom"), is(3));
+        assertThat(frozenDictionary.countWordsStartingWith(null), is(LIST_OF_WORDS.size()));
+
+        final Iterator<String> iterator = frozenDictionary.iterateWordsStartingWith("ea");
+        assertThat(iterator.next(), is("ear"));
+        assertThat(iterator.next(), is("earn"));
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void shouldMergeSharedSuffixes() {
+        dictionary.addAllWords(asList("walk", "walks", "walked", "walking", "talk", "talks", "talked", "talking"));
+
+        final FrozenDictionary frozenDictionary = dictionary.freeze();
+
+        // root, "w"/"t", "a", "l", "k", then the shared endings "s", "e", "d", "i", "n", "g" and the final state
+        assertThat(dictionary.nodeCount(), is(2 * (4 + 1 + 2 + 3)));
+        assertThat(frozenDictionary.stateCount(), is(9));
+        assertThat(frozenDictionary.sourceNodeCount(), is(dictionary.nodeCount()));
+        assertThat(frozenDictionary.countWordsStartingWith("talk"), is(4));
+        assertThat(frozenDictionary.searchAllWordsStartingWith("wal"), is(asList("walk", "walked", "walking", "walks")));
+    }
+
+    @Test
+    public void shouldNotBeAffectedByLaterChangesToDictionary() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+        final FrozenDictionary frozenDictionary = dictionary.freeze();
+
+        dictionary.removeWord("digging");
+        dictionary.addWord("dig");
+
+        assertTrue(frozenDictionary.searchWord("digging"));
+        assertFalse(frozenDictionary.searchWord("dig"));
+    }
+
+    @Test
+    public void shouldHaveSameWordsAsLargeDictionary() {
+        final Random random = new Random(5);
+        for (int i = 0; i < 50000; i++) {
+            final StringBuilder word = new StringBuilder();
+            final int length = 1 + random.nextInt(10);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('a' + random.nextInt(8)));
+            }
+            dictionary.addWord(word);
+        }
+
+        final FrozenDictionary frozenDictionary = dictionary.freeze();
+
+        assertTrue(frozenDictionary.stateCount() < dictionary.nodeCount());
+        assertThat(frozenDictionary.searchAllWords(), is(dictionary.searchAllWords()));
+        final List<String> prefixes = new ArrayList<String>(asList("a", "bc", "hhh", "abcdefgh"));
+        for (String prefix : prefixes) {
+            assertThat(frozenDictionary.countWordsStartingWith(prefix), is(dictionary.countWordsStartingWith(prefix)));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package au.com.mindworks.dictionary;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class MappedDictionaryTest {
+    private static final List<String> LIST_OF_WORDS = asList(
+            "a", "an", "any", "ant", "all", "allot", "alloy", "aloe", "are", "ate",
+            "be",
+            "dog", "dads", "dad", "digging",
+            "ear", "earn",
+            "i",
+            "mom", "moms", "mommy",
+            "you", "your"
+    );
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Dictionary dictionary = new Dictionary();
+    private Path snapshotFile;
+
+    @Before
+    public void setUp() throws Exception {
+        snapshotFile = temporaryFolder.getRoot().toPath().resolve("dictionary.trie");
+    }
+
+    @Test
+    public void shouldServeSavedWordsFromMappedSnapshot() throws Exception {
+        dictionary.addAllWords(LIST_OF_WORDS);
+        dictionary.save(snapshotFile);
+
+        final MappedDictionary mappedDictionary = MappedDictionary.map(snapshotFile);
+
+        assertThat(mappedDictionary.size(), is(LIST_OF_WORDS.size()));
+        assertThat(mappedDictionary.nodeCount(), is(dictionary.nodeCount()));
+        for (String word : LIST_OF_WORDS) {
+            assertTrue("Expected to find word: '" + word + "'", mappedDictionary.searchWord(" " + word.toUpperCase()));
+        }
+        assertFalse(mappedDictionary.searchWord("al"));
+        assertFalse(mappedDictionary.searchWord("alloys"));
+        assertFalse(mappedDictionary.searchWord(" "));
+        assertFalse(mappedDictionary.searchWord(null));
+
+        assertThat(mappedDictionary.searchAllWords(), is(dictionary.searchAllWords()));
+        assertThat(mappedDictionary.searchAllWordsStartingWith("aLl"), is(asList("all", "allot", "alloy")));
+        assertTrue(mappedDictionary.searchAllWordsStartingWith("sh").isEmpty());
+        assertThat(mappedDictionary.countWordsStartingWith("a"), is(10));
+        assertThat(mappedDictionary.countWordsStartingWith(" "), is(LIST_OF_WORDS.size()));
+
+        final Iterator<String> iterator = mappedDictionary.iterateWordsStartingWith("mom");
+        assertThat(iterator.next(), is("mom"));
+        assertThat(iterator.next(), is("mommy"));
+        assertThat(iterator.next(), is("moms"));
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void shouldLoadSavedWordsIntoModifiableDictionary() throws Exception {
+        final List<String> words = RandomWords.distinctWords(new Random(11), 100000, 12, 26);
+        dictionary.addAllWords(words);
+        dictionary.save(snapshotFile);
+
+        final Dictionary loadedDictionary = Dictionary.load(snapshotFile);
+
+        assertThat(loadedDictionary.size(), is(dictionary.size()));
+        assertThat(loadedDictionary.nodeCount(), is(dictionary.nodeCount()));
+        assertThat(loadedDictionary.countWordsStartingWith("b"), is(dictionary.countWordsStartingWith("b")));
+        assertThat(loadedDictionary.searchAllWords(), is(dictionary.searchAllWords()));
+
+        loadedDictionary.addWord("zzzzzzzzzzzz");
+        assertTrue(loadedDictionary.removeWord(words.get(0)));
+        assertThat(loadedDictionary.size(), is(dictionary.size()));
+    }
+
+    @Test
+    public void shouldSaveAndMapEmptyDictionary() throws Exception {
+        dictionary.save(snapshotFile);
+
+        final MappedDictionary mappedDictionary = MappedDictionary.map(snapshotFile);
+
+        assertThat(mappedDictionary.size(), is(0));
+        assertFalse(mappedDictionary.searchWord("a"));
+        assertTrue(mappedDictionary.searchAllWords().isEmpty());
+        assertThat(Dictionary.load(snapshotFile).size(), is(0));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectFileWhichIsNotSnapshot() throws Exception {
+        Files.write(snapshotFile, Collections.singletonList("not a dictionary snapshot"), StandardCharsets.UTF_8);
+
+        MappedDictionary.map(snapshotFile);
+    }
+}
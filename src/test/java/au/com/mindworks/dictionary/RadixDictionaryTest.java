@@ -0,0 +1,118 @@
+package au.com.mindworks.dictionary;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class RadixDictionaryTest {
+    private static final List<String> LIST_OF_WORDS = asList(
+            "a", "an", "any", "ant", "all", "allot", "alloy", "aloe", "are", "ate",
+            "be",
+            "dog", "dads", "dad", "digging",
+            "ear", "earn",
+            "i",
+            "mom", "moms", "mommy",
+            "you", "your"
+    );
+
+    private RadixDictionary dictionary = new RadixDictionary();
+
+    @Test
+    public void shouldAddSearchAndRemoveWordsLikeDictionary() {
+        for (String word : LIST_OF_WORDS) {
+            assertFalse("Expected to NOT find word: '" + word + "'", dictionary.searchWord(word));
+
+            dictionary.addWord(" " + word.toUpperCase());
+
+            assertTrue("Expected to find word: '" + word + "'", dictionary.searchWord(word + " "));
+        }
+        dictionary.addAllWords(LIST_OF_WORDS);
+        dictionary.addWord(" ");
+        dictionary.addWord(null);
+
+        assertThat(dictionary.size(), is(LIST_OF_WORDS.size()));
+        assertFalse(dictionary.searchWord("dig"));
+        assertFalse(dictionary.searchWord("diggings"));
+        assertFalse(dictionary.searchWord(" "));
+        assertFalse(dictionary.removeWord("dig"));
+        assertFalse(dictionary.removeWord("al"));
+
+        final Dictionary expectedDictionary = new Dictionary();
+        expectedDictionary.addAllWords(LIST_OF_WORDS);
+        assertThat(dictionary.searchAllWords(), is(expectedDictionary.searchAllWords()));
+        assertThat(dictionary.searchAllWordsStartingWith("alL"), is(asList("all", "allot", "alloy")));
+        assertThat(dictionary.searchAllWordsStartingWith("dig"), is(asList("digging")));
+        assertThat(dictionary.searchAllWordsStartingWith("mo"), is(asList("mom", "mommy", "moms")));
+        assertTrue(dictionary.searchAllWordsStartingWith("digs").isEmpty());
+        assertThat(dictionary.countWordsStartingWith("a"), is(10));
+        assertThat(dictionary.countWordsStartingWith("di"), is(1));
+        assertThat(dictionary.countWordsStartingWith(" "), is(LIST_OF_WORDS.size()));
+
+        for (String word : LIST_OF_WORDS) {
+            assertTrue("Expected to remove word: '" + word + "'", dictionary.removeWord(word));
+            assertFalse("Expected to NOT find word: '" + word + "'", dictionary.searchWord(word));
+        }
+        assertThat(dictionary.size(), is(0));
+        assertThat(dictionary.nodeCount(), is(0));
+    }
+
+    @Test
+    public void shouldCompressRunsWithoutBranchingIntoSingleNode() {
+        dictionary.addWord("digging");
+        assertThat(dictionary.nodeCount(), is(1));
+
+        dictionary.addWord("dig");
+        assertThat(dictionary.nodeCount(), is(2));
+
+        dictionary.addWord("dog");
+        assertThat(dictionary.nodeCount(), is(4));
+
+        dictionary.removeWord("dig");
+        assertThat(dictionary.nodeCount(), is(3));
+
+        dictionary.removeWord("dog");
+        assertThat(dictionary.nodeCount(), is(1));
+        assertThat(dictionary.searchAllWords(), is(asList("digging")));
+    }
+
+    @Test
+    public void shouldMatchDictionaryUnderRandomAdditionsAndRemovals() {
+        final Random random = new Random(17);
+        final Dictionary expectedDictionary = new Dictionary();
+        final List<String> words = new ArrayList<String>();
+        for (int i = 0; i < 3000; i++) {
+            final StringBuilder word = new StringBuilder();
+            final int length = 1 + random.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('a' + random.nextInt(4)));
+            }
+            words.add(word.toString());
+        }
+
+        for (int i = 0; i < 20000; i++) {
+            final String word = words.get(random.nextInt(words.size()));
+            if (random.nextInt(3) == 0) {
+                assertThat(dictionary.removeWord(word), is(expectedDictionary.removeWord(word)));
+            } else {
+                dictionary.addWord(word);
+                expectedDictionary.addWord(word);
+            }
+            assertThat(dictionary.size(), is(expectedDictionary.size()));
+        }
+
+        assertThat(dictionary.searchAllWords(), is(expectedDictionary.searchAllWords()));
+        assertTrue(dictionary.nodeCount() < expectedDictionary.nodeCount());
+        for (String prefix : asList("a", "ab", "bca", "dddd")) {
+            assertThat(dictionary.countWordsStartingWith(prefix), is(expectedDictionary.countWordsStartingWith(prefix)));
+            assertThat(dictionary.searchAllWordsStartingWith(prefix), is(expectedDictionary.searchAllWordsStartingWith(prefix)));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package au.com.mindworks.dictionary;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Random word fixtures shared by the test suites.
+ */
+final class RandomWords {
+    private RandomWords() {
+    }
+
+    /**
+     * @param random
+     * @param count        number of words, which must be well below the number of possible words
+     * @param maxLength    maximum number of characters of a word, at least 1
+     * @param alphabetSize number of letters, from 'a', the words are made of
+     * @return count distinct lowercase words, in the order they were drawn
+     */
+    static List<String> distinctWords(final Random random, final int count, final int maxLength, final int alphabetSize) {
+        final Set<String> words = new LinkedHashSet<String>();
+        while (words.size() < count) {
+            final StringBuilder word = new StringBuilder();
+            final int length = 1 + random.nextInt(maxLength);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('a' + random.nextInt(alphabetSize)));
+            }
+            words.add(word.toString());
+        }
+        return new ArrayList<String>(words);
+    }
+}
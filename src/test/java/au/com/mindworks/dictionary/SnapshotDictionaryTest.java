@@ -0,0 +1,260 @@
+package au.com.mindworks.dictionary;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Arrays.asList;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class SnapshotDictionaryTest {
+    private static final List<String> LIST_OF_WORDS = asList(
+            "a", "an", "any", "ant", "all", "allot", "alloy", "aloe", "are", "ate",
+            "be",
+            "dog", "dads", "dad", "digging",
+            "ear", "earn",
+            "i",
+            "mom", "moms", "mommy",
+            "you", "your"
+    );
+    private static final int THREAD_COUNT = 8;
+
+    private SnapshotDictionary dictionary = new SnapshotDictionary();
+
+    @Test
+    public void shouldBehaveLikeDictionaryWhenUsedByOneThread() {
+        final Dictionary expectedDictionary = new Dictionary();
+        expectedDictionary.addAllWords(LIST_OF_WORDS);
+        dictionary.addAllWords(LIST_OF_WORDS);
+        dictionary.addWord(" ANY ");
+        dictionary.addWord(" ");
+        dictionary.addWord(null);
+
+        assertThat(dictionary.size(), is(LIST_OF_WORDS.size()));
+        assertThat(dictionary.searchAllWords(), is(expectedDictionary.searchAllWords()));
+        assertThat(dictionary.searchAllWordsStartingWith("aLL"), is(asList("all", "allot", "alloy")));
+        assertThat(dictionary.searchAllWordsStartingWith("x").size(), is(0));
+        assertThat(dictionary.countWordsStartingWith("a"), is(10));
+        assertThat(dictionary.countWordsStartingWith(" "), is(LIST_OF_WORDS.size()));
+        assertTrue(dictionary.searchWord(" Digging"));
+        assertFalse(dictionary.searchWord("dig"));
+
+        assertFalse(dictionary.removeWord("dig"));
+        assertTrue(dictionary.removeWord("digging"));
+        assertTrue(dictionary.removeWord("dad"));
+        assertFalse(dictionary.searchWord("digging"));
+        assertTrue(dictionary.searchWord("dads"));
+        assertThat(dictionary.countWordsStartingWith("d"), is(2));
+        assertThat(dictionary.size(), is(LIST_OF_WORDS.size() - 2));
+    }
+
+    @Test
+    public void shouldKeepSnapshotUnchangedWhenLaterBatchesAreApplied() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+        final DictionarySnapshot snapshot = dictionary.snapshot();
+
+        final DictionarySnapshot nextSnapshot = dictionary.applyBatch(asList("anvil", "zoo"), asList("any", "mom"));
+
+        assertThat(snapshot.size(), is(LIST_OF_WORDS.size()));
+        assertThat(snapshot.searchAllWords(), is(dictionaryOf(LIST_OF_WORDS).searchAllWords()));
+        assertTrue(snapshot.searchWord("any"));
+        assertFalse(snapshot.searchWord("zoo"));
+        assertThat(snapshot.countWordsStartingWith("an"), is(3));
+
+        assertThat(nextSnapshot.getVersion(), is(snapshot.getVersion() + 1));
+        assertThat(nextSnapshot.size(), is(LIST_OF_WORDS.size()));
+        assertThat(nextSnapshot.searchAllWordsStartingWith("an"), is(asList("an", "ant", "anvil")));
+        assertTrue(nextSnapshot.searchWord("zoo"));
+        assertFalse(nextSnapshot.searchWord("mom"));
+        assertThat(dictionary.snapshot(), is(sameInstance(nextSnapshot)));
+    }
+
+    @Test
+    public void shouldShareShardsNotTouchedByBatch() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+        final DictionarySnapshot snapshot = dictionary.snapshot();
+        final int shardOfA = DictionarySnapshot.shardOf('a');
+        final int shardOfD = DictionarySnapshot.shardOf('d');
+
+        final DictionarySnapshot nextSnapshot = dictionary.applyBatch(asList("anvil"), Collections.<String>emptyList());
+
+        assertThat(nextSnapshot.getShardRoot(shardOfA), is(not(sameInstance(snapshot.getShardRoot(shardOfA)))));
+        assertThat(nextSnapshot.getShardRoot(shardOfD), is(sameInstance(snapshot.getShardRoot(shardOfD))));
+        assertThat(nextSnapshot.getShardRoot(shardOfA).getChild('a').getChild('l'),
+                is(sameInstance(snapshot.getShardRoot(shardOfA).getChild('a').getChild('l'))));
+    }
+
+    @Test
+    public void shouldNotPublishSnapshotWhenBatchChangesNothing() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+        final DictionarySnapshot snapshot = dictionary.snapshot();
+
+        assertThat(dictionary.applyBatch(asList("any", " "), asList("anvil")), is(sameInstance(snapshot)));
+        assertThat(dictionary.applyBatch(Collections.<String>emptyList(), Collections.<String>emptyList()), is(sameInstance(snapshot)));
+    }
+
+    @Test
+    public void shouldReplaceAllWordsWithDifference() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+        final DictionarySnapshot snapshot = dictionary.snapshot();
+        final List<String> newWords = new ArrayList<String>(LIST_OF_WORDS);
+        newWords.remove("digging");
+        newWords.add("Zebra");
+
+        final DictionarySnapshot nextSnapshot = dictionary.replaceAllWords(newWords);
+
+        assertThat(nextSnapshot.searchAllWords(), is(dictionaryOf(newWords).searchAllWords()));
+        assertThat(nextSnapshot.size(), is(LIST_OF_WORDS.size()));
+        assertThat(nextSnapshot.getShardRoot(DictionarySnapshot.shardOf('m')),
+                is(sameInstance(snapshot.getShardRoot(DictionarySnapshot.shardOf('m')))));
+    }
+
+    @Test
+    public void shouldReplaceAllWordsLikeNewDictionary() {
+        final Random random = new Random(5);
+        final List<String> words = RandomWords.distinctWords(random, 2000, 8, 6);
+        final int quarter = words.size() / 4;
+        dictionary.addAllWords(words.subList(0, 3 * quarter));
+        final List<String> newWords = new ArrayList<String>();
+        for (int i = 0; i < 3 * quarter; i++) {
+            final String word = words.get(quarter + random.nextInt(words.size() - quarter));
+            newWords.add(random.nextBoolean() ? word : " " + word.toUpperCase() + " ");
+        }
+
+        final DictionarySnapshot nextSnapshot = dictionary.replaceAllWords(newWords);
+
+        assertThat(nextSnapshot.searchAllWords(), is(dictionaryOf(newWords).searchAllWords()));
+        assertThat(nextSnapshot.size(), is(dictionaryOf(newWords).size()));
+        assertThat(dictionary.replaceAllWords(Collections.<String>emptyList()).size(), is(0));
+    }
+
+    @Test
+    public void shouldReplaceAllWordsWithVeryLongWords() {
+        final StringBuilder longWord = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            longWord.append((char) ('a' + i % 26));
+        }
+        final String shorterWord = longWord.substring(0, 50000);
+        dictionary.addAllWords(asList(longWord.toString(), shorterWord, "any"));
+
+        final DictionarySnapshot nextSnapshot = dictionary.replaceAllWords(asList(shorterWord, "dog"));
+
+        assertThat(nextSnapshot.searchAllWords(), is(asList(shorterWord, "dog")));
+        assertFalse(nextSnapshot.searchWord(longWord));
+    }
+
+    @Test
+    public void shouldMatchDictionaryAfterRandomBatches() {
+        final Random random = new Random(4);
+        final List<String> words = RandomWords.distinctWords(random, 3000, 8, 6);
+        final Dictionary expectedDictionary = new Dictionary();
+        for (int round = 0; round < 50; round++) {
+            final List<String> wordsToAdd = new ArrayList<String>();
+            final List<String> wordsToRemove = new ArrayList<String>();
+            for (int i = 0; i < 100; i++) {
+                wordsToAdd.add(words.get(random.nextInt(words.size())));
+                wordsToRemove.add(words.get(random.nextInt(words.size())));
+            }
+            expectedDictionary.addAllWords(wordsToAdd);
+            for (String wordToRemove : wordsToRemove) {
+                expectedDictionary.removeWord(wordToRemove);
+            }
+            dictionary.applyBatch(wordsToAdd, wordsToRemove);
+
+            assertThat(dictionary.size(), is(expectedDictionary.size()));
+            assertThat(dictionary.searchAllWords(), is(expectedDictionary.searchAllWords()));
+            assertThat(dictionary.countWordsStartingWith("ab"), is(expectedDictionary.searchAllWordsStartingWith("ab").size()));
+        }
+    }
+
+    @Test
+    public void shouldSeeConsistentSnapshotsWhileBatchesAreAppliedConcurrently() throws Exception {
+        final List<String> stableWords = RandomWords.distinctWords(new Random(1), 2000, 8, 6);
+        final List<String> volatileWords = new ArrayList<String>(RandomWords.distinctWords(new Random(2), 4000, 8, 6));
+        volatileWords.removeAll(stableWords);
+        dictionary.addAllWords(stableWords);
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT * 2);
+        final List<Future<Boolean>> readers = new ArrayList<Future<Boolean>>();
+        final List<Future<Boolean>> writers = new ArrayList<Future<Boolean>>();
+        try {
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                readers.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        start.await();
+                        while (running.get()) {
+                            final DictionarySnapshot snapshot = dictionary.snapshot();
+                            final List<String> allWords = snapshot.searchAllWords();
+                            if (allWords.size() != snapshot.size() || !allWords.containsAll(stableWords)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                final Random random = new Random(i);
+                writers.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        start.await();
+                        for (int j = 0; j < 2000; j++) {
+                            final List<String> wordsToAdd = new ArrayList<String>();
+                            final List<String> wordsToRemove = new ArrayList<String>();
+                            for (int k = 0; k < 10; k++) {
+                                wordsToAdd.add(volatileWords.get(random.nextInt(volatileWords.size())));
+                                wordsToRemove.add(volatileWords.get(random.nextInt(volatileWords.size())));
+                            }
+                            dictionary.applyBatch(wordsToAdd, wordsToRemove);
+                        }
+                        return true;
+                    }
+                }));
+            }
+
+            start.countDown();
+            for (Future<Boolean> writer : writers) {
+                assertTrue(writer.get(1, TimeUnit.MINUTES));
+            }
+            running.set(false);
+            for (Future<Boolean> reader : readers) {
+                assertTrue("Expected every snapshot to hold its size and the stable words", reader.get(1, TimeUnit.MINUTES));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final List<String> allWords = dictionary.searchAllWords();
+        assertThat(dictionary.size(), is(allWords.size()));
+        assertTrue(allWords.containsAll(stableWords));
+        for (String word : allWords) {
+            assertTrue(dictionary.searchWord(word));
+        }
+        assertThat(dictionary.countWordsStartingWith("a"), is(dictionary.searchAllWordsStartingWith("a").size()));
+    }
+
+    private static Dictionary dictionaryOf(final List<String> words) {
+        final Dictionary expectedDictionary = new Dictionary();
+        expectedDictionary.addAllWords(words);
+        return expectedDictionary;
+    }
+}
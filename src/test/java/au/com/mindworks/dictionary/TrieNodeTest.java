@@ -0,0 +1,107 @@
+package au.com.mindworks.dictionary;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TrieNodeTest {
+    private TrieNode trieNode = new TrieNode();
+
+    @Test
+    public void shouldHaveNoChildrenWhenCreated() {
+        assertFalse(trieNode.hasChildren());
+        assertThat(trieNode.getChildrenCount(), is(0));
+        assertThat(trieNode.getChildSlotCount(), is(0));
+        assertNull(trieNode.getChild('a'));
+    }
+
+    @Test
+    public void shouldKeepChildrenWhileSwitchingToDenseStorageAndBack() {
+        final List<TrieNode> addedChildren = new ArrayList<TrieNode>();
+        for (char character = 'z'; character >= 'a'; character--) {
+            addedChildren.add(0, trieNode.addChild(character));
+
+            assertTrue(trieNode.hasChild(character));
+        }
+        assertThat(trieNode.getChildrenCount(), is(26));
+        assertThat(childCharactersOf(trieNode), is(lowerCaseLetters()));
+
+        for (char character = 'a'; character <= 'z'; character++) {
+            assertTrue(trieNode.getChild(character) == addedChildren.get(character - 'a'));
+        }
+
+        for (char character = 'a'; character <= 'x'; character++) {
+            trieNode.removeChild(character);
+
+            assertFalse(trieNode.hasChild(character));
+            assertThat(trieNode.getChildrenCount(), is('z' - character));
+        }
+        assertThat(childCharactersOf(trieNode), is(asList('y', 'z')));
+        assertTrue(trieNode.getChild('y') == addedChildren.get('y' - 'a'));
+        assertTrue(trieNode.getChild('z') == addedChildren.get('z' - 'a'));
+
+        trieNode.removeChild('y');
+        trieNode.removeChild('z');
+
+        assertFalse(trieNode.hasChildren());
+        assertThat(trieNode.getChildSlotCount(), is(0));
+    }
+
+    @Test
+    public void shouldSupportCharactersOutsideLowerCaseLettersAlongsideDenseStorage() {
+        for (char character = 'a'; character <= 'z'; character++) {
+            trieNode.addChild(character);
+        }
+        trieNode.addChild('1');
+        trieNode.addChild('\u00e9');
+        trieNode.addChild('A');
+
+        assertThat(trieNode.getChildrenCount(), is(29));
+        assertTrue(trieNode.hasChild('1'));
+        assertTrue(trieNode.hasChild('\u00e9'));
+        assertTrue(trieNode.hasChild('A'));
+        assertTrue(trieNode.hasChild('q'));
+
+        final List<Character> expectedCharacters = new ArrayList<Character>(asList('1', 'A'));
+        expectedCharacters.addAll(lowerCaseLetters());
+        expectedCharacters.add('\u00e9');
+        assertThat(childCharactersOf(trieNode), is(expectedCharacters));
+    }
+
+    @Test
+    public void shouldIgnoreRemovalOfMissingChild() {
+        trieNode.addChild('b');
+
+        trieNode.removeChild('a');
+        trieNode.removeChild('1');
+
+        assertThat(trieNode.getChildrenCount(), is(1));
+        assertTrue(trieNode.hasChild('b'));
+    }
+
+    private static List<Character> childCharactersOf(final TrieNode trieNode) {
+        final List<Character> characters = new ArrayList<Character>();
+        for (int slot = 0; slot < trieNode.getChildSlotCount(); slot++) {
+            if (trieNode.getChildAt(slot) != null) {
+                characters.add(trieNode.getChildCharacterAt(slot));
+            }
+        }
+        return characters;
+    }
+
+    private static List<Character> lowerCaseLetters() {
+        final List<Character> characters = new ArrayList<Character>();
+        for (char character = 'a'; character <= 'z'; character++) {
+            characters.add(character);
+        }
+        return characters;
+    }
+}
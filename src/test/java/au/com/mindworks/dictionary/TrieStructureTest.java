@@ -0,0 +1,76 @@
+package au.com.mindworks.dictionary;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static junit.framework.Assert.assertTrue;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TrieStructureTest {
+    private static final List<String> LIST_OF_WORDS = asList(
+            "a", "an", "any", "ant", "all", "allot", "alloy", "aloe", "are", "ate",
+            "be",
+            "dog", "dads", "dad", "digging",
+            "ear", "earn",
+            "i",
+            "mom", "moms", "mommy",
+            "you", "your"
+    );
+
+    private Dictionary dictionary = new Dictionary();
+
+    @Test
+    public void shouldDescribeEmptyDictionary() {
+        final TrieStructure structure = dictionary.describeStructure();
+
+        assertThat(structure.getWordCount(), is(0));
+        assertThat(structure.getNodeCount(), is(1L));
+        assertThat(structure.getMaxDepth(), is(0));
+        assertThat(structure.getNodeCountWithFanOut(0), is(1L));
+        assertThat(structure.getEstimatedBytes(), is((long) TrieNode.SHALLOW_BYTES));
+    }
+
+    @Test
+    public void shouldDescribeShapeOfTrie() {
+        dictionary.addAllWords(LIST_OF_WORDS);
+
+        final TrieStructure structure = dictionary.describeStructure();
+
+        assertThat(structure.getWordCount(), is(LIST_OF_WORDS.size()));
+        assertThat(structure.getNodeCount(), is(dictionary.nodeCount() + 1L));
+        assertThat(structure.getMaxDepth(), is("digging".length()));
+        assertThat(structure.getNodeCountAtDepth(0), is(1L));
+        assertThat(structure.getNodeCountAtDepth(1), is(7L));
+        assertThat(structure.getNodeCountAtDepth(2), is(11L));
+        assertThat(structure.getNodeCountAtDepth(8), is(0L));
+        assertThat(structure.getMaxFanOut(), is(7));
+        assertThat(structure.getNodeCountWithFanOut(7), is(1L));
+        assertThat(structure.getNodeCountWithFanOut(0), is(16L));
+
+        long nodeCount = 0;
+        for (int fanOut = 0; fanOut <= structure.getMaxFanOut(); fanOut++) {
+            nodeCount += structure.getNodeCountWithFanOut(fanOut);
+        }
+        assertThat(nodeCount, is(structure.getNodeCount()));
+        assertThat(structure.getSparseChildrenCount(), is(structure.getNodeCount() - 16));
+        assertThat(structure.getDenseChildrenCount(), is(0L));
+        assertTrue(structure.getEstimatedBytes() > structure.getNodeCount() * TrieNode.SHALLOW_BYTES);
+        assertTrue(structure.toString().contains("nodes per depth:"));
+    }
+
+    @Test
+    public void shouldCountDenseChildren() {
+        for (char first = 'a'; first <= 'z'; first++) {
+            dictionary.addWord(String.valueOf(first));
+        }
+
+        final TrieStructure structure = dictionary.describeStructure();
+
+        assertThat(structure.getDenseChildrenCount(), is(1L));
+        assertThat(structure.getNodeCountWithFanOut(26), is(1L));
+        assertThat(structure.getEstimatedBytes(), is(27L * TrieNode.SHALLOW_BYTES + 24 + 16 + 26 * 4));
+    }
+}
@@ -0,0 +1,180 @@
+package au.com.mindworks.dictionary;
+
+import org.junit.Test;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class UnicodeDictionaryTest {
+    private static final List<String> LIST_OF_WORDS = asList(
+            "a", "an", "any", "ant", "all", "allot", "alloy", "aloe", "are", "ate",
+            "be",
+            "dog", "dads", "dad", "digging",
+            "ear", "earn",
+            "i",
+            "mom", "moms", "mommy",
+            "you", "your"
+    );
+    private static final WordNormalization NFC_WITHOUT_ACCENTS = new WordNormalization(Normalizer.Form.NFC, true, true);
+
+    @Test
+    public void shouldBehaveLikeDictionaryForAsciiWordsInBothEncodings() {
+        final Dictionary expectedDictionary = new Dictionary();
+        expectedDictionary.addAllWords(LIST_OF_WORDS);
+        for (TrieKeyEncoding keyEncoding : TrieKeyEncoding.values()) {
+            final UnicodeDictionary dictionary = new UnicodeDictionary(WordNormalization.CASE_FOLDING, keyEncoding);
+            dictionary.addAllWords(LIST_OF_WORDS);
+            dictionary.addWord(" ANY ");
+            dictionary.addWord(" ");
+            dictionary.addWord(null);
+
+            assertThat(dictionary.size(), is(LIST_OF_WORDS.size()));
+            assertThat(dictionary.nodeCount(), is(expectedDictionary.nodeCount()));
+            assertThat(dictionary.searchAllWords(), is(expectedDictionary.searchAllWords()));
+            assertThat(dictionary.searchAllWordsStartingWith("aLL"), is(asList("all", "allot", "alloy")));
+            assertThat(dictionary.searchAllWordsStartingWith("x").size(), is(0));
+            assertThat(dictionary.countWordsStartingWith("a"), is(10));
+            assertTrue(dictionary.searchWord(" Digging"));
+            assertFalse(dictionary.searchWord("dig"));
+
+            assertFalse(dictionary.removeWord("dig"));
+            assertTrue(dictionary.removeWord("digging"));
+            assertTrue(dictionary.removeWord("dad"));
+            assertFalse(dictionary.searchWord("digging"));
+            assertTrue(dictionary.searchWord("dads"));
+            assertThat(dictionary.countWordsStartingWith("d"), is(2));
+            assertThat(dictionary.size(), is(LIST_OF_WORDS.size() - 2));
+            assertThat(dictionary.nodeCount(), is(expectedDictionary.nodeCount() - 6));
+        }
+    }
+
+    @Test
+    public void shouldFindAccentedVariantsAsOneWord() {
+        for (TrieKeyEncoding keyEncoding : TrieKeyEncoding.values()) {
+            final UnicodeDictionary dictionary = new UnicodeDictionary(NFC_WITHOUT_ACCENTS, keyEncoding);
+            dictionary.addWord("Caf\u00e9");
+            dictionary.addWord("cafe\u0301");
+            dictionary.addWord("CAFE");
+            dictionary.addWord("na\u00efve");
+
+            assertThat(dictionary.size(), is(2));
+            assertTrue(dictionary.searchWord("caf\u00c9"));
+            assertTrue(dictionary.searchWord("naive"));
+            assertThat(dictionary.searchAllWords(), is(asList("cafe", "naive")));
+        }
+    }
+
+    @Test
+    public void shouldKeepSurrogatePairsInOneCodePointNode() {
+        final String grinningFace = new String(Character.toChars(0x1F600));
+        final String grinningFaceWithBigEyes = new String(Character.toChars(0x1F603));
+        final UnicodeDictionary codePointDictionary = new UnicodeDictionary();
+        final UnicodeDictionary byteDictionary = new UnicodeDictionary(WordNormalization.CASE_FOLDING, TrieKeyEncoding.UTF8_BYTES);
+        for (UnicodeDictionary dictionary : asList(codePointDictionary, byteDictionary)) {
+            dictionary.addWord(grinningFace);
+            dictionary.addWord(grinningFaceWithBigEyes);
+            dictionary.addWord("a" + grinningFace);
+
+            assertTrue(dictionary.searchWord(grinningFace));
+            assertFalse(dictionary.searchWord(grinningFace.substring(0, 1)));
+            assertThat(dictionary.searchAllWordsStartingWith("a"), is(asList("a" + grinningFace)));
+            assertThat(dictionary.searchAllWords(), is(asList("a" + grinningFace, grinningFace, grinningFaceWithBigEyes)));
+        }
+        assertThat(codePointDictionary.nodeCount(), is(4));
+        assertThat(byteDictionary.nodeCount(), is(4 + 1 + 1 + 4));
+    }
+
+    @Test
+    public void shouldUseTableForLargeByteFanOut() {
+        final UnicodeDictionary dictionary = new UnicodeDictionary(WordNormalization.CASE_FOLDING, TrieKeyEncoding.UTF8_BYTES);
+        final List<String> words = new ArrayList<String>();
+        for (char character = '\u0430'; character <= '\u044f'; character++) {
+            words.add("x" + character);
+        }
+        dictionary.addAllWords(words);
+
+        assertThat(dictionary.searchAllWords(), is(words));
+        for (String word : words.subList(0, 28)) {
+            assertTrue(dictionary.removeWord(word));
+        }
+        assertThat(dictionary.searchAllWords(), is(words.subList(28, words.size())));
+    }
+
+    @Test
+    public void shouldEnumerateSameWordsInCodePointOrderInBothEncodings() {
+        final Random random = new Random(1);
+        final List<String> words = new ArrayList<String>();
+        for (int i = 0; i < 3000; i++) {
+            final StringBuilder word = new StringBuilder();
+            final int length = 1 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                switch (random.nextInt(4)) {
+                    case 0:
+                        word.append((char) ('a' + random.nextInt(26)));
+                        break;
+                    case 1:
+                        word.append((char) ('\u00e0' + random.nextInt(30)));
+                        break;
+                    case 2:
+                        word.append((char) ('\u4e00' + random.nextInt(40)));
+                        break;
+                    default:
+                        word.appendCodePoint(0x1F600 + random.nextInt(40));
+                }
+            }
+            words.add(word.toString());
+        }
+        final UnicodeDictionary codePointDictionary = new UnicodeDictionary(NFC_WITHOUT_ACCENTS, TrieKeyEncoding.CODE_POINTS);
+        final UnicodeDictionary byteDictionary = new UnicodeDictionary(NFC_WITHOUT_ACCENTS, TrieKeyEncoding.UTF8_BYTES);
+        codePointDictionary.addAllWords(words);
+        byteDictionary.addAllWords(words);
+        for (String word : words.subList(0, 1000)) {
+            assertThat(byteDictionary.removeWord(word), is(codePointDictionary.removeWord(word)));
+        }
+
+        final Set<String> remainingWords = new HashSet<String>();
+        for (String word : words) {
+            remainingWords.add(NFC_WITHOUT_ACCENTS.normalize(word));
+        }
+        for (String word : words.subList(0, 1000)) {
+            remainingWords.remove(NFC_WITHOUT_ACCENTS.normalize(word));
+        }
+        final List<String> expectedWords = new ArrayList<String>(remainingWords);
+        Collections.sort(expectedWords, new Comparator<String>() {
+            @Override
+            public int compare(final String first, final String second) {
+                return compareCodePoints(first, second);
+            }
+        });
+        assertThat(codePointDictionary.searchAllWords(), is(expectedWords));
+        assertThat(byteDictionary.searchAllWords(), is(expectedWords));
+        assertThat(byteDictionary.size(), is(expectedWords.size()));
+    }
+
+    private static int compareCodePoints(final String first, final String second) {
+        int i = 0;
+        int j = 0;
+        while (i < first.length() && j < second.length()) {
+            final int firstCodePoint = first.codePointAt(i);
+            final int secondCodePoint = second.codePointAt(j);
+            if (firstCodePoint != secondCodePoint) {
+                return firstCodePoint < secondCodePoint ? -1 : 1;
+            }
+            i += Character.charCount(firstCodePoint);
+            j += Character.charCount(secondCodePoint);
+        }
+        return (first.length() - i) - (second.length() - j);
+    }
+}
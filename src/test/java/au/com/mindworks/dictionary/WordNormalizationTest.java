@@ -0,0 +1,71 @@
+package au.com.mindworks.dictionary;
+
+import org.junit.Test;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class WordNormalizationTest {
+    private static final String CAFE_PRECOMPOSED = "Caf\u00e9";
+    private static final String CAFE_COMBINING = "Cafe\u0301";
+
+    @Test
+    public void shouldTrimAndFoldCaseOfAsciiWords() {
+        assertThat(WordNormalization.CASE_FOLDING.normalize("  Any Word\t"), is("any word"));
+        assertThat(new WordNormalization(Normalizer.Form.NFC, false, false).normalize(" Any "), is("Any"));
+        assertThat(WordNormalization.CASE_FOLDING.normalize("   "), is(""));
+    }
+
+    @Test
+    public void shouldFoldCaseIndependentlyOfDefaultLocale() {
+        final Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            assertThat(WordNormalization.CASE_FOLDING.normalize("TITLE"), is("title"));
+            assertThat(WordNormalization.CASE_FOLDING.normalize("\u0399\u03a3\u039f\u03a3"), is("\u03b9\u03c3\u03bf\u03c3"));
+            assertThat(WordNormalization.CASE_FOLDING.normalize("\u03bf\u03c2"), is("\u03bf\u03c3"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void shouldMatchPrecomposedAndCombiningAccentsInNfc() {
+        final WordNormalization nfc = new WordNormalization(Normalizer.Form.NFC, true, false);
+
+        assertThat(nfc.normalize(CAFE_COMBINING), is("caf\u00e9"));
+        assertThat(nfc.normalize(CAFE_PRECOMPOSED), is("caf\u00e9"));
+        assertThat(WordNormalization.CASE_FOLDING.normalize(CAFE_COMBINING), is("cafe\u0301"));
+    }
+
+    @Test
+    public void shouldDecomposeCompatibilityCharactersInNfkd() {
+        final WordNormalization nfkd = new WordNormalization(Normalizer.Form.NFKD, true, false);
+
+        assertThat(nfkd.normalize("\ufb01ne"), is("fine"));
+        assertThat(nfkd.normalize(CAFE_PRECOMPOSED), is("cafe\u0301"));
+    }
+
+    @Test
+    public void shouldStripAccents() {
+        final WordNormalization nfcWithoutAccents = new WordNormalization(Normalizer.Form.NFC, true, true);
+        final WordNormalization nfkdWithoutAccents = new WordNormalization(Normalizer.Form.NFKD, true, true);
+
+        assertThat(nfcWithoutAccents.normalize(CAFE_PRECOMPOSED), is("cafe"));
+        assertThat(nfcWithoutAccents.normalize(CAFE_COMBINING), is("cafe"));
+        assertThat(nfcWithoutAccents.normalize("Cr\u00e8me Br\u00fbl\u00e9e"), is("creme brulee"));
+        assertThat(nfcWithoutAccents.normalize("\u1100\u1161"), is("\uac00"));
+        assertThat(nfkdWithoutAccents.normalize("\ufb01anc\u00e9"), is("fiance"));
+    }
+
+    @Test
+    public void shouldKeepSurrogatePairsTogether() {
+        final String deseretCapitalLongI = new String(Character.toChars(0x10400));
+        final String deseretSmallLongI = new String(Character.toChars(0x10428));
+
+        assertThat(WordNormalization.CASE_FOLDING.normalize(deseretCapitalLongI + "A"), is(deseretSmallLongI + "a"));
+    }
+}